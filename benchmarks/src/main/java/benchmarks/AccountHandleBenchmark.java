@@ -0,0 +1,94 @@
+package benchmarks;
+
+import domain.BalanceSnapshot;
+import domain.CurrencyType;
+import domain.MoneyModel;
+import domain.OperationResult;
+import domain.TransactionModel;
+import metrics.BankingMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import repository.AccountHandleRegistry;
+import repository.AccountsRepository;
+import services.LockingMode;
+import services.TransactionManagerService;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// the same calls addressed by id string and by handle, over a repository large enough that lookups miss the cache
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class AccountHandleBenchmark {
+    @Param({"1000", "1000000"})
+    int accounts;
+
+    private final MoneyModel amount = MoneyModel.ofMinorUnits(1, CurrencyType.RON);
+    private TransactionManagerService service;
+    private String[] ids;
+    private int[] handles;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BankingMetrics.INSTANCE.setEnabled(false);
+        ids = BenchmarkAccounts.checking(accounts);
+        AccountHandleRegistry registry = AccountsRepository.INSTANCE.getHandles();
+        handles = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            handles[i] = registry.find(ids[i]);
+        }
+        service = new TransactionManagerService(LockingMode.PER_ACCOUNT);
+    }
+
+    @Setup(Level.Iteration)
+    public void clearHistories() {
+        BenchmarkAccounts.clearHistories();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BankingMetrics.INSTANCE.setEnabled(true);
+        AccountsRepository.INSTANCE.clear();
+    }
+
+    @Benchmark
+    public OperationResult<BalanceSnapshot> readBalanceById() {
+        return service.tryReadBalance(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public OperationResult<BalanceSnapshot> readBalanceByHandle() {
+        return service.tryReadBalance(handles[ThreadLocalRandom.current().nextInt(handles.length)]);
+    }
+
+    @Benchmark
+    public OperationResult<TransactionModel> transferById() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(ids.length);
+        int to = (from + 1 + random.nextInt(ids.length - 1)) % ids.length;
+        return service.tryTransfer(ids[from], ids[to], amount);
+    }
+
+    @Benchmark
+    public OperationResult<TransactionModel> transferByHandle() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(handles.length);
+        int to = (from + 1 + random.nextInt(handles.length - 1)) % handles.length;
+        return service.tryTransfer(handles[from], handles[to], amount);
+    }
+}
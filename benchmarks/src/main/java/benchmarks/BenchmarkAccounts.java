@@ -0,0 +1,67 @@
+package benchmarks;
+
+import domain.AccountModel;
+import domain.CapitalizationFrequency;
+import domain.CheckingAccountModel;
+import domain.CurrencyType;
+import domain.InterestRate;
+import domain.MoneyModel;
+import domain.SavingsAccountModel;
+import repository.AccountsRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+// Fills the shared repository for a benchmark trial; balances are large enough that no benchmark runs out of money.
+final class BenchmarkAccounts {
+    static final long BALANCE_MINOR_UNITS = 1_000_000_000_000L;
+    private static final double[] SAVINGS_RATES = {
+            InterestRate.ONE_MONTH_ACCOUNT, InterestRate.THREE_MONTH_ACCOUNT, InterestRate.SIX_MONTH_ACCOUNT
+    };
+
+    private BenchmarkAccounts() {}
+
+    static String[] checking(int count) {
+        AccountsRepository.INSTANCE.clear();
+        String[] ids = new String[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = "BENCH" + i;
+            CurrencyType currency = i % 8 == 0 ? CurrencyType.EUR : CurrencyType.RON;
+            AccountsRepository.INSTANCE.add(ids[i], new CheckingAccountModel(ids[i],
+                    MoneyModel.ofMinorUnits(BALANCE_MINOR_UNITS, currency), new ArrayList<>(), null));
+        }
+        return ids;
+    }
+
+    // 100 to 100,100 RON at the product rates, so every account earns interest; a benchmark capitalizing thousands of
+    // times has to rebase them between invocations to stay clear of overflow
+    static SavingsAccountModel[] savings(int count, LocalDate lastInterestAppliedDate) {
+        AccountsRepository.INSTANCE.clear();
+        SavingsAccountModel[] accounts = new SavingsAccountModel[count];
+        for (int i = 0; i < count; i++) {
+            String id = "BENCH_SAVINGS" + i;
+            CapitalizationFrequency frequency = i % 2 == 0 ? CapitalizationFrequency.MONTHLY : CapitalizationFrequency.QUARTERLY;
+            accounts[i] = new SavingsAccountModel(id, MoneyModel.ofMinorUnits(savingsBalance(i), CurrencyType.RON),
+                    new ArrayList<>(), SAVINGS_RATES[i % SAVINGS_RATES.length], frequency, lastInterestAppliedDate);
+            AccountsRepository.INSTANCE.add(id, accounts[i]);
+        }
+        return accounts;
+    }
+
+    // puts the balances back where savings created them, the schedules are left as they are
+    static void rebase(SavingsAccountModel[] accounts) {
+        for (int i = 0; i < accounts.length; i++) {
+            accounts[i].getBalance().setMinorUnits(savingsBalance(i));
+        }
+    }
+
+    private static long savingsBalance(int i) {
+        return 10_000 + i * 7_919L % 10_000_000;
+    }
+
+    static void clearHistories() {
+        for (AccountModel account : AccountsRepository.INSTANCE.values()) {
+            account.getTransactions().clear();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+// Runs the selected benchmarks once per thread count and writes one JSON result file per run, so results can be
+// diffed between releases.
+//
+//   java -jar benchmarks/target/benchmarks.jar [threads=1,2,4,8] [include=.*] [results=jmh-results] [key=value...]
+//
+// key=value pairs other than those narrow the @Param values, e.g. accounts=1000,100000 or historyLength=1000.
+// For anything else the plain JMH command line is available: java -cp benchmarks.jar org.openjdk.jmh.Main -h
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException {
+        String[] threadCounts = {"1", "2", "4", "8"};
+        String include = ".*";
+        String resultsDirectory = "jmh-results";
+        OptionsBuilder parameters = new OptionsBuilder();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals < 0) {
+                throw new RuntimeException("Expected key=value, got " + arg);
+            }
+            String key = arg.substring(0, equals);
+            String value = arg.substring(equals + 1);
+            switch (key) {
+                case "threads" -> threadCounts = value.split(",");
+                case "include" -> include = value;
+                case "results" -> resultsDirectory = value;
+                default -> parameters.param(key, value.split(","));
+            }
+        }
+
+        new File(resultsDirectory).mkdirs();
+        for (String threads : threadCounts) {
+            Options options = new OptionsBuilder()
+                    .parent(parameters.build())
+                    .include(include)
+                    .threads(Integer.parseInt(threads))
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(resultsDirectory + File.separator + "threads-" + threads + ".json")
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
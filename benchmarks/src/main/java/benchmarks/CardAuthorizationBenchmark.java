@@ -0,0 +1,66 @@
+package benchmarks;
+
+import domain.AuthorizationType;
+import domain.CardAuthorization;
+import domain.CardModel;
+import domain.CheckingAccountModel;
+import domain.CurrencyType;
+import domain.MoneyModel;
+import domain.OperationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import repository.AccountsRepository;
+import services.CardAuthorizationService;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// small purchases on random cards; sampled, so the report has the latency percentiles (-t adds threads)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class CardAuthorizationBenchmark {
+    private static final int CARDS = 100_000;
+    private static final long FIRST_CARD = 4_000_000_000_000_000L;
+
+    private final MoneyModel amount = MoneyModel.ofMinorUnits(1, CurrencyType.RON);
+    private CardAuthorizationService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        AccountsRepository.INSTANCE.clear();
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < CARDS; i++) {
+            String id = "CARD_BENCH_" + i;
+            CardModel card = new CardModel(FIRST_CARD + i, "Holder " + i, 123, today.plusYears(3), today, true, true, 1_000_000, 1_000_000);
+            AccountsRepository.INSTANCE.add(id, new CheckingAccountModel(id,
+                    MoneyModel.ofMinorUnits(BenchmarkAccounts.BALANCE_MINOR_UNITS, CurrencyType.RON), new ArrayList<>(), card));
+        }
+        service = new CardAuthorizationService();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        AccountsRepository.INSTANCE.clear();
+    }
+
+    @Benchmark
+    public OperationResult<CardAuthorization> authorize() {
+        return service.authorize(FIRST_CARD + ThreadLocalRandom.current().nextInt(CARDS), amount, AuthorizationType.PURCHASE);
+    }
+}
@@ -0,0 +1,46 @@
+package benchmarks;
+
+import domain.CurrencyType;
+import domain.MoneyModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.MoneyUtils;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConvertBenchmark {
+    @Param({"EUR", "RON"})
+    CurrencyType from;
+
+    private MoneyModel money;
+
+    @Setup
+    public void setUp() {
+        money = MoneyModel.ofMinorUnits(123_456, from);
+    }
+
+    @Benchmark
+    public MoneyModel convert() {
+        return MoneyUtils.convert(money, CurrencyType.RON);
+    }
+
+    @Benchmark
+    public long convertMinorUnits() {
+        return MoneyUtils.convertMinorUnits(money.getMinorUnits(), from, CurrencyType.EUR);
+    }
+}
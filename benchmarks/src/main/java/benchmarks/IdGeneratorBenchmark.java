@@ -0,0 +1,57 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.TimeOrderedIdGenerator;
+import utils.TransactionIdGenerator;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// transaction ids from UUID.randomUUID against the time-ordered generator, one generator shared by 1, 8 and 32 threads
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class IdGeneratorBenchmark {
+    @Param({"RANDOM", "TIME_ORDERED"})
+    String generator;
+
+    private TransactionIdGenerator ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ids = generator.equals("RANDOM") ? TransactionIdGenerator.RANDOM : new TimeOrderedIdGenerator();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UUID oneThread() {
+        return ids.nextId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UUID eightThreads() {
+        return ids.nextId();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public UUID thirtyTwoThreads() {
+        return ids.nextId();
+    }
+}
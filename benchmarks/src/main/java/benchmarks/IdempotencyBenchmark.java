@@ -0,0 +1,92 @@
+package benchmarks;
+
+import domain.CurrencyType;
+import domain.MoneyModel;
+import domain.OperationResult;
+import domain.TransactionModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import repository.AccountsRepository;
+import services.LockingMode;
+import services.TransactionManagerService;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// transfers without a key, with a new key each time (a cache insert, evicting once the cache is full) and replays of
+// a recent key; run with -t to check the segments keep threads apart
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class IdempotencyBenchmark {
+    private static final int REPLAYED_KEYS = 1024;
+
+    private final MoneyModel amount = MoneyModel.ofMinorUnits(1, CurrencyType.RON);
+    private TransactionManagerService service;
+    private String[] ids;
+    private String[] replayedKeys;
+
+    @State(Scope.Thread)
+    public static class Keys {
+        private final String prefix = "key-" + Thread.currentThread().getId() + "-";
+        private long next;
+
+        String next() {
+            return prefix + next++;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ids = BenchmarkAccounts.checking(1_000);
+        service = new TransactionManagerService(LockingMode.PER_ACCOUNT);
+        replayedKeys = new String[REPLAYED_KEYS];
+        for (int i = 0; i < REPLAYED_KEYS; i++) {
+            replayedKeys[i] = "replayed-" + i;
+            service.tryTransfer(ids[i % ids.length], ids[(i + 1) % ids.length], amount, replayedKeys[i]);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void clearHistories() {
+        BenchmarkAccounts.clearHistories();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        AccountsRepository.INSTANCE.clear();
+    }
+
+    @Benchmark
+    public OperationResult<TransactionModel> withoutKey() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(ids.length);
+        return service.tryTransfer(ids[from], ids[(from + 1) % ids.length], amount);
+    }
+
+    @Benchmark
+    public OperationResult<TransactionModel> newKey(Keys keys) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(ids.length);
+        return service.tryTransfer(ids[from], ids[(from + 1) % ids.length], amount, keys.next());
+    }
+
+    @Benchmark
+    public OperationResult<TransactionModel> replay() {
+        int i = ThreadLocalRandom.current().nextInt(REPLAYED_KEYS);
+        return service.tryTransfer(ids[i % ids.length], ids[(i + 1) % ids.length], amount, replayedKeys[i]);
+    }
+}
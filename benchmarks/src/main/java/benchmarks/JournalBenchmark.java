@@ -0,0 +1,79 @@
+package benchmarks;
+
+import domain.CurrencyType;
+import domain.MoneyModel;
+import domain.OperationResult;
+import domain.TransactionModel;
+import journal.DurabilityMode;
+import journal.TransactionJournal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import repository.AccountsRepository;
+import services.LockingMode;
+import services.TransactionManagerService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// journaled transfers in each durability mode; on sixteen threads so group commit has writers to group (-t overrides it)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@Threads(16)
+public class JournalBenchmark {
+    @Param({"PER_OPERATION", "GROUP", "ASYNC"})
+    DurabilityMode durabilityMode;
+
+    private final MoneyModel amount = MoneyModel.ofMinorUnits(1, CurrencyType.RON);
+    private TransactionManagerService service;
+    private TransactionJournal journal;
+    private Path journalPath;
+    private String[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ids = BenchmarkAccounts.checking(1_024);
+        journalPath = Files.createTempFile("journal-bench", ".bin");
+        journal = TransactionJournal.open(journalPath, durabilityMode);
+        service = new TransactionManagerService(LockingMode.PER_ACCOUNT);
+        service.setJournal(journal);
+    }
+
+    @Setup(Level.Iteration)
+    public void clearHistories() {
+        BenchmarkAccounts.clearHistories();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        Files.deleteIfExists(journalPath);
+        AccountsRepository.INSTANCE.clear();
+    }
+
+    @Benchmark
+    public OperationResult<TransactionModel> transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(ids.length);
+        int to = (from + 1 + random.nextInt(ids.length - 1)) % ids.length;
+        return service.tryTransfer(ids[from], ids[to], amount);
+    }
+}
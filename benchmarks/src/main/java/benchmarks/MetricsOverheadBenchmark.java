@@ -0,0 +1,92 @@
+package benchmarks;
+
+import domain.BalanceSnapshot;
+import domain.CurrencyType;
+import domain.MoneyModel;
+import domain.OperationResult;
+import domain.TransactionModel;
+import jdk.jfr.Recording;
+import metrics.BankingMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import repository.AccountsRepository;
+import services.LockingMode;
+import services.TransactionManagerService;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// the cheapest metered calls with metrics off, with the default latency sampling, timing every call, and timing every
+// call with its JFR event recorded; on four threads, so the shared counters are contended (-t overrides it)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@Threads(4)
+public class MetricsOverheadBenchmark {
+    public enum Instrumentation {OFF, SAMPLED, EVERY_CALL, EVERY_CALL_AND_JFR}
+
+    @Param({"OFF", "SAMPLED", "EVERY_CALL", "EVERY_CALL_AND_JFR"})
+    Instrumentation instrumentation;
+
+    private final MoneyModel amount = MoneyModel.ofMinorUnits(1, CurrencyType.RON);
+    private TransactionManagerService service;
+    private String[] ids;
+    private Recording recording;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ids = BenchmarkAccounts.checking(1_000);
+        service = new TransactionManagerService(LockingMode.PER_ACCOUNT);
+        BankingMetrics.INSTANCE.setEnabled(instrumentation != Instrumentation.OFF);
+        BankingMetrics.INSTANCE.setLatencySampleRate(instrumentation == Instrumentation.SAMPLED ? 8 : 1);
+        if (instrumentation == Instrumentation.EVERY_CALL_AND_JFR) {
+            recording = new Recording();
+            recording.enable("banking.Operation");
+            recording.setToDisk(false);
+            recording.start();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void clearHistories() {
+        BenchmarkAccounts.clearHistories();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (recording != null) {
+            recording.close();
+        }
+        BankingMetrics.INSTANCE.setEnabled(true);
+        BankingMetrics.INSTANCE.setLatencySampleRate(8);
+        AccountsRepository.INSTANCE.clear();
+    }
+
+    @Benchmark
+    public OperationResult<TransactionModel> transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(ids.length);
+        int to = (from + 1 + random.nextInt(ids.length - 1)) % ids.length;
+        return service.tryTransfer(ids[from], ids[to], amount);
+    }
+
+    @Benchmark
+    public OperationResult<BalanceSnapshot> readBalance() {
+        return service.tryReadBalance(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+}
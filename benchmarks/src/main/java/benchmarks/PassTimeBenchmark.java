@@ -0,0 +1,67 @@
+package benchmarks;
+
+import domain.SavingsAccountModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import repository.AccountsRepository;
+import services.SavingsManagerService;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// one month of capitalization over savings accounts that are all due, in each of the passTime modes; the balances are
+// rebased before every call so they neither overflow nor drift away from realistic sizes
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector", "-Xmx8g"})
+public class PassTimeBenchmark {
+    @Param({"1000", "100000", "1000000", "10000000"})
+    int accounts;
+
+    @Param({"SCAN", "SCHEDULED", "SAVINGS_BOOK"})
+    String mode;
+
+    private SavingsManagerService service;
+    private SavingsAccountModel[] savings;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = new SavingsManagerService();
+        savings = BenchmarkAccounts.savings(accounts, service.getSystemDate());
+        if (mode.equals("SCHEDULED")) {
+            service.enableScheduling();
+        } else if (mode.equals("SAVINGS_BOOK")) {
+            service.enableSavingsBook();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void rebase() {
+        BenchmarkAccounts.rebase(savings);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        AccountsRepository.INSTANCE.clear();
+    }
+
+    @Benchmark
+    public LocalDate passTime() {
+        service.passTime();
+        return service.getSystemDate();
+    }
+}
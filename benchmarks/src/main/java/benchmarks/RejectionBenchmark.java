@@ -0,0 +1,66 @@
+package benchmarks;
+
+import domain.CheckingAccountModel;
+import domain.CurrencyType;
+import domain.MoneyModel;
+import domain.RejectionReason;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import repository.AccountsRepository;
+import services.TransactionManagerService;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+// a transfer from an empty account, rejected through the throwing transfer and through tryTransfer's result
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class RejectionBenchmark {
+    private static final String POOR = "BENCH_POOR";
+    private static final String OTHER = "BENCH_OTHER";
+
+    private final MoneyModel amount = MoneyModel.ofMinorUnits(1_000, CurrencyType.RON);
+    private TransactionManagerService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        AccountsRepository.INSTANCE.clear();
+        for (String id : new String[]{POOR, OTHER}) {
+            AccountsRepository.INSTANCE.add(id, new CheckingAccountModel(id, MoneyModel.ofMinorUnits(0, CurrencyType.RON), new ArrayList<>(), null));
+        }
+        service = new TransactionManagerService();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        AccountsRepository.INSTANCE.clear();
+    }
+
+    @Benchmark
+    public String exception() {
+        try {
+            return service.transfer(POOR, OTHER, amount).toString(); // never reached, the account is empty
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public RejectionReason result() {
+        return service.tryTransfer(POOR, OTHER, amount).getRejectionReason();
+    }
+}
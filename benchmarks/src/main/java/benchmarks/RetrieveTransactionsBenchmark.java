@@ -0,0 +1,84 @@
+package benchmarks;
+
+import domain.CheckingAccountModel;
+import domain.CurrencyType;
+import domain.MoneyModel;
+import domain.TransactionModel;
+import domain.TransactionPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import repository.AccountsRepository;
+import services.TransactionManagerService;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// the history read paths against one account with historyLength transactions, one per minute
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class RetrieveTransactionsBenchmark {
+    private static final String ACCOUNT_ID = "BENCH_HISTORY";
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"10", "1000", "100000", "1000000"})
+    int historyLength;
+
+    private TransactionManagerService service;
+    private LocalDate lastDay;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        AccountsRepository.INSTANCE.clear();
+        CheckingAccountModel account = new CheckingAccountModel(ACCOUNT_ID, MoneyModel.ofMinorUnits(0, CurrencyType.RON), new ArrayList<>(), null);
+        AccountsRepository.INSTANCE.add(ACCOUNT_ID, account);
+        Instant createdAt = Instant.parse("2024-01-01T00:00:00Z");
+        for (int i = 0; i < historyLength; i++) {
+            account.getTransactions().add(new TransactionModel(UUID.randomUUID(), "BENCH_OTHER", ACCOUNT_ID,
+                    MoneyModel.ofMinorUnits(i, CurrencyType.RON), createdAt));
+            createdAt = createdAt.plusSeconds(60);
+        }
+        lastDay = createdAt.atZone(ZoneId.systemDefault()).toLocalDate();
+        service = new TransactionManagerService();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        AccountsRepository.INSTANCE.clear();
+    }
+
+    @Benchmark
+    public List<TransactionModel> retrieveAll() {
+        return service.retrieveTransactions(ACCOUNT_ID);
+    }
+
+    @Benchmark
+    public TransactionPage retrieveNewestPage() {
+        return service.retrieveTransactions(ACCOUNT_ID, TransactionPage.FIRST_PAGE, PAGE_SIZE);
+    }
+
+    // the most recent day holds at most 1440 entries whatever the history length
+    @Benchmark
+    public List<TransactionModel> retrieveLastDay() {
+        return service.retrieveTransactions(ACCOUNT_ID, lastDay, lastDay);
+    }
+}
@@ -0,0 +1,83 @@
+package benchmarks;
+
+import domain.MoneyModel;
+import domain.SavingsAccountModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import repository.AccountsRepository;
+import services.CapitalizationCalendar;
+import services.SavingsBook;
+import utils.MoneyUtils;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+// one month of capitalization on one thread, over the account objects and over the columnar book with the scalar and
+// the vector kernel; balances are rebased before every call
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector", "-Xmx8g"})
+public class SavingsBookBenchmark {
+    @Param({"100000", "1000000"})
+    int accounts;
+
+    @Param({"OBJECTS", "SCALAR", "VECTOR"})
+    String kernel;
+
+    private SavingsAccountModel[] savings;
+    private SavingsBook book;
+    private long month;
+    private long targetMonth;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LocalDate today = LocalDate.now();
+        savings = BenchmarkAccounts.savings(accounts, today);
+        month = CapitalizationCalendar.monthIndex(today);
+        targetMonth = month;
+        book = new SavingsBook(Arrays.asList(savings), month, kernel.equals("VECTOR"));
+    }
+
+    @Setup(Level.Invocation)
+    public void rebase() {
+        BenchmarkAccounts.rebase(savings);
+        book.pullAccounts(0, book.size(), targetMonth);
+        targetMonth++;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        AccountsRepository.INSTANCE.clear();
+    }
+
+    @Benchmark
+    public long capitalize() {
+        if (kernel.equals("OBJECTS")) {
+            long total = 0;
+            for (SavingsAccountModel savingAccount : savings) {
+                MoneyModel balance = savingAccount.getBalance();
+                long interest = MoneyUtils.interestMinorUnits(balance.getMinorUnits(), savingAccount.getInterest());
+                balance.add(interest);
+                total += interest;
+            }
+            return total;
+        }
+        book.capitalize(0, book.size(), targetMonth);
+        return targetMonth;
+    }
+}
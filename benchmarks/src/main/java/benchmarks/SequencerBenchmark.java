@@ -0,0 +1,119 @@
+package benchmarks;
+
+import domain.CheckingAccountModel;
+import domain.CurrencyType;
+import domain.MoneyModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import repository.AccountsRepository;
+import services.LedgerSequencer;
+import services.LockingMode;
+import services.TransactionManagerService;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Transfers between four hot accounts through the locking service, with a global lock and with per-account locks, and
+// through the ring-buffer sequencer. A call submits a batch and returns once every transfer of it has completed, so
+// the sequencer is timed until its applier has drained the batch, not until the ring accepted it. Run with -t for
+// several producers; scores are per transfer.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class SequencerBenchmark {
+    private static final int ACCOUNTS = 4;
+    private static final int BATCH = 1_000;
+
+    @Param({"GLOBAL", "PER_ACCOUNT", "SEQUENCER"})
+    String path;
+
+    private final MoneyModel amount = MoneyModel.ofMinorUnits(1, CurrencyType.RON);
+    private final String[] ids = new String[ACCOUNTS];
+    private TransactionManagerService service;
+    private LedgerSequencer sequencer;
+
+    @State(Scope.Thread)
+    public static class Producer {
+        private static final AtomicInteger PRODUCERS = new AtomicInteger();
+        private final int offset = PRODUCERS.getAndIncrement();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        AccountsRepository.INSTANCE.clear();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            ids[i] = "HOT" + i;
+            AccountsRepository.INSTANCE.add(ids[i], new CheckingAccountModel(ids[i],
+                    MoneyModel.ofMinorUnits(BenchmarkAccounts.BALANCE_MINOR_UNITS, CurrencyType.RON), new ArrayList<>(), null));
+        }
+        service = new TransactionManagerService(path.equals("GLOBAL") ? LockingMode.GLOBAL : LockingMode.PER_ACCOUNT);
+        if (path.equals("SEQUENCER")) {
+            sequencer = new LedgerSequencer(service);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void clearHistories() {
+        BenchmarkAccounts.clearHistories();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (sequencer != null) {
+            sequencer.close();
+        }
+        AccountsRepository.INSTANCE.clear();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void transfers(Producer producer) throws InterruptedException {
+        int failed = 0;
+        if (sequencer == null) {
+            for (int i = 0; i < BATCH; i++) {
+                failed += service.tryTransfer(from(producer, i), to(producer, i), amount).isApplied() ? 0 : 1;
+            }
+        } else {
+            CountDownLatch completed = new CountDownLatch(BATCH);
+            AtomicInteger notApplied = new AtomicInteger();
+            for (int i = 0; i < BATCH; i++) {
+                sequencer.submitTransfer(from(producer, i), to(producer, i), amount, (result, failure) -> {
+                    if (failure != null || !result.isApplied()) {
+                        notApplied.incrementAndGet();
+                    }
+                    completed.countDown();
+                });
+            }
+            completed.await();
+            failed = notApplied.get();
+        }
+        if (failed > 0) { // a transfer that did not apply would make the score meaningless
+            throw new IllegalStateException(failed + " of " + BATCH + " transfers did not apply");
+        }
+    }
+
+    private String from(Producer producer, int i) {
+        return ids[(i + producer.offset) % ACCOUNTS];
+    }
+
+    private String to(Producer producer, int i) {
+        return ids[(i + producer.offset + 1) % ACCOUNTS];
+    }
+}
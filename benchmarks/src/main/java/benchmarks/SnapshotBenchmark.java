@@ -0,0 +1,91 @@
+package benchmarks;
+
+import domain.CapitalizationFrequency;
+import domain.CardModel;
+import domain.CheckingAccountModel;
+import domain.CurrencyType;
+import domain.InterestRate;
+import domain.MoneyModel;
+import domain.SavingsAccountModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import repository.AccountsRepository;
+import services.TransactionManagerService;
+import snapshot.SnapshotLoader;
+import snapshot.SnapshotWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+// writing a snapshot of the repository and loading it into an empty one; a quarter savings, the rest checking with a card
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector", "-Xmx8g"})
+public class SnapshotBenchmark {
+    @Param({"100000", "1000000"})
+    int accounts;
+
+    private final TransactionManagerService service = new TransactionManagerService();
+    private Path snapshot;
+
+    // empties the repository before every load, outside the measured call
+    @State(Scope.Benchmark)
+    public static class EmptyRepository {
+        @Setup(Level.Invocation)
+        public void clear() {
+            AccountsRepository.INSTANCE.clear();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        AccountsRepository.INSTANCE.clear();
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < accounts; i++) {
+            String id = "ROBMSG" + (300_000_000 + i);
+            if (i % 4 == 0) {
+                AccountsRepository.INSTANCE.add(id, new SavingsAccountModel(id, MoneyModel.ofMinorUnits(i, CurrencyType.RON), new ArrayList<>(),
+                        InterestRate.ONE_MONTH_ACCOUNT, CapitalizationFrequency.MONTHLY, today));
+            } else {
+                CardModel card = new CardModel(4_000_000_000_000_000L + i, "Holder " + i, 123, today.plusYears(3), today, true, true, 5000, 10000);
+                AccountsRepository.INSTANCE.add(id, new CheckingAccountModel(id, MoneyModel.ofMinorUnits(i, CurrencyType.EUR), new ArrayList<>(), card));
+            }
+        }
+        snapshot = Files.createTempFile("snapshot-bench", ".bin");
+        SnapshotWriter.write(snapshot, service);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(snapshot);
+        AccountsRepository.INSTANCE.clear();
+    }
+
+    @Benchmark
+    public long write() {
+        return SnapshotWriter.write(snapshot, service);
+    }
+
+    @Benchmark
+    public long load(EmptyRepository empty) {
+        return SnapshotLoader.load(snapshot);
+    }
+}
@@ -0,0 +1,85 @@
+package benchmarks;
+
+import domain.AccountModel;
+import domain.TransactionModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import repository.AccountsRepository;
+import seed.SyntheticDataGenerator;
+import services.TransactionManagerService;
+import statement.StatementExporter;
+import statement.StatementFormat;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// month-end export of every statement, 250,000 accounts with a year of history, in each format and the way it used to
+// be done: a copy of each history and one toString per transaction
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector", "-Xmx8g"})
+public class StatementExportBenchmark {
+    private final StatementExporter exporter = new StatementExporter();
+    private final TransactionManagerService service = new TransactionManagerService();
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        AccountsRepository.INSTANCE.clear();
+        new SyntheticDataGenerator().seed(1).checkingAccounts(200_000).savingsAccounts(50_000).histories(40, 365)
+                .hotAccounts(20, 0.1, 500).generate(AccountsRepository.INSTANCE);
+        directory = Files.createTempDirectory("statement-bench");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+        AccountsRepository.INSTANCE.clear();
+    }
+
+    @Benchmark
+    public long csv() {
+        return exporter.exportAll(directory.resolve("csv"), StatementFormat.CSV).getRows();
+    }
+
+    @Benchmark
+    public long binary() {
+        return exporter.exportAll(directory.resolve("binary"), StatementFormat.BINARY).getRows();
+    }
+
+    @Benchmark
+    public long toStrings() throws IOException {
+        long rows = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(directory.resolve("baseline.txt"))) {
+            for (AccountModel account : AccountsRepository.INSTANCE.values()) {
+                for (TransactionModel transaction : service.retrieveTransactions(account.getId())) {
+                    writer.write(transaction.toString());
+                    writer.newLine();
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,58 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import repository.AccountsRepository;
+import seed.SyntheticDataGenerator;
+
+import java.util.concurrent.TimeUnit;
+
+// Seeding the repository with generated data, one call per dataset: the accounts alone, four checking to one savings,
+// and a twenty-fifth as many checking accounts with a year of history and a few hot accounts.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector", "-Xmx8g"})
+public class SyntheticDataBenchmark {
+    @Param({"500000", "5000000"})
+    int accounts;
+
+    private int round;
+
+    // the generated accounts of the previous call are dropped outside the measured one
+    @Setup(Level.Invocation)
+    public void clear() {
+        AccountsRepository.INSTANCE.clear();
+        System.gc();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        AccountsRepository.INSTANCE.clear();
+    }
+
+    @Benchmark
+    public long accounts() {
+        return new SyntheticDataGenerator().seed(round++).checkingAccounts(accounts / 5 * 4).savingsAccounts(accounts / 5)
+                .generate(AccountsRepository.INSTANCE);
+    }
+
+    @Benchmark
+    public long histories() {
+        return new SyntheticDataGenerator().seed(round++).checkingAccounts(accounts / 25).savingsAccounts(0).histories(20, 365)
+                .hotAccounts(10, 0.2, 1_000).generate(AccountsRepository.INSTANCE);
+    }
+}
@@ -0,0 +1,85 @@
+package benchmarks;
+
+import domain.BalanceSnapshot;
+import domain.CurrencyType;
+import domain.MoneyModel;
+import domain.OperationResult;
+import domain.TransactionModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import repository.AccountsRepository;
+import services.LockingMode;
+import services.TransactionManagerService;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// transfer, withdraw and the two balance reads on random accounts; run with -t to add contention
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector", "-Xmx8g"})
+public class TransactionBenchmark {
+    @Param({"1000", "100000", "1000000", "10000000"})
+    int accounts;
+
+    @Param({"GLOBAL", "PER_ACCOUNT"})
+    LockingMode lockingMode;
+
+    private final MoneyModel amount = MoneyModel.ofMinorUnits(1, CurrencyType.RON);
+    private TransactionManagerService service;
+    private String[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ids = BenchmarkAccounts.checking(accounts);
+        service = new TransactionManagerService(lockingMode);
+    }
+
+    // keeps the histories from growing into the heap across iterations
+    @Setup(Level.Iteration)
+    public void clearHistories() {
+        BenchmarkAccounts.clearHistories();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        AccountsRepository.INSTANCE.clear();
+    }
+
+    @Benchmark
+    public OperationResult<TransactionModel> transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(ids.length);
+        int to = (from + 1 + random.nextInt(ids.length - 1)) % ids.length;
+        return service.tryTransfer(ids[from], ids[to], amount);
+    }
+
+    @Benchmark
+    public OperationResult<TransactionModel> withdraw() {
+        return service.tryWithdraw(ids[ThreadLocalRandom.current().nextInt(ids.length)], amount);
+    }
+
+    @Benchmark
+    public OperationResult<MoneyModel> checkFunds() {
+        return service.tryCheckFunds(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public OperationResult<BalanceSnapshot> readBalance() {
+        return service.tryReadBalance(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+}
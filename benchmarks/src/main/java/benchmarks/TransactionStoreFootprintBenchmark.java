@@ -0,0 +1,107 @@
+package benchmarks;
+
+import domain.CheckingAccountModel;
+import domain.CurrencyType;
+import domain.MoneyModel;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import repository.AccountsRepository;
+import services.TransactionManagerService;
+import store.TransactionStore;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+// 2,000,000 transfers between 10,000 accounts into fresh histories, kept as TransactionModels on the heap or in the
+// off-heap store; the footprint counters are the heap and direct memory the histories hold afterwards. JMH sums event
+// counters over the measured iterations, one iteration keeps them per call.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector", "-Xmx8g"})
+public class TransactionStoreFootprintBenchmark {
+    private static final int ACCOUNTS = 10_000;
+    private static final int TRANSFERS = 2_000_000;
+
+    public enum Histories { HEAP, OFF_HEAP }
+
+    // the public fields are the counters, set after the measured call and read once per iteration
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        @Param({"HEAP", "OFF_HEAP"})
+        Histories histories;
+
+        public long heapBytes;
+        public long directBytes;
+        public long bytesPerTransaction;
+
+        private final String[] ids = new String[ACCOUNTS];
+        private TransactionManagerService service;
+        private long heapBefore;
+
+        // new accounts and an empty store for every call, so each measures the histories of exactly TRANSFERS transfers
+        @Setup(Level.Iteration)
+        public void setUp() {
+            AccountsRepository.INSTANCE.clear();
+            for (int i = 0; i < ACCOUNTS; i++) {
+                ids[i] = String.format("RO%022d", i);
+                AccountsRepository.INSTANCE.add(ids[i], new CheckingAccountModel(ids[i], new MoneyModel(1_000_000_000, CurrencyType.RON), new ArrayList<>(), null));
+            }
+            service = new TransactionManagerService();
+            service.setTransactionStore(histories == Histories.OFF_HEAP ? new TransactionStore() : null);
+            heapBytes = 0;
+            directBytes = 0;
+            bytesPerTransaction = 0;
+            heapBefore = usedHeap();
+        }
+
+        // the direct buffers of the previous iteration's store are freed by the cleaner at some point after a GC, which
+        // makes the direct pool unusable as a before/after delta; the store's segments are its only direct memory
+        @TearDown(Level.Iteration)
+        public void measure() {
+            heapBytes = usedHeap() - heapBefore;
+            TransactionStore store = service.getTransactionStore();
+            directBytes = store == null ? 0 : store.getOffHeapBytes();
+            bytesPerTransaction = (heapBytes + directBytes) / TRANSFERS;
+            service = null;
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            AccountsRepository.INSTANCE.clear();
+        }
+    }
+
+    @Benchmark
+    public TransactionManagerService transfers(Footprint footprint) {
+        String[] ids = footprint.ids;
+        TransactionManagerService service = footprint.service;
+        for (int i = 0; i < TRANSFERS; i++) {
+            int from = (int) ((i * 2_654_435_761L) % ACCOUNTS);
+            service.transfer(ids[from], ids[(from + 1 + i % 97) % ACCOUNTS], MoneyModel.ofMinorUnits(1, CurrencyType.RON));
+        }
+        return service;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
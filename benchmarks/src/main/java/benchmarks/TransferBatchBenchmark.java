@@ -0,0 +1,86 @@
+package benchmarks;
+
+import domain.CurrencyType;
+import domain.MoneyModel;
+import domain.OperationResult;
+import domain.TransactionModel;
+import domain.TransferRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import repository.AccountsRepository;
+import services.LockingMode;
+import services.TransactionManagerService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// the same 50,000 random transfers one call at a time and as one transferBatch, scores are per transfer
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class TransferBatchBenchmark {
+    private static final int ACCOUNTS = 10_000;
+    private static final int TRANSFERS = 50_000;
+
+    @Param({"GLOBAL", "PER_ACCOUNT"})
+    LockingMode lockingMode;
+
+    private TransactionManagerService service;
+    private List<TransferRequest> requests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] ids = BenchmarkAccounts.checking(ACCOUNTS);
+        service = new TransactionManagerService(lockingMode);
+        SplittableRandom random = new SplittableRandom(42);
+        requests = new ArrayList<>(TRANSFERS);
+        for (int i = 0; i < TRANSFERS; i++) {
+            int from = random.nextInt(ACCOUNTS);
+            int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+            requests.add(new TransferRequest(ids[from], ids[to], MoneyModel.ofMinorUnits(1, CurrencyType.RON)));
+        }
+    }
+
+    // keeps every call on the same heap footprint, otherwise GC of the growing histories dominates
+    @Setup(Level.Invocation)
+    public void clearHistories() {
+        BenchmarkAccounts.clearHistories();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        AccountsRepository.INSTANCE.clear();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRANSFERS)
+    public void single(Blackhole blackhole) {
+        for (TransferRequest request : requests) {
+            blackhole.consume(service.tryTransfer(request.getFromAccountId(), request.getToAccountId(), request.getAmount()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRANSFERS)
+    public List<OperationResult<TransactionModel>> batch() {
+        return service.transferBatch(requests);
+    }
+}
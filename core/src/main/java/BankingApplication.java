@@ -1,17 +1,34 @@
 import domain.CurrencyType;
 import domain.MoneyModel;
 import domain.TransactionModel;
+import metrics.BankingMetrics;
 import seed.SeedInitializer;
+import server.BankingHttpServer;
+import services.LockingMode;
 import services.SavingsManagerService;
 import services.TransactionManagerService;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
 import static seed.AccountsSeedData.*;
 
 public class BankingApplication {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException, InterruptedException {
         System.out.println("[SYSTEM] Initialize Application \n");
         SeedInitializer.seedData();
+        BankingMetrics.register(); // banking:type=Metrics in jconsole or any JMX client
+
+        // --server [port] serves the seeded accounts over HTTP instead of running the script below
+        if (args.length > 0 && args[0].equals("--server")) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+            BankingHttpServer server = BankingHttpServer.start(new InetSocketAddress(port),
+                    new TransactionManagerService(LockingMode.PER_ACCOUNT), new SavingsManagerService());
+            System.out.println("[SYSTEM] Serving on http://localhost:" + server.getPort());
+            Thread.currentThread().join();
+        }
+
         System.out.println("[SYSTEM] Running Application \n\n");
 
         // TRANSACTION MANAGER FUNCTIONALITY
@@ -1,19 +1,18 @@
 package domain;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public abstract class AccountModel {
     private String id;
     private AccountType accountType;
     private MoneyModel balance;
-    private List<TransactionModel> transactions;
+    private TransactionHistory transactions;
 
     public AccountModel(String id, AccountType accountType, MoneyModel balance, List<TransactionModel> transactions) {
         this.id = id;
         this.accountType = accountType;
         this.balance = balance;
-        this.transactions = new ArrayList<>(transactions);
+        this.transactions = new TransactionHistory(transactions);
 
     }
 
@@ -45,8 +44,12 @@ public abstract class AccountModel {
         return transactions;
     }
 
+    public TransactionHistory getTransactionHistory() {
+        return transactions;
+    }
+
     public void setTransactions(List<TransactionModel> transactions) {
-        this.transactions = transactions;
+        this.transactions = new TransactionHistory(transactions);
     }
 
     @Override
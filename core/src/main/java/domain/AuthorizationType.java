@@ -0,0 +1,6 @@
+package domain;
+
+public enum AuthorizationType {
+    WITHDRAWAL, // counts against the card's daily withdrawal limit
+    PURCHASE    // counts against the card's daily transaction limit
+}
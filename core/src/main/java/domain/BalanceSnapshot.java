@@ -0,0 +1,53 @@
+package domain;
+
+import utils.MoneyUtils;
+
+// Immutable balance as of one committed write; version grows by two with every write to the balance.
+public final class BalanceSnapshot {
+    private final String accountId;
+    private final long minorUnits;
+    private final CurrencyType currency;
+    private final long version;
+
+    public BalanceSnapshot(String accountId, long minorUnits, CurrencyType currency, long version) {
+        this.accountId = accountId;
+        this.minorUnits = minorUnits;
+        this.currency = currency;
+        this.version = version;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public double getAmount() {
+        return MoneyUtils.toAmount(minorUnits);
+    }
+
+    public CurrencyType getCurrency() {
+        return currency;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    // a detached copy the caller may change freely
+    public MoneyModel toMoney() {
+        return MoneyModel.ofMinorUnits(minorUnits, currency);
+    }
+
+    @Override
+    public String toString() {
+        return "BalanceSnapshot{" +
+                "accountId='" + accountId + '\'' +
+                ", amount=" + getAmount() +
+                ", currency=" + currency +
+                ", version=" + version +
+                '}';
+    }
+}
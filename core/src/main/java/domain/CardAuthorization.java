@@ -0,0 +1,49 @@
+package domain;
+
+public class CardAuthorization {
+    private final long cardNumber;
+    private final String accountId;
+    private final AuthorizationType type;
+    private final MoneyModel amount;
+    private final long remainingDailyMinorUnits;
+
+    public CardAuthorization(long cardNumber, String accountId, AuthorizationType type, MoneyModel amount, long remainingDailyMinorUnits) {
+        this.cardNumber = cardNumber;
+        this.accountId = accountId;
+        this.type = type;
+        this.amount = amount;
+        this.remainingDailyMinorUnits = remainingDailyMinorUnits;
+    }
+
+    public long getCardNumber() {
+        return cardNumber;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public AuthorizationType getType() {
+        return type;
+    }
+
+    public MoneyModel getAmount() {
+        return amount;
+    }
+
+    // what is left of the day's limit for this type after the authorization
+    public long getRemainingDailyMinorUnits() {
+        return remainingDailyMinorUnits;
+    }
+
+    @Override
+    public String toString() {
+        return "CardAuthorization{" +
+                "cardNumber=" + cardNumber +
+                ", accountId='" + accountId + '\'' +
+                ", type=" + type +
+                ", amount=" + amount +
+                ", remainingDailyMinorUnits=" + remainingDailyMinorUnits +
+                '}';
+    }
+}
@@ -0,0 +1,10 @@
+package domain;
+
+// new currencies go at the end, snapshots and the journal store the ordinal
+public enum CurrencyType {
+    RON,
+    EUR,
+    USD,
+    GBP,
+    CHF
+}
@@ -0,0 +1,52 @@
+package domain;
+
+public class MaximumTransferableAmount {
+    private static final double MAX_EURO_TRANSFER = 10000.0;
+    private static final double MAX_RON_TRANSFER = 50000.0;
+    private static final long MAX_EURO_TRANSFER_MINOR_UNITS = 1_000_000L;
+    private static final long MAX_RON_TRANSFER_MINOR_UNITS = 5_000_000L;
+    private static final long MAX_USD_TRANSFER_MINOR_UNITS = 1_000_000L;
+    private static final long MAX_GBP_TRANSFER_MINOR_UNITS = 1_000_000L;
+    private static final long MAX_CHF_TRANSFER_MINOR_UNITS = 1_000_000L;
+    private static final long NO_LIMIT = -1;
+
+    private MaximumTransferableAmount() {}
+
+    public static double getMaxEuroTransfer() {
+        return MAX_EURO_TRANSFER;
+    }
+
+    public static double getMaxRonTransfer() {
+        return MAX_RON_TRANSFER;
+    }
+
+    public static long getMaxEuroTransferMinorUnits() {
+        return MAX_EURO_TRANSFER_MINOR_UNITS;
+    }
+
+    public static long getMaxRonTransferMinorUnits() {
+        return MAX_RON_TRANSFER_MINOR_UNITS;
+    }
+
+    // NO_LIMIT for currencies transfers are not supported in
+    public static long getMaxTransferMinorUnits(CurrencyType currency) {
+        switch (currency) {
+            case EUR:
+                return MAX_EURO_TRANSFER_MINOR_UNITS;
+            case RON:
+                return MAX_RON_TRANSFER_MINOR_UNITS;
+            case USD:
+                return MAX_USD_TRANSFER_MINOR_UNITS;
+            case GBP:
+                return MAX_GBP_TRANSFER_MINOR_UNITS;
+            case CHF:
+                return MAX_CHF_TRANSFER_MINOR_UNITS;
+            default:
+                return NO_LIMIT;
+        }
+    }
+
+    public static boolean isSupported(CurrencyType currency) {
+        return getMaxTransferMinorUnits(currency) != NO_LIMIT;
+    }
+}
@@ -0,0 +1,128 @@
+package domain;
+
+import utils.MoneyUtils;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// Writes go through a seqlock: the writer moves the version from even to odd with a CAS, changes the fields and
+// moves it to the next even number. snapshot() reads without blocking and retries if a write overlapped.
+public class MoneyModel {
+    private static final VarHandle VERSION;
+
+    static {
+        try {
+            VERSION = MethodHandles.lookup().findVarHandle(MoneyModel.class, "version", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private long minorUnits; // bani / cents, the balance arithmetic never leaves this representation
+    private CurrencyType currency;
+    private volatile long version; // odd while a write is in progress
+
+    public MoneyModel(double amount, CurrencyType currency) {
+        this.minorUnits = MoneyUtils.toMinorUnits(amount);
+        this.currency = currency;
+    }
+
+    private MoneyModel(CurrencyType currency, long minorUnits) {
+        this.minorUnits = minorUnits;
+        this.currency = currency;
+    }
+
+    public static MoneyModel ofMinorUnits(long minorUnits, CurrencyType currency) {
+        return new MoneyModel(currency, minorUnits);
+    }
+
+    public double getAmount() {
+        return MoneyUtils.toAmount(minorUnits);
+    }
+
+    public void setAmount(double amount) {
+        setMinorUnits(MoneyUtils.toMinorUnits(amount));
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public void setMinorUnits(long minorUnits) {
+        long writeVersion = beginWrite();
+        this.minorUnits = minorUnits;
+        endWrite(writeVersion);
+    }
+
+    public void add(long minorUnits) {
+        long writeVersion = beginWrite();
+        try {
+            this.minorUnits = Math.addExact(this.minorUnits, minorUnits);
+        } finally {
+            endWrite(writeVersion);
+        }
+    }
+
+    public void subtract(long minorUnits) {
+        long writeVersion = beginWrite();
+        try {
+            this.minorUnits = Math.subtractExact(this.minorUnits, minorUnits);
+        } finally {
+            endWrite(writeVersion);
+        }
+    }
+
+    public CurrencyType getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(CurrencyType currency) {
+        long writeVersion = beginWrite();
+        this.currency = currency;
+        endWrite(writeVersion);
+    }
+
+    // a consistent, immutable copy of a committed state; never blocks writers
+    public BalanceSnapshot snapshot(String accountId) {
+        while (true) {
+            long before = version;
+            if ((before & 1) == 0) {
+                long snapshotMinorUnits = minorUnits;
+                CurrencyType snapshotCurrency = currency;
+                VarHandle.acquireFence(); // keep the field reads above the version re-check
+                if (version == before) {
+                    return new BalanceSnapshot(accountId, snapshotMinorUnits, snapshotCurrency, before);
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    private long beginWrite() {
+        while (true) {
+            long current = version;
+            if ((current & 1) == 0 && VERSION.compareAndSet(this, current, current + 1)) {
+                // keeps the fields' plain stores from being seen before the odd version, as StampedLock does
+                VarHandle.storeStoreFence();
+                return current + 1;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private void endWrite(long writeVersion) {
+        version = writeVersion + 1;
+    }
+
+    @Override
+    public String toString() {
+        return "MoneyModel{" +
+                "amount=" + getAmount() +
+                ", currency=" + currency +
+                '}';
+    }
+}
@@ -0,0 +1,57 @@
+package domain;
+
+public class OperationResult<T> {
+    // rejections carry no payload, so one shared instance per reason keeps the rejection path allocation-free
+    private static final OperationResult<?>[] REJECTIONS = new OperationResult<?>[RejectionReason.values().length];
+
+    static {
+        for (RejectionReason reason : RejectionReason.values()) {
+            REJECTIONS[reason.ordinal()] = new OperationResult<>(null, reason);
+        }
+    }
+
+    private final T value;
+    private final RejectionReason rejectionReason;
+
+    private OperationResult(T value, RejectionReason rejectionReason) {
+        this.value = value;
+        this.rejectionReason = rejectionReason;
+    }
+
+    public static <T> OperationResult<T> applied(T value) {
+        return new OperationResult<>(value, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> OperationResult<T> rejected(RejectionReason rejectionReason) {
+        return (OperationResult<T>) REJECTIONS[rejectionReason.ordinal()];
+    }
+
+    public boolean isApplied() {
+        return rejectionReason == null;
+    }
+
+    public T getValue() {
+        return value;
+    }
+
+    public RejectionReason getRejectionReason() {
+        return rejectionReason;
+    }
+
+    // bridges the result API back to the exception-throwing one
+    public T getValueOrThrow() {
+        if (rejectionReason != null) {
+            throw new RuntimeException(rejectionReason.getMessage());
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "OperationResult{" +
+                "value=" + value +
+                ", rejectionReason=" + rejectionReason +
+                '}';
+    }
+}
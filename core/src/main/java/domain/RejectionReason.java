@@ -0,0 +1,26 @@
+package domain;
+
+public enum RejectionReason {
+    NEGATIVE_AMOUNT("Cannot move a negative amount of money"),
+    LIMIT_EXCEEDED("Transfer amount exceeds the limit for its currency"),
+    SAME_ACCOUNT("Cannot transfer money to the same account"),
+    SAVINGS_SOURCE("Cannot transfer from a savings account"),
+    INSUFFICIENT_FUNDS("Insufficient funds"),
+    UNKNOWN_ACCOUNT("This account doesn't exist"),
+    UNSUPPORTED_CURRENCY("Transfer currency not available"),
+    UNKNOWN_CARD("This card doesn't exist"),
+    CARD_INACTIVE("Card is not active"),
+    CARD_EXPIRED("Card has expired"),
+    DAILY_LIMIT_EXCEEDED("Amount exceeds the card's daily limit"),
+    IDEMPOTENCY_KEY_REUSED("Idempotency key was already used for a different request");
+
+    private final String message;
+
+    RejectionReason(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,207 @@
+package domain;
+
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+// Append-only list stored in chunks of 16, 32, 64, ... entries: appends never copy earlier entries
+// and any index resolves to its chunk with one bit operation.
+// One writer at a time (callers hold the account lock), readers may run concurrently. clear() is the exception: it
+// must not run while anyone reads the history.
+// A parallel array of creation times in epoch microseconds, clamped to never decrease, makes range queries a binary search.
+public class TransactionHistory extends AbstractList<TransactionModel> implements RandomAccess {
+    private static final int FIRST_CHUNK_SHIFT = 4;
+    private static final int FIRST_CHUNK_SIZE = 1 << FIRST_CHUNK_SHIFT;
+
+    private volatile TransactionModel[][] chunks = new TransactionModel[2][];
+    private volatile long[][] timeKeys = new long[2][];
+    private volatile int size;
+    private long lastTimeKey = Long.MIN_VALUE;
+
+    public TransactionHistory() {
+    }
+
+    public TransactionHistory(Collection<? extends TransactionModel> transactions) {
+        transactions.forEach(this::add);
+    }
+
+    @Override
+    public boolean add(TransactionModel transaction) {
+        int index = size;
+        int chunk = chunkOf(index);
+        TransactionModel[][] current = chunks;
+        long[][] currentKeys = timeKeys;
+        if (chunk == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+            currentKeys = Arrays.copyOf(currentKeys, currentKeys.length * 2);
+        }
+        if (current[chunk] == null) {
+            current[chunk] = new TransactionModel[FIRST_CHUNK_SIZE << chunk];
+            currentKeys[chunk] = new long[FIRST_CHUNK_SIZE << chunk];
+        }
+        if (transaction.getCreatedAt() != null) {
+            lastTimeKey = Math.max(lastTimeKey, toMicros(transaction.getCreatedAt()));
+        }
+        current[chunk][offsetOf(index)] = transaction;
+        currentKeys[chunk][offsetOf(index)] = lastTimeKey;
+        chunks = current;
+        timeKeys = currentKeys;
+        size = index + 1; // publishes the entry to readers
+        return true;
+    }
+
+    @Override
+    public TransactionModel get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        return chunks[chunkOf(index)][offsetOf(index)];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // not safe against concurrent readers: one that read size before the reset may then look up an entry in the new,
+    // empty chunks, so only clear a history no other thread is reading, e.g. while setting up a benchmark
+    @Override
+    public void clear() {
+        chunks = new TransactionModel[2][];
+        timeKeys = new long[2][];
+        lastTimeKey = Long.MIN_VALUE;
+        size = 0;
+    }
+
+    // The entries added so far, oldest first, as a read-only view that later appends do not show up in. O(1): the view
+    // keeps the chunk table and the size, and entries below the size never change.
+    public List<TransactionModel> view() {
+        int currentSize = size; // read before the chunks, which hold at least size entries from then on
+        return new View(chunks, currentSize);
+    }
+
+    // oldest first, from inclusive, to exclusive; O(log n + result size)
+    public List<TransactionModel> between(Instant from, Instant to) {
+        int currentSize = size;
+        long[][] currentKeys = timeKeys;
+        int start = firstIndexAtOrAfter(currentKeys, currentSize, toMicros(from));
+        int end = Math.max(start, firstIndexAtOrAfter(currentKeys, currentSize, toMicros(to)));
+
+        TransactionModel[] transactions = new TransactionModel[end - start];
+        for (int i = start; i < end; i++) {
+            transactions[i - start] = get(i);
+        }
+        return Arrays.asList(transactions);
+    }
+
+    // index of the oldest entry created at or after the instant, size() when there is none; lets callers walk a range with get
+    public int indexAtOrAfter(Instant instant) {
+        return firstIndexAtOrAfter(timeKeys, size, toMicros(instant));
+    }
+
+    private static int firstIndexAtOrAfter(long[][] keys, int size, long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[chunkOf(middle)][offsetOf(middle)] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static long toMicros(Instant instant) {
+        long seconds = instant.getEpochSecond();
+        if (seconds >= Long.MAX_VALUE / 1_000_000L) {
+            return Long.MAX_VALUE;
+        }
+        if (seconds <= Long.MIN_VALUE / 1_000_000L) {
+            return Long.MIN_VALUE;
+        }
+        return seconds * 1_000_000L + instant.getNano() / 1_000;
+    }
+
+    // newest first, starting right below the exclusive upper index
+    public TransactionPage page(long continuationToken, int pageSize) {
+        if (pageSize <= 0) {
+            throw new RuntimeException("Page size must be positive");
+        }
+        int end = pageEnd(continuationToken, size);
+        int start = Math.max(0, end - pageSize);
+
+        TransactionModel[] transactions = new TransactionModel[end - start];
+        for (int i = end - 1, next = 0; i >= start; i--) {
+            transactions[next++] = get(i);
+        }
+        return new TransactionPage(Arrays.asList(transactions), start);
+    }
+
+    // the entries created in [from, to), paged newest first like page; tokens count from the oldest entry of the
+    // range, so they stay valid while newer entries are appended
+    public TransactionPage page(Instant from, Instant to, long continuationToken, int pageSize) {
+        if (pageSize <= 0) {
+            throw new RuntimeException("Page size must be positive");
+        }
+        int currentSize = size;
+        long[][] currentKeys = timeKeys;
+        int low = firstIndexAtOrAfter(currentKeys, currentSize, toMicros(from));
+        int high = Math.max(low, firstIndexAtOrAfter(currentKeys, currentSize, toMicros(to)));
+        int end = low + pageEnd(continuationToken, high - low);
+        int start = Math.max(low, end - pageSize);
+
+        TransactionModel[] transactions = new TransactionModel[end - start];
+        for (int i = end - 1, next = 0; i >= start; i--) {
+            transactions[next++] = get(i);
+        }
+        return new TransactionPage(Arrays.asList(transactions), start - low);
+    }
+
+    // a token is FIRST_PAGE or the start index of an earlier page, which can never be past the current size
+    public static int pageEnd(long continuationToken, int size) {
+        if (continuationToken == TransactionPage.FIRST_PAGE) {
+            return size;
+        }
+        if (continuationToken < 0 || continuationToken > size) {
+            throw new IllegalArgumentException("Invalid continuation token " + continuationToken);
+        }
+        return (int) continuationToken;
+    }
+
+    private static final class View extends AbstractList<TransactionModel> implements RandomAccess {
+        private final TransactionModel[][] chunks;
+        private final int size;
+
+        private View(TransactionModel[][] chunks, int size) {
+            this.chunks = chunks;
+            this.size = size;
+        }
+
+        @Override
+        public TransactionModel get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+            }
+            return chunks[chunkOf(index)][offsetOf(index)];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private static int chunkOf(int index) {
+        return 31 - Integer.numberOfLeadingZeros(index + FIRST_CHUNK_SIZE) - FIRST_CHUNK_SHIFT;
+    }
+
+    private static int offsetOf(int index) {
+        int shifted = index + FIRST_CHUNK_SIZE;
+        return shifted - Integer.highestOneBit(shifted);
+    }
+}
@@ -1,6 +1,8 @@
 package domain;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.UUID;
 
 public class TransactionModel {
@@ -9,14 +11,23 @@ public class TransactionModel {
     private String to; // another account if transfer or the same account (as from) if money is withdrawn
     private MoneyModel amount;
     private LocalDate timestamp;
+    private Instant createdAt; // high resolution moment the transaction was applied, timestamp is its local date
 
     public TransactionModel(UUID id, String from, String to, MoneyModel amount, LocalDate timestamp) {
+        this(id, from, to, amount, timestamp, timestamp.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    public TransactionModel(UUID id, String from, String to, MoneyModel amount, Instant createdAt) {
+        this(id, from, to, amount, LocalDate.ofInstant(createdAt, ZoneId.systemDefault()), createdAt);
+    }
+
+    public TransactionModel(UUID id, String from, String to, MoneyModel amount, LocalDate timestamp, Instant createdAt) {
         this.id = id;
         this.from = from;
         this.to = to;
         this.amount = amount;
         this.timestamp = timestamp;
-
+        this.createdAt = createdAt;
     }
 
     public UUID getId() {
@@ -59,6 +70,14 @@ public class TransactionModel {
         this.timestamp = timestamp;
     }
 
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
     @Override
     public String toString() {
         return "TransactionModel{" +
@@ -67,6 +86,7 @@ public class TransactionModel {
                 ", to='" + to + '\'' +
                 ", amount=" + amount +
                 ", timestamp=" + timestamp +
+                ", createdAt=" + createdAt +
                 '}';
     }
 }
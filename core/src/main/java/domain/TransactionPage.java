@@ -0,0 +1,35 @@
+package domain;
+
+import java.util.List;
+
+public class TransactionPage {
+    public static final long FIRST_PAGE = -1;
+
+    private final List<TransactionModel> transactions; // newest first
+    private final long continuationToken;               // pass back to get the next, older page
+
+    public TransactionPage(List<TransactionModel> transactions, long continuationToken) {
+        this.transactions = transactions;
+        this.continuationToken = continuationToken;
+    }
+
+    public List<TransactionModel> getTransactions() {
+        return transactions;
+    }
+
+    public long getContinuationToken() {
+        return continuationToken;
+    }
+
+    public boolean hasMore() {
+        return continuationToken > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionPage{" +
+                "transactions=" + transactions +
+                ", continuationToken=" + continuationToken +
+                '}';
+    }
+}
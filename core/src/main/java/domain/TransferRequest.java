@@ -0,0 +1,46 @@
+package domain;
+
+public class TransferRequest {
+    private String fromAccountId;
+    private String toAccountId;
+    private MoneyModel amount;
+
+    public TransferRequest(String fromAccountId, String toAccountId, MoneyModel amount) {
+        this.fromAccountId = fromAccountId;
+        this.toAccountId = toAccountId;
+        this.amount = amount;
+    }
+
+    public String getFromAccountId() {
+        return fromAccountId;
+    }
+
+    public void setFromAccountId(String fromAccountId) {
+        this.fromAccountId = fromAccountId;
+    }
+
+    public String getToAccountId() {
+        return toAccountId;
+    }
+
+    public void setToAccountId(String toAccountId) {
+        this.toAccountId = toAccountId;
+    }
+
+    public MoneyModel getAmount() {
+        return amount;
+    }
+
+    public void setAmount(MoneyModel amount) {
+        this.amount = amount;
+    }
+
+    @Override
+    public String toString() {
+        return "TransferRequest{" +
+                "fromAccountId='" + fromAccountId + '\'' +
+                ", toAccountId='" + toAccountId + '\'' +
+                ", amount=" + amount +
+                '}';
+    }
+}
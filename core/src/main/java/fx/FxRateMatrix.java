@@ -0,0 +1,77 @@
+package fx;
+
+import domain.CurrencyType;
+import utils.MoneyUtils;
+
+import java.util.Arrays;
+
+// Immutable table of conversion rates in millionths, indexed by currency ordinal. A new set of rates is a new
+// matrix, so a reader holding one always sees rates that were published together.
+public final class FxRateMatrix {
+    public static final long NO_RATE = 0;
+
+    private static final int CURRENCIES = CurrencyType.values().length;
+
+    private final long[] scaledRates;
+
+    private FxRateMatrix(long[] scaledRates) {
+        this.scaledRates = scaledRates;
+    }
+
+    // the rates the bank has always used: RON -> EUR 0.2 and EUR -> RON 4.98
+    public static FxRateMatrix defaults() {
+        return builder()
+                .rate(CurrencyType.RON, CurrencyType.EUR, 200_000)
+                .rate(CurrencyType.EUR, CurrencyType.RON, 4_980_000)
+                .build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public long getScaledRate(CurrencyType fromCurrency, CurrencyType toCurrency) {
+        return scaledRates[fromCurrency.ordinal() * CURRENCIES + toCurrency.ordinal()];
+    }
+
+    public boolean hasRate(CurrencyType fromCurrency, CurrencyType toCurrency) {
+        return getScaledRate(fromCurrency, toCurrency) != NO_RATE;
+    }
+
+    // FX results are rounded half-even to the minor unit
+    public long convertMinorUnits(long minorUnits, CurrencyType fromCurrency, CurrencyType toCurrency) {
+        long scaledRate = getScaledRate(fromCurrency, toCurrency);
+        if (scaledRate == NO_RATE) {
+            throw new RuntimeException("No conversion rate from " + fromCurrency + " to " + toCurrency);
+        }
+        if (scaledRate == MoneyUtils.RATE_SCALE) {
+            return minorUnits;
+        }
+        return MoneyUtils.divideHalfEven(Math.multiplyExact(minorUnits, scaledRate), MoneyUtils.RATE_SCALE);
+    }
+
+    public static class Builder {
+        private final long[] scaledRates = new long[CURRENCIES * CURRENCIES];
+
+        private Builder() {
+            for (int currency = 0; currency < CURRENCIES; currency++) {
+                scaledRates[currency * CURRENCIES + currency] = MoneyUtils.RATE_SCALE;
+            }
+        }
+
+        public Builder rate(CurrencyType fromCurrency, CurrencyType toCurrency, long scaledRate) {
+            if (scaledRate <= 0) {
+                throw new RuntimeException("Conversion rate from " + fromCurrency + " to " + toCurrency + " must be positive");
+            }
+            if (fromCurrency == toCurrency && scaledRate != MoneyUtils.RATE_SCALE) {
+                throw new RuntimeException("Conversion rate from " + fromCurrency + " to itself must be 1");
+            }
+            scaledRates[fromCurrency.ordinal() * CURRENCIES + toCurrency.ordinal()] = scaledRate;
+            return this;
+        }
+
+        public FxRateMatrix build() {
+            return new FxRateMatrix(Arrays.copyOf(scaledRates, scaledRates.length));
+        }
+    }
+}
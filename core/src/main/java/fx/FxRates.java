@@ -0,0 +1,64 @@
+package fx;
+
+import domain.CurrencyType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+// The rate matrix currently in force. Publishing new rates swaps the whole matrix, so transfers are never paused;
+// a transfer reads current() once and converts with that matrix from start to end.
+public class FxRates {
+    public static final FxRates INSTANCE = new FxRates();
+
+    private final AtomicReference<FxRateMatrix> current = new AtomicReference<>(FxRateMatrix.defaults());
+
+    public FxRateMatrix current() {
+        return current.get();
+    }
+
+    public FxRateMatrix publish(FxRateMatrix rates) {
+        return current.getAndSet(rates);
+    }
+
+    public FxRateMatrix load(Path ratesFile) {
+        FxRateMatrix rates = parse(ratesFile);
+        publish(rates);
+        return rates;
+    }
+
+    // one rate per line, "EUR RON 4.98"; blank lines and lines starting with # are skipped
+    public static FxRateMatrix parse(Path ratesFile) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(ratesFile, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read rates " + ratesFile, e);
+        }
+
+        FxRateMatrix.Builder builder = FxRateMatrix.builder();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\\s+");
+            if (fields.length != 3) {
+                throw new RuntimeException("Malformed rate at " + ratesFile + ":" + (i + 1) + ": " + line);
+            }
+            try {
+                long scaledRate = new BigDecimal(fields[2]).movePointRight(6).setScale(0, RoundingMode.HALF_EVEN).longValueExact();
+                builder.rate(CurrencyType.valueOf(fields[0]), CurrencyType.valueOf(fields[1]), scaledRate);
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                throw new RuntimeException("Malformed rate at " + ratesFile + ":" + (i + 1) + ": " + line, e);
+            }
+        }
+        return builder.build();
+    }
+}
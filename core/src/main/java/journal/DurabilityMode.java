@@ -0,0 +1,7 @@
+package journal;
+
+public enum DurabilityMode {
+    PER_OPERATION, // every append is written and fsynced before the caller continues
+    GROUP,         // concurrent callers share one fsync, each waits until its own record is on disk
+    ASYNC          // a background thread fsyncs periodically, callers never wait
+}
@@ -0,0 +1,84 @@
+package journal;
+
+import domain.CurrencyType;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+public class JournalRecord {
+    private final JournalRecordType type;
+    private final UUID transactionId; // null for interest capitalizations
+    private final String fromAccountId;
+    private final String toAccountId;
+    private final long amountMinorUnits;
+    private final CurrencyType currency;
+    private final LocalDate date;
+    private final Instant createdAt; // null for interest capitalizations
+
+    public JournalRecord(
+            JournalRecordType type,
+            UUID transactionId,
+            String fromAccountId,
+            String toAccountId,
+            long amountMinorUnits,
+            CurrencyType currency,
+            LocalDate date,
+            Instant createdAt
+    ) {
+        this.type = type;
+        this.transactionId = transactionId;
+        this.fromAccountId = fromAccountId;
+        this.toAccountId = toAccountId;
+        this.amountMinorUnits = amountMinorUnits;
+        this.currency = currency;
+        this.date = date;
+        this.createdAt = createdAt;
+    }
+
+    public JournalRecordType getType() {
+        return type;
+    }
+
+    public UUID getTransactionId() {
+        return transactionId;
+    }
+
+    public String getFromAccountId() {
+        return fromAccountId;
+    }
+
+    public String getToAccountId() {
+        return toAccountId;
+    }
+
+    public long getAmountMinorUnits() {
+        return amountMinorUnits;
+    }
+
+    public CurrencyType getCurrency() {
+        return currency;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "JournalRecord{" +
+                "type=" + type +
+                ", transactionId=" + transactionId +
+                ", fromAccountId='" + fromAccountId + '\'' +
+                ", toAccountId='" + toAccountId + '\'' +
+                ", amountMinorUnits=" + amountMinorUnits +
+                ", currency=" + currency +
+                ", date=" + date +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
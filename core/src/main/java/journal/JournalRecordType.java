@@ -0,0 +1,7 @@
+package journal;
+
+public enum JournalRecordType {
+    TRANSFER,
+    WITHDRAWAL,
+    INTEREST
+}
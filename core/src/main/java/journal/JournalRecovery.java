@@ -0,0 +1,104 @@
+package journal;
+
+import domain.AccountModel;
+import domain.MoneyModel;
+import domain.SavingsAccountModel;
+import domain.TransactionModel;
+import repository.AccountsRepository;
+import services.BalanceGate;
+import store.TransactionStore;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.locks.Lock;
+
+public class JournalRecovery {
+
+    private JournalRecovery() {}
+
+    // replays on top of the state the journal was started from (the seed data or a snapshot), returns the number of records applied
+    public static long recover(Path journalPath) {
+        return recover(journalPath, 0);
+    }
+
+    public static long recover(Path journalPath, long fromPosition) {
+        return recover(journalPath, fromPosition, null);
+    }
+
+    // with a store, the replayed transactions go to it instead of the account histories, as the service records them
+    public static long recover(Path journalPath, long fromPosition, TransactionStore store) {
+        if (!Files.exists(journalPath)) {
+            return 0;
+        }
+        long[] applied = new long[1];
+        Lock gate = BalanceGate.INSTANCE.enter();
+        try {
+            TransactionJournal.replay(journalPath, fromPosition, record -> {
+                apply(record, store);
+                applied[0]++;
+            });
+        } finally {
+            gate.unlock();
+        }
+        return applied[0];
+    }
+
+    public static void apply(JournalRecord record) {
+        apply(record, null);
+    }
+
+    public static void apply(JournalRecord record, TransactionStore store) {
+        AccountModel fromAccount = findAccount(record.getFromAccountId());
+        switch (record.getType()) {
+            case TRANSFER -> {
+                AccountModel toAccount = findAccount(record.getToAccountId());
+                fromAccount.getBalance().subtract(record.getAmountMinorUnits());
+                toAccount.getBalance().add(record.getAmountMinorUnits());
+                if (store != null) {
+                    store.append(record.getTransactionId(), fromAccount.getId(), toAccount.getId(), amountOf(record), record.getCreatedAt());
+                } else {
+                    TransactionModel transaction = toTransaction(record);
+                    fromAccount.getTransactions().add(transaction);
+                    toAccount.getTransactions().add(transaction);
+                }
+            }
+            case WITHDRAWAL -> {
+                fromAccount.getBalance().subtract(record.getAmountMinorUnits());
+                if (store != null) {
+                    store.append(record.getTransactionId(), fromAccount.getId(), fromAccount.getId(), amountOf(record), record.getCreatedAt());
+                } else {
+                    fromAccount.getTransactions().add(toTransaction(record));
+                }
+            }
+            case INTEREST -> {
+                fromAccount.getBalance().add(record.getAmountMinorUnits());
+                if (fromAccount instanceof SavingsAccountModel savingsAccount) {
+                    savingsAccount.setLastInterestAppliedDate(record.getDate());
+                }
+            }
+        }
+    }
+
+    private static AccountModel findAccount(String accountId) {
+        AccountModel account = AccountsRepository.INSTANCE.get(accountId);
+        if (account == null) {
+            throw new RuntimeException("Journal references an account that doesn't exist: " + accountId);
+        }
+        return account;
+    }
+
+    private static TransactionModel toTransaction(JournalRecord record) {
+        return new TransactionModel(
+                record.getTransactionId(),
+                record.getFromAccountId(),
+                record.getToAccountId(),
+                amountOf(record),
+                record.getDate(),
+                record.getCreatedAt()
+        );
+    }
+
+    private static MoneyModel amountOf(JournalRecord record) {
+        return MoneyModel.ofMinorUnits(record.getAmountMinorUnits(), record.getCurrency());
+    }
+}
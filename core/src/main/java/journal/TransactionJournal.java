@@ -0,0 +1,416 @@
+package journal;
+
+import domain.CurrencyType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+// Record layout: int payloadLength | payload | int crc32c(payload)
+// payload: byte type | long idMsb | long idLsb | long epochDay | long createdAtSecond | int createdAtNano
+//          | long amountMinorUnits | byte currency
+//          | short fromLength | from (latin-1) | short toLength | to (latin-1)
+public class TransactionJournal implements AutoCloseable {
+    private static final int INITIAL_BUFFER_BYTES = 1 << 20;
+    private static final int MAX_RECORD_BYTES = 1 << 16;
+    private static final int MAX_ID_LENGTH = 1 << 14; // two of them and the fixed fields stay below MAX_RECORD_BYTES
+    private static final long ASYNC_FLUSH_INTERVAL_MILLIS = 10;
+
+    private final FileChannel channel;
+    private final DurabilityMode durabilityMode;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final CRC32C checksum = new CRC32C();
+    private final Thread asyncFlusher;
+
+    private ByteBuffer active = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);  // guarded by appendLock
+    private ByteBuffer spare = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);   // guarded by flushLock
+    private long appendedPosition;                                          // guarded by appendLock
+    private volatile long durablePosition;
+    private volatile boolean closed;
+    private volatile IOException failure; // a failed write that could not be cut off the file again, see writeAndForce
+
+    private TransactionJournal(FileChannel channel, DurabilityMode durabilityMode, long validEnd) {
+        this.channel = channel;
+        this.durabilityMode = durabilityMode;
+        this.appendedPosition = validEnd;
+        this.durablePosition = validEnd;
+        if (durabilityMode == DurabilityMode.ASYNC) {
+            asyncFlusher = new Thread(this::flushPeriodically, "journal-flusher");
+            asyncFlusher.setDaemon(true);
+            asyncFlusher.start();
+        } else {
+            asyncFlusher = null;
+        }
+    }
+
+    public static TransactionJournal open(Path path, DurabilityMode durabilityMode) {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open journal " + path, e);
+        }
+        return open(channel, durabilityMode);
+    }
+
+    // the journal takes over the channel and closes it on close()
+    public static TransactionJournal open(FileChannel channel, DurabilityMode durabilityMode) {
+        try {
+            // a torn record left by a crash is cut off so new appends follow the last complete one
+            long validEnd = scan(channel, 0, Long.MAX_VALUE, null);
+            channel.truncate(validEnd);
+            channel.position(validEnd);
+            return new TransactionJournal(channel, durabilityMode, validEnd);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open journal", e);
+        }
+    }
+
+    public DurabilityMode getDurabilityMode() {
+        return durabilityMode;
+    }
+
+    public long getDurablePosition() {
+        return durablePosition;
+    }
+
+    public long getAppendedPosition() {
+        appendLock.lock();
+        try {
+            return appendedPosition;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // Returns the journal position right after the record, to be handed to awaitDurable. An append that throws leaves
+    // nothing behind: the ids are checked before the first byte is written, and in PER_OPERATION mode a record whose
+    // write fails is taken back out of the buffer, as its caller moves no money.
+    public long append(
+            JournalRecordType type,
+            UUID transactionId,
+            String fromAccountId,
+            String toAccountId,
+            long amountMinorUnits,
+            CurrencyType currency,
+            LocalDate date,
+            Instant createdAt
+    ) {
+        long position;
+        appendLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed");
+            }
+            checkNotFailed();
+            checkId(fromAccountId);
+            checkId(toAccountId);
+            ensureCapacity(MAX_RECORD_BYTES);
+            int start = active.position();
+            active.position(start + Integer.BYTES);
+            active.put((byte) type.ordinal());
+            active.putLong(transactionId == null ? 0 : transactionId.getMostSignificantBits());
+            active.putLong(transactionId == null ? 0 : transactionId.getLeastSignificantBits());
+            active.putLong(date.toEpochDay());
+            active.putLong(createdAt == null ? 0 : createdAt.getEpochSecond());
+            active.putInt(createdAt == null ? 0 : createdAt.getNano());
+            active.putLong(amountMinorUnits);
+            active.put((byte) currency.ordinal());
+            putId(fromAccountId);
+            putId(toAccountId);
+
+            int payloadLength = active.position() - start - Integer.BYTES;
+            active.putInt(start, payloadLength);
+            checksum.reset();
+            checksum.update(active.array(), active.arrayOffset() + start + Integer.BYTES, payloadLength);
+            active.putInt((int) checksum.getValue());
+
+            int recordLength = active.position() - start;
+            appendedPosition += recordLength;
+            position = appendedPosition;
+
+            // no batching: the record is written and fsynced while later appenders wait
+            if (durabilityMode == DurabilityMode.PER_OPERATION) {
+                try {
+                    writeAndForce(active);
+                } catch (RuntimeException e) {
+                    active.position(start);
+                    appendedPosition -= recordLength;
+                    throw e;
+                }
+                durablePosition = position;
+            }
+        } finally {
+            appendLock.unlock();
+        }
+        return position;
+    }
+
+    public void awaitDurable(long position) {
+        if (durabilityMode == DurabilityMode.ASYNC) {
+            return;
+        }
+        while (durablePosition < position) {
+            flush();
+        }
+    }
+
+    // whoever gets the flush lock writes and fsyncs everything appended so far, callers queued behind it usually find their record already durable
+    public void flush() {
+        flushLock.lock();
+        try {
+            ByteBuffer pending;
+            long end;
+            appendLock.lock();
+            try {
+                if (active.position() == 0) {
+                    return;
+                }
+                checkNotFailed();
+                pending = active;
+                active = spare;
+                end = appendedPosition;
+            } finally {
+                appendLock.unlock();
+            }
+
+            try {
+                writeAndForce(pending);
+            } catch (RuntimeException e) {
+                requeue(pending);
+                throw e;
+            }
+            spare = pending;
+            durablePosition = end;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // On failure the file is cut back to where the batch started and the buffer keeps its records, so the next flush
+    // writes the whole batch again. Cutting it matters when the write went through and only the force failed: complete,
+    // checksum-valid records would otherwise stay in the file and be replayed although their callers were told they
+    // failed. If the file cannot be cut either, the journal fails every later append and flush.
+    private void writeAndForce(ByteBuffer pending) {
+        int end = pending.position();
+        try {
+            long start = channel.position();
+            pending.flip();
+            try {
+                while (pending.hasRemaining()) {
+                    channel.write(pending);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                try {
+                    channel.truncate(start);
+                    channel.position(start);
+                } catch (IOException truncateFailure) {
+                    e.addSuppressed(truncateFailure);
+                    failure = e;
+                }
+                throw e;
+            }
+            pending.clear();
+        } catch (IOException e) {
+            pending.limit(pending.capacity()).position(end);
+            throw new UncheckedIOException("Cannot write journal", e);
+        }
+    }
+
+    // called with the flush lock held: the failed batch goes back in front of what was appended while it was written
+    private void requeue(ByteBuffer failed) {
+        appendLock.lock();
+        try {
+            ByteBuffer appendedSince = active;
+            active = failed;
+            ensureCapacity(appendedSince.position());
+            appendedSince.flip();
+            active.put(appendedSince);
+            appendedSince.clear();
+            spare = appendedSince;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // The flusher is stopped through the closed flag and unpark, never interrupted: an interrupt during write or
+    // force closes the channel, and the final flush would then lose the buffered records.
+    @Override
+    public void close() {
+        closed = true;
+        if (asyncFlusher != null) {
+            LockSupport.unpark(asyncFlusher);
+            boolean interrupted = false;
+            while (asyncFlusher.isAlive()) {
+                try {
+                    asyncFlusher.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            flush();
+        } finally {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot close journal", e);
+            }
+        }
+    }
+
+    public static long replay(Path path, Consumer<JournalRecord> consumer) {
+        return replay(path, 0, consumer);
+    }
+
+    // fromPosition must be a record boundary within the valid records, e.g. the position a snapshot was taken at. The
+    // records before it are walked (checksummed, not decoded) to make sure it is: a position a crash took back, or one
+    // new appends have since written over, is rejected instead of replaying from the middle of a record.
+    public static long replay(Path path, long fromPosition, Consumer<JournalRecord> consumer) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long boundary = scan(channel, 0, fromPosition, null);
+            if (boundary != fromPosition) {
+                throw new IllegalArgumentException("Journal position " + fromPosition + " is not a record boundary of "
+                        + path + ", its valid records end at or after " + boundary);
+            }
+            return scan(channel, fromPosition, Long.MAX_VALUE, consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read journal " + path, e);
+        }
+    }
+
+    // walks the records from fromPosition and returns the end of the last complete, checksum-valid one, or the first
+    // record end at or past untilPosition
+    private static long scan(FileChannel channel, long fromPosition, long untilPosition, Consumer<JournalRecord> consumer)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+        CRC32C crc = new CRC32C();
+        long position = fromPosition;
+        channel.position(fromPosition);
+        while (true) {
+            int read = channel.read(buffer);
+            buffer.flip();
+            while (buffer.remaining() >= Integer.BYTES) {
+                if (position >= untilPosition) {
+                    return position;
+                }
+                int start = buffer.position();
+                int payloadLength = buffer.getInt(start);
+                if (payloadLength <= 0 || payloadLength > MAX_RECORD_BYTES) {
+                    return position;
+                }
+                if (buffer.remaining() < payloadLength + 2 * Integer.BYTES) {
+                    break;
+                }
+                crc.reset();
+                crc.update(buffer.array(), buffer.arrayOffset() + start + Integer.BYTES, payloadLength);
+                if ((int) crc.getValue() != buffer.getInt(start + Integer.BYTES + payloadLength)) {
+                    return position;
+                }
+                if (consumer != null) {
+                    buffer.position(start + Integer.BYTES);
+                    consumer.accept(decode(buffer));
+                }
+                buffer.position(start + payloadLength + 2 * Integer.BYTES);
+                position += payloadLength + 2 * Integer.BYTES;
+            }
+            if (read == -1) {
+                return position;
+            }
+            buffer.compact();
+        }
+    }
+
+    private static JournalRecord decode(ByteBuffer buffer) {
+        JournalRecordType type = JournalRecordType.values()[buffer.get()];
+        long mostSignificantBits = buffer.getLong();
+        long leastSignificantBits = buffer.getLong();
+        LocalDate date = LocalDate.ofEpochDay(buffer.getLong());
+        long createdAtSecond = buffer.getLong();
+        int createdAtNano = buffer.getInt();
+        long amountMinorUnits = buffer.getLong();
+        CurrencyType currency = CurrencyType.values()[buffer.get()];
+        String fromAccountId = getId(buffer);
+        String toAccountId = getId(buffer);
+        if (type == JournalRecordType.INTEREST) {
+            return new JournalRecord(type, null, fromAccountId, toAccountId, amountMinorUnits, currency, date, null);
+        }
+        return new JournalRecord(type, new UUID(mostSignificantBits, leastSignificantBits), fromAccountId, toAccountId,
+                amountMinorUnits, currency, date, Instant.ofEpochSecond(createdAtSecond, createdAtNano));
+    }
+
+    private void checkNotFailed() {
+        IOException failed = failure;
+        if (failed != null) {
+            throw new UncheckedIOException("Journal failed, a failed write could not be cut off the file", failed);
+        }
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (active.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(active.capacity() * 2, active.position() + bytes));
+            active.flip();
+            larger.put(active);
+            active = larger;
+        }
+    }
+
+    private static void checkId(String accountId) {
+        int length = accountId.length();
+        if (length > MAX_ID_LENGTH) {
+            throw new IllegalArgumentException("Account id is longer than " + MAX_ID_LENGTH + " characters");
+        }
+        for (int i = 0; i < length; i++) {
+            if (accountId.charAt(i) > 0xFF) {
+                throw new IllegalArgumentException("Account id is not latin-1: " + accountId);
+            }
+        }
+    }
+
+    // the id has been through checkId
+    private void putId(String accountId) {
+        int length = accountId.length();
+        active.putShort((short) length);
+        for (int i = 0; i < length; i++) {
+            active.put((byte) accountId.charAt(i));
+        }
+    }
+
+    private static String getId(ByteBuffer buffer) {
+        int length = buffer.getShort();
+        String accountId = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.ISO_8859_1);
+        buffer.position(buffer.position() + length);
+        return accountId;
+    }
+
+    private void flushPeriodically() {
+        while (!closed) {
+            LockSupport.parkNanos(ASYNC_FLUSH_INTERVAL_MILLIS * 1_000_000L);
+            if (closed) {
+                return; // close() flushes what is left
+            }
+            try {
+                flush();
+            } catch (UncheckedIOException e) {
+                // the batch stays buffered and is retried on the next tick or by close()
+            }
+        }
+    }
+}
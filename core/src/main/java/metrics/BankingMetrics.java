@@ -0,0 +1,261 @@
+package metrics;
+
+import domain.CurrencyType;
+import domain.RejectionReason;
+import repository.AccountsRepository;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+// Process-wide counters and latencies of the services, cheap enough to stay on. Rejections and currency pairs are
+// counted exactly, in LongAdders since every transfer bumps one and most bump the same RON->RON pair; latencies are
+// taken from one call in latencySampleRate, since the two nanoTime reads of a timed call cost more than a balance read.
+// Lock waits are only timed when an account lock was already held. The JFR OperationEvent is emitted for every call
+// while a recording enables it, whatever the sampling and also with the metrics switched off.
+public class BankingMetrics implements BankingMetricsMXBean {
+    private static final MeteredOperation[] OPERATIONS = MeteredOperation.values();
+    private static final RejectionReason[] REJECTIONS = RejectionReason.values();
+    private static final CurrencyType[] CURRENCIES = CurrencyType.values();
+
+    public static final BankingMetrics INSTANCE = new BankingMetrics(); // after the arrays its constructor reads
+    public static final String OBJECT_NAME = "banking:type=Metrics";
+    private static final long SAMPLED = 1;
+
+    private final LatencyHistogram[] latencies = new LatencyHistogram[OPERATIONS.length];
+    private final LongAdder[] rejections = adders(REJECTIONS.length);
+    private final LongAdder[] currencyPairs = adders(CURRENCIES.length * CURRENCIES.length);
+    private final LatencyHistogram lockWaits = new LatencyHistogram();
+    private final LongAdder idempotencyEvictions = new LongAdder();
+    private volatile boolean enabled = true;
+    private volatile int sampleMask = 7;
+
+    private BankingMetrics() {
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    // registers INSTANCE with the platform MBean server, calling it again does nothing
+    public static void register() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(INSTANCE, name);
+            }
+        } catch (InstanceAlreadyExistsException e) {
+            // registered concurrently
+        } catch (JMException e) {
+            throw new RuntimeException("Could not register the metrics MBean", e);
+        }
+    }
+
+    // Pass the result to record: 0 when the call is neither sampled nor recorded by JFR, otherwise the start time with
+    // its low bit telling record whether the latency goes into the histogram (one nanosecond off does not matter).
+    public long start() {
+        if (enabled && (ThreadLocalRandom.current().nextInt() & sampleMask) == 0) {
+            return System.nanoTime() | SAMPLED;
+        }
+        if (new OperationEvent().isEnabled()) { // the allocation is optimized away while no recording enables the event
+            return System.nanoTime() & ~SAMPLED;
+        }
+        return 0;
+    }
+
+    // rejection is null for calls that went through
+    public void record(MeteredOperation operation, String accountId, long started, RejectionReason rejection) {
+        if (started == 0) {
+            return;
+        }
+        long latency = latencyOf(operation, started);
+        OperationEvent event = new OperationEvent();
+        if (event.isEnabled()) {
+            commit(event, operation, accountId, rejection, latency);
+        }
+    }
+
+    // for the handle overloads of the services: the account id is only looked up for a JFR event a recording takes
+    public void record(MeteredOperation operation, int accountHandle, long started, RejectionReason rejection) {
+        if (started == 0) {
+            return;
+        }
+        long latency = latencyOf(operation, started);
+        OperationEvent event = new OperationEvent();
+        if (event.isEnabled()) {
+            commit(event, operation, AccountsRepository.INSTANCE.getHandles().idOf(accountHandle), rejection, latency);
+        }
+    }
+
+    private long latencyOf(MeteredOperation operation, long started) {
+        long latency = System.nanoTime() - started;
+        if ((started & SAMPLED) != 0) {
+            latencies[operation.ordinal()].record(latency);
+        }
+        return latency;
+    }
+
+    private static void commit(OperationEvent event, MeteredOperation operation, String accountId, RejectionReason rejection,
+                               long latency) {
+        event.operation = operation.key();
+        event.accountId = accountId;
+        event.rejection = rejection == null ? null : rejection.name();
+        event.latency = latency;
+        event.commit();
+    }
+
+    public void countRejection(RejectionReason rejection) {
+        if (enabled) {
+            rejections[rejection.ordinal()].increment();
+        }
+    }
+
+    public void countCurrencyPair(CurrencyType from, CurrencyType to) {
+        if (enabled) {
+            currencyPairs[from.ordinal() * CURRENCIES.length + to.ordinal()].increment();
+        }
+    }
+
+    // a completed idempotency key dropped before its TTL to keep the cache within its capacity
+    public void countIdempotencyEviction() {
+        if (enabled) {
+            idempotencyEvictions.increment();
+        }
+    }
+
+    public void recordLockWait(long nanos) {
+        if (enabled) {
+            lockWaits.record(nanos);
+        }
+    }
+
+    public LatencyHistogram getLatency(MeteredOperation operation) {
+        return latencies[operation.ordinal()];
+    }
+
+    public long getRejectionCount(RejectionReason rejection) {
+        return rejections[rejection.ordinal()].sum();
+    }
+
+    public long getCurrencyPairCount(CurrencyType from, CurrencyType to) {
+        return currencyPairs[from.ordinal() * CURRENCIES.length + to.ordinal()].sum();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public int getLatencySampleRate() {
+        return sampleMask + 1;
+    }
+
+    @Override
+    public void setLatencySampleRate(int rate) {
+        if (rate < 1 || Integer.bitCount(rate) != 1) {
+            throw new IllegalArgumentException("The sample rate must be a power of two, got " + rate);
+        }
+        this.sampleMask = rate - 1;
+    }
+
+    @Override
+    public Map<String, Double> getLatencyMicros() {
+        Map<String, Double> summary = new LinkedHashMap<>();
+        for (MeteredOperation operation : OPERATIONS) {
+            LatencyHistogram histogram = latencies[operation.ordinal()];
+            long count = histogram.getCount();
+            if (count > 0) {
+                summary.put(operation.key() + ".count", (double) count);
+                summarize(operation.key(), histogram, summary);
+            }
+        }
+        return summary;
+    }
+
+    @Override
+    public Map<String, Long> getRejectionCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (RejectionReason rejection : REJECTIONS) {
+            counts.put(rejection.name(), getRejectionCount(rejection));
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getCurrencyPairCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (CurrencyType from : CURRENCIES) {
+            for (CurrencyType to : CURRENCIES) {
+                long count = getCurrencyPairCount(from, to);
+                if (count > 0) {
+                    counts.put(from + "->" + to, count);
+                }
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public long getIdempotencyEvictionCount() {
+        return idempotencyEvictions.sum();
+    }
+
+    @Override
+    public long getLockWaitCount() {
+        return lockWaits.getCount();
+    }
+
+    @Override
+    public double getLockWaitMillis() {
+        return lockWaits.getTotalNanos() / 1e6;
+    }
+
+    @Override
+    public Map<String, Double> getLockWaitMicros() {
+        Map<String, Double> summary = new LinkedHashMap<>();
+        summarize("lockWait", lockWaits, summary);
+        return summary;
+    }
+
+    @Override
+    public void reset() {
+        for (LatencyHistogram histogram : latencies) {
+            histogram.reset();
+        }
+        for (LongAdder counter : rejections) {
+            counter.reset();
+        }
+        for (LongAdder counter : currencyPairs) {
+            counter.reset();
+        }
+        lockWaits.reset();
+        idempotencyEvictions.reset();
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static void summarize(String prefix, LatencyHistogram histogram, Map<String, Double> summary) {
+        summary.put(prefix + ".p50", histogram.valueAtPercentile(50) / 1e3);
+        summary.put(prefix + ".p99", histogram.valueAtPercentile(99) / 1e3);
+        summary.put(prefix + ".p999", histogram.valueAtPercentile(99.9) / 1e3);
+        summary.put(prefix + ".max", histogram.getMaxNanos() / 1e3);
+    }
+}
@@ -0,0 +1,34 @@
+package metrics;
+
+import java.util.Map;
+
+public interface BankingMetricsMXBean {
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    // one call in this many is timed into the latency histograms, a power of two; 1 times every call
+    int getLatencySampleRate();
+
+    void setLatencySampleRate(int rate);
+
+    // per operation over the timed calls, e.g. transfer.count, transfer.p50, transfer.p99, transfer.p999, transfer.max, in microseconds
+    Map<String, Double> getLatencyMicros();
+
+    Map<String, Long> getRejectionCounts();
+
+    // applied transfers by source amount and destination account currency, e.g. RON->EUR
+    Map<String, Long> getCurrencyPairCounts();
+
+    // idempotency keys evicted by the capacity bound before their TTL, their retries are treated as new requests
+    long getIdempotencyEvictionCount();
+
+    long getLockWaitCount();
+
+    double getLockWaitMillis();
+
+    // lockWait.p50, lockWait.p99, lockWait.max of the acquisitions that had to wait, in microseconds
+    Map<String, Double> getLockWaitMicros();
+
+    void reset();
+}
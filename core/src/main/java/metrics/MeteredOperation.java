@@ -0,0 +1,14 @@
+package metrics;
+
+public enum MeteredOperation {
+    TRANSFER,
+    TRANSFER_BATCH,
+    WITHDRAW,
+    CHECK_FUNDS,
+    RETRIEVE_TRANSACTIONS,
+    PASS_TIME;
+
+    public String key() {
+        return name().toLowerCase();
+    }
+}
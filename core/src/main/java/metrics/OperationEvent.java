@@ -0,0 +1,32 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// one per metered call, independent of the latency sampling and of BankingMetrics.setEnabled; off by default, enable it with e.g.
+// -XX:StartFlightRecording:filename=banking.jfr,+banking.Operation#enabled=true
+@Name("banking.Operation")
+@Label("Banking Operation")
+@Category("Banking")
+@Description("A metered call on the transaction or savings service")
+@Enabled(false)
+@StackTrace(false)
+class OperationEvent extends jdk.jfr.Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Account")
+    String accountId;
+
+    @Label("Rejection")
+    String rejection;
+
+    @Label("Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    long latency;
+}
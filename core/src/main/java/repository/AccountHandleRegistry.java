@@ -0,0 +1,82 @@
+package repository;
+
+import domain.AccountModel;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Dense int handles for account ids, so a hot path hashes the id string once at the edge and indexes arrays after
+// that. A handle is assigned once per id and never reused: removing an account only clears its slot, and an account
+// added again under the same id gets the same handle back. The registry therefore only grows, by one id slot and one
+// map entry for every distinct id ever bound or passed to handleOf, for the life of the process.
+public class AccountHandleRegistry {
+    public static final int NO_HANDLE = -1;
+
+    private static final VarHandle ACCOUNT = MethodHandles.arrayElementVarHandle(AccountModel[].class);
+
+    private final ConcurrentHashMap<String, Integer> handles = new ConcurrentHashMap<>();
+    private volatile String[] ids = new String[1024];
+    private volatile AccountModel[] accounts = new AccountModel[1024];
+    private int count;
+
+    // Assigns a handle on first use, also for an id that has no account yet, and keeps it for good. Only pass ids of
+    // accounts that exist or are about to (the repository and TransactionStore.append(String...) do); an arbitrary
+    // caller-supplied string minted here is never reclaimed. Lookups of ids that may be unknown go through find.
+    public int handleOf(String accountId) {
+        Integer handle = handles.get(accountId);
+        return handle != null ? handle : assign(accountId);
+    }
+
+    // NO_HANDLE for an id that was never seen, and for a null id
+    public int find(String accountId) {
+        if (accountId == null) {
+            return NO_HANDLE;
+        }
+        Integer handle = handles.get(accountId);
+        return handle == null ? NO_HANDLE : handle;
+    }
+
+    // null for an unknown handle
+    public String idOf(int handle) {
+        String[] current = ids;
+        return handle >= 0 && handle < current.length ? current[handle] : null;
+    }
+
+    // null for an unknown handle and for an id whose account is currently not in the repository
+    public AccountModel accountAt(int handle) {
+        AccountModel[] current = accounts;
+        return handle >= 0 && handle < current.length ? (AccountModel) ACCOUNT.getAcquire(current, handle) : null;
+    }
+
+    public int size() {
+        return handles.size();
+    }
+
+    synchronized void bind(String accountId, AccountModel account) {
+        int handle = handleOf(accountId);
+        ACCOUNT.setRelease(accounts, handle, account); // readers outside the lock see the account fully built
+    }
+
+    synchronized void unbind(String accountId) {
+        int handle = find(accountId);
+        if (handle != NO_HANDLE) {
+            ACCOUNT.setRelease(accounts, handle, (AccountModel) null);
+        }
+    }
+
+    private synchronized int assign(String accountId) {
+        Integer handle = handles.get(accountId);
+        if (handle != null) {
+            return handle;
+        }
+        if (count == ids.length) {
+            ids = Arrays.copyOf(ids, count * 2);
+            accounts = Arrays.copyOf(accounts, count * 2); // slots are only written under this lock, none get lost
+        }
+        ids[count] = accountId;
+        handles.put(accountId, count); // publishes the id slot written above
+        return count++;
+    }
+}
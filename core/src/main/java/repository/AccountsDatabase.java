@@ -0,0 +1,46 @@
+package repository;
+
+import domain.AccountModel;
+import domain.AccountType;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// the accounts table, with its handle registry kept in step with every add and remove
+public class AccountsDatabase extends IndexedInMemoryDatabase<AccountModel, AccountType> {
+    private final AccountHandleRegistry handles = new AccountHandleRegistry();
+    private final AtomicLong savingsVersion = new AtomicLong();
+
+    public AccountsDatabase() {
+        super(AccountModel::getAccountType);
+    }
+
+    public AccountHandleRegistry getHandles() {
+        return handles;
+    }
+
+    // Bumped by every add and remove of a savings account, so copies of the savings accounts (the capitalization
+    // scheduler, the savings book) can tell they no longer hold the stored ones. Checking account churn leaves it alone.
+    public long getSavingsVersion() {
+        return savingsVersion.get();
+    }
+
+    @Override
+    protected void stored(String id, AccountModel previous, AccountModel account) {
+        handles.bind(id, account);
+        if (isSavings(previous) || isSavings(account)) {
+            savingsVersion.incrementAndGet();
+        }
+    }
+
+    @Override
+    protected void removed(String id, AccountModel previous) {
+        handles.unbind(id);
+        if (isSavings(previous)) {
+            savingsVersion.incrementAndGet();
+        }
+    }
+
+    private static boolean isSavings(AccountModel account) {
+        return account != null && account.getAccountType() == AccountType.SAVINGS;
+    }
+}
@@ -0,0 +1,5 @@
+package repository;
+
+public class AccountsRepository {
+    public static final AccountsDatabase INSTANCE = new AccountsDatabase();
+}
@@ -0,0 +1,44 @@
+package repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// ConcurrentHashMap rejects null keys, a null id is simply not found, as it was with the HashMap this replaced
+public class InMemoryDatabase<T> {
+    protected final Map<String, T> db = new ConcurrentHashMap<>();
+
+    public boolean exist(String id) {
+        return id != null && db.containsKey(id);
+    }
+
+    public T get(String id) {
+        return id == null ? null : db.get(id);
+    }
+
+    public List<T> getAll() {
+        return new ArrayList<>(db.values());
+    }
+
+    // weakly consistent live view, iterating it neither copies nor blocks writers
+    public Collection<T> values() {
+        return Collections.unmodifiableCollection(db.values());
+    }
+
+    public int size() {
+        return db.size();
+    }
+
+    public void add(String id, T value) {
+        db.put(id, value);
+    }
+
+    public boolean remove(String id) {
+        return id != null && db.remove(id) != null;
+    }
+
+    public void clear() {db.clear();}
+}
@@ -0,0 +1,78 @@
+package repository;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+public class IndexedInMemoryDatabase<T, K> extends InMemoryDatabase<T> {
+    private final Function<? super T, ? extends K> indexKey;
+    private final Map<K, Map<String, T>> index = new ConcurrentHashMap<>();
+
+    public IndexedInMemoryDatabase(Function<? super T, ? extends K> indexKey) {
+        this.indexKey = indexKey;
+    }
+
+    // weakly consistent live view over the values filed under the given key
+    public Collection<T> getAllBy(K key) {
+        return Collections.unmodifiableCollection(bucketOf(key).values());
+    }
+
+    public int countBy(K key) {
+        Map<String, T> bucket = index.get(key);
+        return bucket == null ? 0 : bucket.size();
+    }
+
+    @Override
+    public void add(String id, T value) {
+        // compute keeps the primary entry and its index entry in step for concurrent writers of the same id
+        db.compute(id, (key, previous) -> {
+            if (previous != null) {
+                unindex(id, previous);
+            }
+            bucketOf(indexKey.apply(value)).put(id, value);
+            stored(id, previous, value);
+            return value;
+        });
+    }
+
+    @Override
+    public boolean remove(String id) {
+        if (id == null) {
+            return false;
+        }
+        boolean[] removed = new boolean[1];
+        db.computeIfPresent(id, (key, previous) -> {
+            unindex(id, previous);
+            removed(id, previous);
+            removed[0] = true;
+            return null;
+        });
+        return removed[0];
+    }
+
+    @Override
+    public void clear() {
+        db.keySet().forEach(this::remove);
+    }
+
+    // called while the id's entry is being written, so subclasses see the adds and removes of one id in order;
+    // previous is the value the add replaced, null for a new id
+    protected void stored(String id, T previous, T value) {
+    }
+
+    protected void removed(String id, T previous) {
+    }
+
+    private Map<String, T> bucketOf(K key) {
+        return index.computeIfAbsent(key, bucketKey -> new ConcurrentHashMap<>());
+    }
+
+    private void unindex(String id, T value) {
+        Map<String, T> bucket = index.get(indexKey.apply(value));
+        if (bucket != null) {
+            bucket.remove(id);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package seed;
+
+import journal.JournalRecovery;
+import repository.AccountsRepository;
+import snapshot.SnapshotLoader;
+import store.TransactionStore;
+
+import java.nio.file.Path;
+
+import static seed.AccountsSeedData.checkingAccountA;
+import static seed.AccountsSeedData.checkingAccountB;
+import static seed.AccountsSeedData.checkingAccountC;
+import static seed.AccountsSeedData.checkingAccountD;
+import static seed.AccountsSeedData.savingsAccountA;
+import static seed.AccountsSeedData.savingsAccountB;
+
+public class SeedInitializer {
+
+    public static void seedData() {
+        System.out.println("[Seeder] -------------Seeding data----------------\n");
+        AccountsRepository.INSTANCE.clear();
+        AccountsRepository.INSTANCE.add(savingsAccountA.getId(), savingsAccountA);
+        AccountsRepository.INSTANCE.add(savingsAccountB.getId(), savingsAccountB);
+        AccountsRepository.INSTANCE.add(checkingAccountA.getId(), checkingAccountA);
+        AccountsRepository.INSTANCE.add(checkingAccountB.getId(), checkingAccountB);
+        AccountsRepository.INSTANCE.add(checkingAccountC.getId(), checkingAccountC);
+        AccountsRepository.INSTANCE.add(checkingAccountD.getId(), checkingAccountD);
+    }
+
+    // replaces the accounts with a generated dataset, e.g. new SyntheticDataGenerator().seed(7).checkingAccounts(1_000_000)
+    public static void seedSynthetic(SyntheticDataGenerator generator) {
+        System.out.println("[Seeder] -------------Generating data----------------\n");
+        AccountsRepository.INSTANCE.clear();
+        long started = System.nanoTime();
+        long generated = generator.generate(AccountsRepository.INSTANCE);
+        System.out.println("[Seeder] Generated " + generated + " accounts in " + (System.nanoTime() - started) / 1_000_000 + " ms\n");
+    }
+
+    // restores the latest snapshot and replays the journal records appended after it
+    public static void restore(Path snapshot, Path journal) {
+        restore(snapshot, journal, null);
+    }
+
+    // the journal tail's transactions go to the store, for a service that records into it
+    public static void restore(Path snapshot, Path journal, TransactionStore store) {
+        System.out.println("[Seeder] -------------Restoring snapshot-------------\n");
+        AccountsRepository.INSTANCE.clear();
+        long journalPosition = SnapshotLoader.load(snapshot);
+        long replayed = JournalRecovery.recover(journal, journalPosition, store);
+        System.out.println("[Seeder] Restored " + AccountsRepository.INSTANCE.size() + " accounts, replayed " + replayed + " journal records\n");
+    }
+}
@@ -0,0 +1,271 @@
+package seed;
+
+import domain.AccountModel;
+import domain.CapitalizationFrequency;
+import domain.CardModel;
+import domain.CheckingAccountModel;
+import domain.CurrencyType;
+import domain.InterestRate;
+import domain.MoneyModel;
+import domain.SavingsAccountModel;
+import domain.TransactionModel;
+import repository.InMemoryDatabase;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+// Generates production-sized datasets: checking accounts with cards, savings accounts and optional histories,
+// added to the database in parallel as they are created. Every account draws from its own random stream derived from
+// the seed and its index, so the same configuration always produces the same data, however the work is split.
+//
+// Histories are generated per account and not mirrored on the counterparty, and balances are not derived from them:
+// they exist to give the read paths realistic lengths. The first hotAccounts checking accounts take hotAccountShare
+// of all counterparties and get hotHistoryMultiplier times the average history length.
+public class SyntheticDataGenerator {
+    public static final String CHECKING_PREFIX = "ROSYNC";
+    public static final String SAVINGS_PREFIX = "ROSYNS";
+
+    private static final int BLOCK_SIZE = 4096;
+    private static final int ID_DIGITS = 10;
+    private static final long FIRST_CARD_NUMBER = 400_000_000_000_000L; // 15 digits, a Luhn check digit completes it
+    private static final String[] FIRST_NAMES = {"Andrei", "Maria", "Ioana", "Mihai", "Elena", "Alexandru", "Ana", "Stefan",
+            "Cristina", "Vlad", "Laura", "George", "Daniela", "Radu", "Irina", "Paul"};
+    private static final String[] LAST_NAMES = {"Popescu", "Ionescu", "Popa", "Dumitru", "Stan", "Stoica", "Gheorghe", "Rusu",
+            "Munteanu", "Matei", "Constantin", "Serban", "Moldovan", "Marin", "Lazar", "Florea"};
+    private static final double[] SAVINGS_RATES = {InterestRate.ONE_MONTH_ACCOUNT, InterestRate.THREE_MONTH_ACCOUNT, InterestRate.SIX_MONTH_ACCOUNT};
+    private static final CurrencyType[] CURRENCIES = CurrencyType.values();
+
+    private long seed = 42;
+    private int checkingAccounts = 1_000;
+    private int savingsAccounts = 250;
+    private double[] currencyWeights = defaultCurrencyWeights();
+    private double medianBalance = 2_000;
+    private double balanceSpread = 1.5; // sigma of the log-normal balance distribution
+    private double cardShare = 0.9;
+    private double inactiveCardShare = 0.05;
+    private double quarterlyShare = 0.3;
+    private double averageHistoryLength = 0;
+    private int hotAccounts = 0;
+    private double hotAccountShare = 0.2;
+    private int hotHistoryMultiplier = 100;
+    private int historyDays = 365;
+    private LocalDate referenceDate = LocalDate.now();
+
+    private static double[] defaultCurrencyWeights() {
+        double[] weights = new double[CURRENCIES.length];
+        weights[CurrencyType.RON.ordinal()] = 0.70;
+        weights[CurrencyType.EUR.ordinal()] = 0.25;
+        weights[CurrencyType.USD.ordinal()] = 0.03;
+        weights[CurrencyType.GBP.ordinal()] = 0.01;
+        weights[CurrencyType.CHF.ordinal()] = 0.01;
+        return weights;
+    }
+
+    public SyntheticDataGenerator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public SyntheticDataGenerator checkingAccounts(int checkingAccounts) {
+        this.checkingAccounts = checkingAccounts;
+        return this;
+    }
+
+    public SyntheticDataGenerator savingsAccounts(int savingsAccounts) {
+        this.savingsAccounts = savingsAccounts;
+        return this;
+    }
+
+    public SyntheticDataGenerator currencyWeight(CurrencyType currency, double weight) {
+        currencyWeights[currency.ordinal()] = weight;
+        return this;
+    }
+
+    public SyntheticDataGenerator balances(double medianBalance, double balanceSpread) {
+        this.medianBalance = medianBalance;
+        this.balanceSpread = balanceSpread;
+        return this;
+    }
+
+    public SyntheticDataGenerator cards(double cardShare, double inactiveCardShare) {
+        this.cardShare = cardShare;
+        this.inactiveCardShare = inactiveCardShare;
+        return this;
+    }
+
+    public SyntheticDataGenerator quarterlyShare(double quarterlyShare) {
+        this.quarterlyShare = quarterlyShare;
+        return this;
+    }
+
+    // history lengths are exponentially distributed around the average, over the historyDays before the reference date
+    public SyntheticDataGenerator histories(double averageHistoryLength, int historyDays) {
+        this.averageHistoryLength = averageHistoryLength;
+        this.historyDays = historyDays;
+        return this;
+    }
+
+    public SyntheticDataGenerator hotAccounts(int hotAccounts, double hotAccountShare, int hotHistoryMultiplier) {
+        this.hotAccounts = hotAccounts;
+        this.hotAccountShare = hotAccountShare;
+        this.hotHistoryMultiplier = hotHistoryMultiplier;
+        return this;
+    }
+
+    public SyntheticDataGenerator referenceDate(LocalDate referenceDate) {
+        this.referenceDate = referenceDate;
+        return this;
+    }
+
+    public static String checkingId(int index) {
+        return id(CHECKING_PREFIX, index);
+    }
+
+    public static String savingsId(int index) {
+        return id(SAVINGS_PREFIX, index);
+    }
+
+    // adds every generated account to the database and returns how many were added
+    public long generate(InMemoryDatabase<AccountModel> database) {
+        if (hotAccounts > checkingAccounts) {
+            throw new RuntimeException("More hot accounts than checking accounts");
+        }
+        double totalWeight = Arrays.stream(currencyWeights).sum();
+        if (totalWeight <= 0) {
+            throw new RuntimeException("At least one currency needs a positive weight");
+        }
+        int total = checkingAccounts + savingsAccounts;
+        int blocks = (total + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        IntStream.range(0, blocks).parallel().forEach(block -> {
+            int end = (int) Math.min((long) (block + 1) * BLOCK_SIZE, total);
+            for (int i = block * BLOCK_SIZE; i < end; i++) {
+                AccountModel account = i < checkingAccounts ? checking(i, totalWeight) : savings(i - checkingAccounts, totalWeight);
+                database.add(account.getId(), account);
+            }
+        });
+        return total;
+    }
+
+    private CheckingAccountModel checking(int index, double totalWeight) {
+        SplittableRandom random = randomFor(index);
+        String id = checkingId(index);
+        CurrencyType currency = currency(random, totalWeight);
+        CardModel card = random.nextDouble() < cardShare ? card(index, random) : null;
+        List<TransactionModel> history = history(id, index < hotAccounts, currency, random);
+        return new CheckingAccountModel(id, MoneyModel.ofMinorUnits(balance(random), currency), history, card);
+    }
+
+    private SavingsAccountModel savings(int index, double totalWeight) {
+        SplittableRandom random = randomFor(checkingAccounts + index);
+        String id = savingsId(index);
+        CurrencyType currency = currency(random, totalWeight);
+        CapitalizationFrequency frequency = random.nextDouble() < quarterlyShare ? CapitalizationFrequency.QUARTERLY : CapitalizationFrequency.MONTHLY;
+        LocalDate lastInterestAppliedDate = referenceDate.minusMonths(random.nextInt(3));
+        List<TransactionModel> history = history(id, false, currency, random);
+        return new SavingsAccountModel(id, MoneyModel.ofMinorUnits(balance(random), currency), history,
+                SAVINGS_RATES[random.nextInt(SAVINGS_RATES.length)], frequency, lastInterestAppliedDate);
+    }
+
+    private CardModel card(int index, SplittableRandom random) {
+        long body = FIRST_CARD_NUMBER + index;
+        long cardNumber = body * 10 + luhnCheckDigit(body);
+        String holder = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        LocalDate issueDate = referenceDate.minusDays(random.nextInt(3 * 365));
+        LocalDate expirationDate = issueDate.plusYears(4);
+        double withdrawalLimit = 1_000 * (1 + random.nextInt(5));
+        return new CardModel(cardNumber, holder, 100 + random.nextInt(900), expirationDate, issueDate,
+                random.nextDouble() < 0.8, random.nextDouble() >= inactiveCardShare, withdrawalLimit, withdrawalLimit * 2);
+    }
+
+    private List<TransactionModel> history(String id, boolean hot, CurrencyType currency, SplittableRandom random) {
+        if (averageHistoryLength <= 0) {
+            return List.of();
+        }
+        double average = hot ? averageHistoryLength * hotHistoryMultiplier : averageHistoryLength;
+        int length = (int) Math.min(Integer.MAX_VALUE - 8, Math.round(-average * Math.log(1 - random.nextDouble())));
+        long endSecond = referenceDate.atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+        long spanSeconds = historyDays * 86_400L;
+        long[] seconds = new long[length];
+        for (int i = 0; i < length; i++) {
+            seconds[i] = endSecond - 1 - random.nextLong(spanSeconds);
+        }
+        Arrays.sort(seconds);
+
+        TransactionModel[] transactions = new TransactionModel[length];
+        for (int i = 0; i < length; i++) {
+            String counterparty = counterparty(random);
+            MoneyModel amount = MoneyModel.ofMinorUnits(1 + Math.round(Math.exp(random.nextGaussian() * 1.2 + Math.log(5_000))), currency);
+            boolean outgoing = random.nextBoolean();
+            UUID transactionId = new UUID(random.nextLong() & ~0xF000L | 0x4000L, random.nextLong() & ~(3L << 62) | (1L << 63));
+            transactions[i] = new TransactionModel(transactionId, outgoing ? id : counterparty, outgoing ? counterparty : id, amount,
+                    Instant.ofEpochSecond(seconds[i]));
+        }
+        return Arrays.asList(transactions);
+    }
+
+    private String counterparty(SplittableRandom random) {
+        if (hotAccounts > 0 && random.nextDouble() < hotAccountShare) {
+            return checkingId(random.nextInt(hotAccounts));
+        }
+        return checkingId(random.nextInt(Math.max(1, checkingAccounts)));
+    }
+
+    private CurrencyType currency(SplittableRandom random, double totalWeight) {
+        double pick = random.nextDouble() * totalWeight;
+        for (CurrencyType currency : CURRENCIES) {
+            pick -= currencyWeights[currency.ordinal()];
+            if (pick < 0) {
+                return currency;
+            }
+        }
+        return CurrencyType.RON;
+    }
+
+    private long balance(SplittableRandom random) {
+        double amount = medianBalance * Math.exp(random.nextGaussian() * balanceSpread);
+        return Math.min(Math.round(amount * 100), 1_000_000_000_000L);
+    }
+
+    private SplittableRandom randomFor(int index) {
+        return new SplittableRandom(mix(seed * 0x9E3779B97F4A7C15L + index));
+    }
+
+    // SplitMix64 finalizer, so neighbouring indexes get unrelated streams
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int luhnCheckDigit(long body) {
+        int sum = 0;
+        boolean doubled = true;
+        for (long rest = body; rest > 0; rest /= 10) {
+            int digit = (int) (rest % 10);
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    private static String id(String prefix, int index) {
+        char[] id = new char[prefix.length() + ID_DIGITS];
+        prefix.getChars(0, prefix.length(), id, 0);
+        for (int i = id.length - 1, rest = index; i >= prefix.length(); i--, rest /= 10) {
+            id[i] = (char) ('0' + rest % 10);
+        }
+        return new String(id);
+    }
+}
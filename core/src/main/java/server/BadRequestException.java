@@ -0,0 +1,8 @@
+package server;
+
+// answered with 400 instead of the 500 other exceptions get
+class BadRequestException extends RuntimeException {
+    BadRequestException(String message) {
+        super(message);
+    }
+}
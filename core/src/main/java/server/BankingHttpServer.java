@@ -0,0 +1,286 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import domain.BalanceSnapshot;
+import domain.CurrencyType;
+import domain.MoneyModel;
+import domain.OperationResult;
+import domain.RejectionReason;
+import domain.TransactionModel;
+import domain.TransactionPage;
+import repository.AccountsRepository;
+import services.SavingsManagerService;
+import services.TransactionManagerService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// JSON front-end for the transaction and savings services on the JDK's HTTP server, one virtual thread per request.
+//
+//   POST /transfers            {"from": "...", "to": "...", "amount": "50.00", "currency": "RON"}
+//   POST /withdrawals          {"account": "...", "amount": "5", "currency": "EUR"}
+//   GET  /accounts/{id}/funds
+//   GET  /accounts/{id}/transactions[?from=2024-01-01&to=2024-01-31][&pageSize=50&continuation=...]
+//   POST /savings/pass-time    {"months": 1}
+//
+// Transfers and withdrawals take an optional Idempotency-Key header, a retry with the same key returns the original
+// transaction. Rejections answer 404 for unknown accounts and 422 otherwise, with {"error": REASON, "message": "..."}.
+public class BankingHttpServer implements AutoCloseable {
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 1_000;
+
+    static {
+        // headers and body go out as separate writes; with Nagle on, every response waits for a delayed ACK (~40ms)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final TransactionManagerService transactionManagerService;
+    private final SavingsManagerService savingsManagerService;
+
+    private BankingHttpServer(InetSocketAddress address, TransactionManagerService transactionManagerService,
+                              SavingsManagerService savingsManagerService) throws IOException {
+        this.transactionManagerService = transactionManagerService;
+        this.savingsManagerService = savingsManagerService;
+        this.server = HttpServer.create(address, 1024);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/transfers", exchange -> handle(exchange, "POST", this::transfer));
+        server.createContext("/withdrawals", exchange -> handle(exchange, "POST", this::withdraw));
+        server.createContext("/accounts/", exchange -> handle(exchange, "GET", this::account));
+        server.createContext("/savings/pass-time", exchange -> handle(exchange, "POST", this::passTime));
+    }
+
+    public static BankingHttpServer start(InetSocketAddress address, TransactionManagerService transactionManagerService,
+                                          SavingsManagerService savingsManagerService) throws IOException {
+        BankingHttpServer bankingServer = new BankingHttpServer(address, transactionManagerService, savingsManagerService);
+        bankingServer.server.start();
+        return bankingServer;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    private Response transfer(HttpExchange exchange) throws IOException {
+        Map<String, String> body = Json.parseObject(readBody(exchange));
+        OperationResult<TransactionModel> result = transactionManagerService.tryTransfer(
+                required(body, "from"), required(body, "to"), money(body), idempotencyKey(exchange));
+        return result.isApplied() ? transaction(result.getValue()) : rejection(result.getRejectionReason());
+    }
+
+    private Response withdraw(HttpExchange exchange) throws IOException {
+        Map<String, String> body = Json.parseObject(readBody(exchange));
+        OperationResult<TransactionModel> result = transactionManagerService.tryWithdraw(required(body, "account"), money(body),
+                idempotencyKey(exchange));
+        return result.isApplied() ? transaction(result.getValue()) : rejection(result.getRejectionReason());
+    }
+
+    private Response account(HttpExchange exchange) {
+        String[] path = exchange.getRequestURI().getPath().split("/"); // "", "accounts", id, resource
+        if (path.length != 4) {
+            return notFound();
+        }
+        String accountId = URLDecoder.decode(path[2], StandardCharsets.UTF_8);
+        if (!AccountsRepository.INSTANCE.exist(accountId)) {
+            return rejection(RejectionReason.UNKNOWN_ACCOUNT);
+        }
+
+        StringBuilder json = new StringBuilder();
+        switch (path[3]) {
+            case "funds" -> {
+                OperationResult<BalanceSnapshot> funds = transactionManagerService.tryReadBalance(accountId);
+                if (!funds.isApplied()) {
+                    return rejection(funds.getRejectionReason());
+                }
+                Json.appendBalance(json, funds.getValue());
+            }
+            case "transactions" -> {
+                Map<String, String> query = query(exchange);
+                int pageSize = boundedInt(query, "pageSize", DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+                long continuation = number(query, "continuation", TransactionPage.FIRST_PAGE);
+                TransactionPage page;
+                try {
+                    // a date range is paged like the whole history, so no request serializes more than MAX_PAGE_SIZE
+                    page = query.containsKey("from") || query.containsKey("to")
+                            ? transactionManagerService.retrieveTransactions(accountId, date(query, "from"), date(query, "to"),
+                                    continuation, pageSize)
+                            : transactionManagerService.retrieveTransactions(accountId, continuation, pageSize);
+                } catch (IllegalArgumentException | DateTimeException e) { // a token no page handed out, a day past LocalDate.MAX
+                    throw new BadRequestException(e.getMessage());
+                }
+                json.append("{\"transactions\":");
+                Json.appendTransactions(json, page.getTransactions());
+                json.append(",\"continuation\":").append(page.hasMore() ? page.getContinuationToken() : "null").append('}');
+            }
+            default -> {
+                return notFound();
+            }
+        }
+        return new Response(200, json.toString());
+    }
+
+    private Response passTime(HttpExchange exchange) throws IOException {
+        Map<String, String> body = Json.parseObject(readBody(exchange));
+        // passTime runs under the balance gate, so an unbounded months would hold up every transfer meanwhile
+        int months = boundedInt(body, "months", 1, SavingsManagerService.MAX_MONTHS_PER_CALL);
+        savingsManagerService.passTime(months);
+        StringBuilder json = new StringBuilder("{\"systemDate\":");
+        Json.appendString(json, savingsManagerService.getSystemDate().toString());
+        return new Response(200, json.append('}').toString());
+    }
+
+    private void handle(HttpExchange exchange, String method, Handler handler) throws IOException {
+        Response response;
+        try {
+            if (!method.equals(exchange.getRequestMethod())) {
+                response = error(405, "METHOD_NOT_ALLOWED", "Use " + method);
+            } else {
+                response = handler.handle(exchange);
+            }
+        } catch (BadRequestException e) {
+            response = error(400, "BAD_REQUEST", e.getMessage());
+        } catch (RuntimeException e) {
+            response = error(500, "INTERNAL_ERROR", e.getMessage());
+        }
+
+        byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(response.status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Response transaction(TransactionModel transaction) {
+        StringBuilder json = new StringBuilder();
+        Json.appendTransaction(json, transaction);
+        return new Response(200, json.toString());
+    }
+
+    private static Response rejection(RejectionReason reason) {
+        return error(reason == RejectionReason.UNKNOWN_ACCOUNT ? 404 : 422, reason.name(), reason.getMessage());
+    }
+
+    private static Response notFound() {
+        return error(404, "NOT_FOUND", "No such resource");
+    }
+
+    private static Response error(int status, String error, String message) {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        Json.appendString(json, error);
+        json.append(",\"message\":");
+        Json.appendString(json, message);
+        return new Response(status, json.append('}').toString());
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String idempotencyKey(HttpExchange exchange) {
+        return exchange.getRequestHeaders().getFirst("Idempotency-Key");
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> query = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null) {
+            return query;
+        }
+        for (String pair : raw.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                query.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    private static String required(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        if (value == null) {
+            throw new BadRequestException("Missing " + name);
+        }
+        return value;
+    }
+
+    // amounts are decimals in major units, rounded half-even to the minor unit like every decimal input
+    private static MoneyModel money(Map<String, String> fields) {
+        try {
+            long minorUnits = new BigDecimal(required(fields, "amount")).movePointRight(2)
+                    .setScale(0, RoundingMode.HALF_EVEN).longValueExact();
+            return MoneyModel.ofMinorUnits(minorUnits, CurrencyType.valueOf(required(fields, "currency")));
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            throw new BadRequestException("Invalid amount or currency");
+        }
+    }
+
+    private static long number(Map<String, String> fields, String name, long defaultValue) {
+        String value = fields.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid " + name);
+        }
+    }
+
+    private static int boundedInt(Map<String, String> fields, String name, int defaultValue, int max) {
+        long value = number(fields, name, defaultValue);
+        if (value < 1 || value > max) {
+            throw new BadRequestException(name + " must be between 1 and " + max);
+        }
+        return (int) value;
+    }
+
+    private static LocalDate date(Map<String, String> fields, String name) {
+        String value = required(fields, name);
+        try {
+            return LocalDate.parse(value);
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid " + name);
+        }
+    }
+
+    private interface Handler {
+        Response handle(HttpExchange exchange) throws IOException;
+    }
+
+    private static final class Response {
+        final int status;
+        final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+}
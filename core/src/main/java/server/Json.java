@@ -0,0 +1,192 @@
+package server;
+
+import domain.BalanceSnapshot;
+import domain.MoneyModel;
+import domain.TransactionModel;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Just enough JSON for the HTTP front-end: flat request objects in, a few fixed shapes out.
+final class Json {
+    private Json() {}
+
+    // parses {"key": value, ...} with string, number, boolean or null values, all returned as their text
+    static Map<String, String> parseObject(String text) {
+        Map<String, String> fields = new HashMap<>();
+        int[] position = {skipWhitespace(text, 0)};
+        expect(text, position, '{');
+        if (peek(text, position) == '}') {
+            position[0]++;
+            return fields;
+        }
+        while (true) {
+            String key = parseString(text, position);
+            expect(text, position, ':');
+            String value = peek(text, position) == '"' ? parseString(text, position) : parseLiteral(text, position);
+            fields.put(key, value);
+            char next = peek(text, position);
+            position[0]++;
+            if (next == '}') {
+                break;
+            }
+            if (next != ',') {
+                throw malformed(position[0] - 1);
+            }
+        }
+        if (skipWhitespace(text, position[0]) != text.length()) {
+            throw malformed(position[0]);
+        }
+        return fields;
+    }
+
+    static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+
+    static void appendMoney(StringBuilder json, MoneyModel money) {
+        json.append("{\"amount\":").append(money.getAmount()).append(",\"currency\":");
+        appendString(json, money.getCurrency().name());
+        json.append('}');
+    }
+
+    static void appendBalance(StringBuilder json, BalanceSnapshot balance) {
+        json.append("{\"amount\":").append(balance.getAmount()).append(",\"currency\":");
+        appendString(json, balance.getCurrency().name());
+        json.append(",\"version\":").append(balance.getVersion()).append('}');
+    }
+
+    static void appendTransaction(StringBuilder json, TransactionModel transaction) {
+        json.append("{\"id\":");
+        appendString(json, String.valueOf(transaction.getId()));
+        json.append(",\"from\":");
+        appendString(json, transaction.getFrom());
+        json.append(",\"to\":");
+        appendString(json, transaction.getTo());
+        json.append(",\"amount\":");
+        appendMoney(json, transaction.getAmount());
+        json.append(",\"date\":");
+        appendString(json, String.valueOf(transaction.getTimestamp()));
+        json.append(",\"createdAt\":");
+        appendString(json, transaction.getCreatedAt() == null ? null : transaction.getCreatedAt().toString());
+        json.append('}');
+    }
+
+    static void appendTransactions(StringBuilder json, List<TransactionModel> transactions) {
+        json.append('[');
+        for (int i = 0; i < transactions.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendTransaction(json, transactions.get(i));
+        }
+        json.append(']');
+    }
+
+    private static String parseString(String text, int[] position) {
+        expect(text, position, '"');
+        StringBuilder value = new StringBuilder();
+        for (int i = position[0]; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                position[0] = i + 1;
+                return value.toString();
+            }
+            if (c == '\\') {
+                if (++i >= text.length()) {
+                    break;
+                }
+                char escaped = text.charAt(i);
+                switch (escaped) {
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'u' -> {
+                        if (i + 4 >= text.length()) {
+                            throw malformed(i);
+                        }
+                        int code = 0;
+                        for (int digit = i + 1; digit <= i + 4; digit++) {
+                            int hex = Character.digit(text.charAt(digit), 16);
+                            if (hex < 0) {
+                                throw malformed(digit);
+                            }
+                            code = code << 4 | hex;
+                        }
+                        value.append((char) code);
+                        i += 4;
+                    }
+                    default -> value.append(escaped);
+                }
+            } else {
+                value.append(c);
+            }
+        }
+        throw malformed(text.length());
+    }
+
+    private static String parseLiteral(String text, int[] position) {
+        int start = position[0];
+        int end = start;
+        while (end < text.length() && ",}".indexOf(text.charAt(end)) < 0 && !Character.isWhitespace(text.charAt(end))) {
+            end++;
+        }
+        if (end == start) {
+            throw malformed(start);
+        }
+        position[0] = end;
+        String literal = text.substring(start, end);
+        return literal.equals("null") ? null : literal;
+    }
+
+    private static void expect(String text, int[] position, char expected) {
+        if (peek(text, position) != expected) {
+            throw malformed(position[0]);
+        }
+        position[0]++;
+    }
+
+    private static char peek(String text, int[] position) {
+        position[0] = skipWhitespace(text, position[0]);
+        if (position[0] >= text.length()) {
+            throw malformed(position[0]);
+        }
+        return text.charAt(position[0]);
+    }
+
+    private static int skipWhitespace(String text, int position) {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static RuntimeException malformed(int position) {
+        return new BadRequestException("Malformed JSON at offset " + position);
+    }
+}
@@ -0,0 +1,112 @@
+package server;
+
+import domain.CheckingAccountModel;
+import domain.CurrencyType;
+import domain.MoneyModel;
+import repository.AccountsRepository;
+import services.LockingMode;
+import services.SavingsManagerService;
+import services.TransactionManagerService;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Drives small transfers against a loopback BankingHttpServer and reports throughput and latency percentiles.
+//
+//   java server.LoadTestClient [connections] [seconds]
+//
+// Seeds its own accounts and starts its own server on an ephemeral port.
+public class LoadTestClient {
+    private static final int ACCOUNTS = 1_000;
+    private static final int WARM_UP_SECONDS = 3;
+
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        for (int i = 0; i < ACCOUNTS; i++) {
+            String id = "LOAD_" + i;
+            AccountsRepository.INSTANCE.add(id, new CheckingAccountModel(id, new MoneyModel(1_000_000, CurrencyType.RON), new ArrayList<>(), null));
+        }
+        try (BankingHttpServer server = BankingHttpServer.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                new TransactionManagerService(LockingMode.PER_ACCOUNT), new SavingsManagerService())) {
+            URI transfers = URI.create("http://127.0.0.1:" + server.getPort() + "/transfers");
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+
+            System.out.printf("[LoadTest] warming up for %ds%n", WARM_UP_SECONDS);
+            run(client, transfers, connections, WARM_UP_SECONDS);
+            System.out.printf("[LoadTest] connections=%d duration=%ds%n", connections, seconds);
+            long started = System.nanoTime();
+            long[] latencies = run(client, transfers, connections, seconds);
+            double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+            if (latencies.length == 0) {
+                System.out.println("[LoadTest] no request completed");
+                return;
+            }
+            Arrays.sort(latencies);
+            System.out.printf("[LoadTest] requests=%,d throughput=%,.0f req/s p50=%.0fus p99=%.0fus p999=%.0fus max=%.0fus%n",
+                    latencies.length, latencies.length / elapsedSeconds,
+                    percentile(latencies, 0.50) / 1e3, percentile(latencies, 0.99) / 1e3,
+                    percentile(latencies, 0.999) / 1e3, latencies[latencies.length - 1] / 1e3);
+        }
+    }
+
+    private static long[] run(HttpClient client, URI transfers, int connections, int seconds) throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Future<long[]>> workers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < connections; i++) {
+                workers.add(executor.submit(() -> worker(client, transfers, deadline)));
+            }
+        }
+        long[][] perWorker = new long[workers.size()][];
+        for (int i = 0; i < perWorker.length; i++) {
+            perWorker[i] = workers.get(i).get();
+        }
+        return Arrays.stream(perWorker).flatMapToLong(Arrays::stream).toArray();
+    }
+
+    private static long[] worker(HttpClient client, URI transfers, long deadline) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long[] latencies = new long[1024];
+        int count = 0;
+        while (System.nanoTime() < deadline) {
+            int from = random.nextInt(ACCOUNTS);
+            int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+            HttpRequest request = HttpRequest.newBuilder(transfers)
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"from\":\"LOAD_" + from + "\",\"to\":\"LOAD_" + to + "\",\"amount\":\"0.01\",\"currency\":\"RON\"}"))
+                    .build();
+            long before = System.nanoTime();
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            long latency = System.nanoTime() - before;
+            if (response.statusCode() != 200) {
+                throw new RuntimeException("Transfer failed with status " + response.statusCode());
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * percentile))];
+    }
+}
@@ -0,0 +1,104 @@
+package services;
+
+import metrics.BankingMetrics;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+public class AccountLocks {
+    private static final int DEFAULT_STRIPES = 1024;
+
+    private final ReentrantLock[] stripes;
+
+    public AccountLocks(int stripeCount) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("At least one lock stripe is required");
+        }
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public static AccountLocks forMode(LockingMode lockingMode) {
+        return lockingMode == LockingMode.GLOBAL ? new AccountLocks(1) : new AccountLocks(DEFAULT_STRIPES);
+    }
+
+    // by registry handle: handles are dense, so consecutive accounts land on consecutive stripes without any hashing
+    public int stripeOf(int handle) {
+        return stripes.length == 1 ? 0 : handle % stripes.length;
+    }
+
+    public void lock(int handle) {
+        acquire(stripes[stripeOf(handle)]);
+    }
+
+    public void unlock(int handle) {
+        stripes[stripeOf(handle)].unlock();
+    }
+
+    // stripes are always taken in ascending index order, so two movements over the same accounts cannot deadlock
+    public void lock(int firstHandle, int secondHandle) {
+        int first = stripeOf(firstHandle);
+        int second = stripeOf(secondHandle);
+        acquire(stripes[Math.min(first, second)]);
+        if (first != second) {
+            acquire(stripes[Math.max(first, second)]);
+        }
+    }
+
+    public void unlock(int firstHandle, int secondHandle) {
+        int first = stripeOf(firstHandle);
+        int second = stripeOf(secondHandle);
+        if (first != second) {
+            stripes[Math.max(first, second)].unlock();
+        }
+        stripes[Math.min(first, second)].unlock();
+    }
+
+    // stripes must be sorted ascending and distinct, see stripesOf
+    public void lockAll(int[] sortedStripes) {
+        for (int stripe : sortedStripes) {
+            acquire(stripes[stripe]);
+        }
+    }
+
+    public void unlockAll(int[] sortedStripes) {
+        for (int i = sortedStripes.length - 1; i >= 0; i--) {
+            stripes[sortedStripes[i]].unlock();
+        }
+    }
+
+    // only an acquisition that finds the stripe held is timed, the uncontended path costs one tryLock
+    private static void acquire(ReentrantLock stripe) {
+        if (!stripe.tryLock()) {
+            long started = System.nanoTime();
+            stripe.lock();
+            BankingMetrics.INSTANCE.recordLockWait(System.nanoTime() - started);
+        }
+    }
+
+    public int[] stripesOf(int[] handles) {
+        long[] stripeBits = new long[(stripes.length + 63) >>> 6];
+        int distinct = 0;
+        for (int handle : handles) {
+            int stripe = stripeOf(handle);
+            long bit = 1L << stripe;
+            if ((stripeBits[stripe >>> 6] & bit) == 0) {
+                stripeBits[stripe >>> 6] |= bit;
+                distinct++;
+            }
+        }
+
+        // walking the bitmap yields the stripes already in ascending order
+        int[] sortedStripes = new int[distinct];
+        int next = 0;
+        for (int word = 0; word < stripeBits.length; word++) {
+            long bits = stripeBits[word];
+            while (bits != 0) {
+                sortedStripes[next++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return sortedStripes;
+    }
+}
@@ -0,0 +1,44 @@
+package services;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+// Repository-wide gate between the writers of balances and readers that need one consistent cut of all of them, such
+// as a snapshot. Every path that changes a balance and journals it holds the gate shared: each
+// TransactionManagerService, SavingsManagerService.passTime, the LedgerSequencer applier and journal recovery.
+// runExclusive waits for them to leave and keeps new ones out, so the balances it sees match the journal position.
+// Shared holders are spread over stripes by thread, so concurrent writers do not all update one lock word.
+public final class BalanceGate {
+    public static final BalanceGate INSTANCE = new BalanceGate(64);
+
+    private final ReentrantReadWriteLock[] stripes;
+
+    private BalanceGate(int stripeCount) {
+        stripes = new ReentrantReadWriteLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    // take before any account lock; returns the lock to release once the change and its journal record are done
+    public Lock enter() {
+        Lock lock = stripes[(int) (Thread.currentThread().threadId() % stripes.length)].readLock();
+        lock.lock();
+        return lock;
+    }
+
+    public <T> T runExclusive(Supplier<T> action) {
+        int locked = 0;
+        try {
+            for (; locked < stripes.length; locked++) {
+                stripes[locked].writeLock().lock();
+            }
+            return action.get();
+        } finally {
+            while (locked > 0) {
+                stripes[--locked].writeLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package services;
+
+import domain.CapitalizationFrequency;
+import domain.SavingsAccountModel;
+
+import java.time.LocalDate;
+
+public class CapitalizationCalendar {
+    public static final long NEVER = Long.MAX_VALUE;
+    public static final long NO_MONTH = Long.MIN_VALUE;
+
+    private CapitalizationCalendar() {}
+
+    public static long monthIndex(LocalDate date) {
+        return date.getYear() * 12L + date.getMonthValue() - 1;
+    }
+
+    // First month after currentMonth in which passTime capitalizes the account, following the month-by-month rules:
+    // every account is due the month right after its last capitalization, a quarterly account whose last
+    // capitalization is further behind is also due in the quarter three months after it. Once an account has been
+    // capitalized it is due again every following month.
+    public static long firstDueMonth(SavingsAccountModel account, long currentMonth) {
+        LocalDate lastInterestAppliedDate = account.getLastInterestAppliedDate();
+        long lastMonth = lastInterestAppliedDate == null ? NO_MONTH : monthIndex(lastInterestAppliedDate);
+        return firstDueMonth(lastMonth, account.getInterestFrequency() == CapitalizationFrequency.QUARTERLY, currentMonth);
+    }
+
+    public static long firstDueMonth(long lastMonth, boolean quarterly, long currentMonth) {
+        if (lastMonth == NO_MONTH) {
+            return NEVER;
+        }
+        if (lastMonth >= currentMonth) {
+            return lastMonth + 1;
+        }
+        if (!quarterly) {
+            return NEVER;
+        }
+        long quarterStart = Math.floorDiv(lastMonth + 3, 3) * 3;
+        long firstMonth = Math.max(currentMonth + 1, quarterStart);
+        return firstMonth <= quarterStart + 2 ? firstMonth : NEVER;
+    }
+}
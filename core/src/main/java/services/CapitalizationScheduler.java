@@ -0,0 +1,126 @@
+package services;
+
+import domain.SavingsAccountModel;
+import repository.AccountsRepository;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Timing wheel of monthly buckets: each savings account is filed under the month it is next due in, so advancing
+// the calendar only visits the accounts that are due. Accounts due beyond the wheel wait in an ordered overflow map.
+// Not thread-safe, SavingsManagerService drives it under its own lock.
+public class CapitalizationScheduler {
+    private static final int WHEEL_MONTHS = 64;
+
+    private final List<List<SavingsAccountModel>> wheel = new ArrayList<>(WHEEL_MONTHS);
+    private final TreeMap<Long, List<SavingsAccountModel>> overflow = new TreeMap<>();
+    private long currentMonth;
+    private int scheduled;
+
+    public CapitalizationScheduler(long currentMonth) {
+        this.currentMonth = currentMonth;
+        for (int i = 0; i < WHEEL_MONTHS; i++) {
+            wheel.add(new ArrayList<>());
+        }
+    }
+
+    public long getCurrentMonth() {
+        return currentMonth;
+    }
+
+    public int getScheduled() {
+        return scheduled;
+    }
+
+    public void schedule(SavingsAccountModel account) {
+        file(account, CapitalizationCalendar.firstDueMonth(account, currentMonth));
+    }
+
+    // moves the calendar to targetMonth and hands back every account due in between, with the month it fell due in
+    public List<DueAccount> advance(long targetMonth) {
+        List<DueAccount> due = new ArrayList<>();
+        List<SavingsAccountModel> moved = new ArrayList<>();
+        long startMonth = currentMonth;
+        long lastWheelMonth = Math.min(targetMonth, startMonth + WHEEL_MONTHS - 1);
+        for (long month = startMonth + 1; month <= lastWheelMonth; month++) {
+            int slot = slotOf(month);
+            List<SavingsAccountModel> bucket = wheel.get(slot);
+            if (!bucket.isEmpty()) {
+                wheel.set(slot, new ArrayList<>());
+                collect(bucket, startMonth, targetMonth, due, moved);
+            }
+        }
+
+        Iterator<Map.Entry<Long, List<SavingsAccountModel>>> overdue = overflow.headMap(targetMonth, true).entrySet().iterator();
+        while (overdue.hasNext()) {
+            Map.Entry<Long, List<SavingsAccountModel>> entry = overdue.next();
+            collect(entry.getValue(), startMonth, targetMonth, due, moved);
+            overdue.remove();
+        }
+
+        currentMonth = targetMonth;
+        Iterator<Map.Entry<Long, List<SavingsAccountModel>>> nowInRange = overflow.headMap(currentMonth + WHEEL_MONTHS).entrySet().iterator();
+        while (nowInRange.hasNext()) {
+            Map.Entry<Long, List<SavingsAccountModel>> entry = nowInRange.next();
+            wheel.get(slotOf(entry.getKey())).addAll(entry.getValue());
+            nowInRange.remove();
+        }
+        moved.forEach(this::schedule);
+        return due;
+    }
+
+    private void collect(List<SavingsAccountModel> bucket, long startMonth, long targetMonth,
+                         List<DueAccount> due, List<SavingsAccountModel> moved) {
+        for (SavingsAccountModel account : bucket) {
+            scheduled--;
+            // an account no longer in the repository, removed or replaced by another object, drops out; SavingsManagerService
+            // rebuilds the scheduler when a savings account is added or removed, which files the replacement
+            if (AccountsRepository.INSTANCE.get(account.getId()) != account) {
+                continue;
+            }
+            long dueMonth = CapitalizationCalendar.firstDueMonth(account, startMonth);
+            if (dueMonth <= targetMonth) {
+                due.add(new DueAccount(account, dueMonth));
+            } else {
+                moved.add(account);
+            }
+        }
+    }
+
+    private void file(SavingsAccountModel account, long dueMonth) {
+        if (dueMonth == CapitalizationCalendar.NEVER) {
+            return;
+        }
+        if (dueMonth < currentMonth + WHEEL_MONTHS) {
+            wheel.get(slotOf(dueMonth)).add(account);
+        } else {
+            overflow.computeIfAbsent(dueMonth, month -> new ArrayList<>()).add(account);
+        }
+        scheduled++;
+    }
+
+    private static int slotOf(long month) {
+        return (int) Math.floorMod(month, WHEEL_MONTHS);
+    }
+
+    public static final class DueAccount {
+        private final SavingsAccountModel account;
+        private final long dueMonth;
+
+        DueAccount(SavingsAccountModel account, long dueMonth) {
+            this.account = account;
+            this.dueMonth = dueMonth;
+        }
+
+        public SavingsAccountModel getAccount() {
+            return account;
+        }
+
+        public long getDueMonth() {
+            return dueMonth;
+        }
+    }
+}
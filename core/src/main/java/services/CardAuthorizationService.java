@@ -0,0 +1,166 @@
+package services;
+
+import domain.AccountModel;
+import domain.AccountType;
+import domain.AuthorizationType;
+import domain.CardAuthorization;
+import domain.CardModel;
+import domain.CheckingAccountModel;
+import domain.MoneyModel;
+import domain.OperationResult;
+import domain.RejectionReason;
+import repository.AccountsRepository;
+import utils.MoneyUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Authorizes card withdrawals and purchases against the card's status and daily limits. Authorizations check the
+// account balance but do not move money. Daily spend is kept per card in an AtomicLong that packs the day it belongs
+// to with the amount spent, so a new day starts from zero on the first authorization instead of a sweep over all cards.
+// Declines are counted in BankingMetrics with the other services' rejections.
+public class CardAuthorizationService {
+    private static final int DAY_SHIFT = 40;
+    private static final long SPENT_MASK = (1L << DAY_SHIFT) - 1;
+
+    private final Clock clock;
+    private volatile CardIndex index; // written under this, see CardIndex
+    private volatile Day today;
+
+    public CardAuthorizationService() {
+        this(Clock.systemDefaultZone());
+    }
+
+    // indexes the cards of every checking account in the repository
+    public CardAuthorizationService(Clock clock) {
+        this.clock = clock;
+        this.today = Day.of(clock.millis(), clock.getZone());
+        Collection<AccountModel> accounts = AccountsRepository.INSTANCE.getAllBy(AccountType.CHECKING);
+        this.index = new CardIndex(accounts.size());
+        for (AccountModel account : accounts) {
+            register((CheckingAccountModel) account);
+        }
+    }
+
+    // registers a new card or picks up changed limits and expiry; the day's spend carries over. Amortized O(1): the
+    // card goes into the live index, which is only copied when it doubles.
+    public synchronized void register(CheckingAccountModel account) {
+        CardModel card = account.getAssociatedCard();
+        if (card == null || card.getCardNumber() == null || card.getCardNumber() == 0) {
+            return;
+        }
+        CardIndex current = index;
+        CardState registered = new CardState(card, account, current.get(card.getCardNumber()));
+        if (!current.put(registered)) {
+            CardIndex grown = current.grown();
+            grown.put(registered);
+            index = grown;
+        }
+    }
+
+    public OperationResult<CardAuthorization> authorize(long cardNumber, MoneyModel amount, AuthorizationType type) {
+        long amountMinorUnits = amount.getMinorUnits();
+        if (amountMinorUnits < 0) {
+            return TransactionManagerService.rejected(RejectionReason.NEGATIVE_AMOUNT);
+        }
+        CardState card = index.get(cardNumber);
+        if (card == null) {
+            return TransactionManagerService.rejected(RejectionReason.UNKNOWN_CARD);
+        }
+        if (!card.card.isActive()) {
+            return TransactionManagerService.rejected(RejectionReason.CARD_INACTIVE);
+        }
+        long day = currentDay();
+        if (day > card.expirationDay) {
+            return TransactionManagerService.rejected(RejectionReason.CARD_EXPIRED);
+        }
+        MoneyModel balance = card.account.getBalance();
+        if (amount.getCurrency() != balance.getCurrency()) {
+            return TransactionManagerService.rejected(RejectionReason.UNSUPPORTED_CURRENCY);
+        }
+        if (balance.getMinorUnits() < amountMinorUnits) {
+            return TransactionManagerService.rejected(RejectionReason.INSUFFICIENT_FUNDS);
+        }
+
+        AtomicLong counter = type == AuthorizationType.WITHDRAWAL ? card.withdrawnToday : card.spentToday;
+        long limit = type == AuthorizationType.WITHDRAWAL ? card.withdrawalLimit : card.transactionLimit;
+        long spent;
+        while (true) {
+            long current = counter.get();
+            long spentBefore = current >>> DAY_SHIFT == day ? current & SPENT_MASK : 0;
+            spent = spentBefore + amountMinorUnits;
+            if (spent > limit) {
+                return TransactionManagerService.rejected(RejectionReason.DAILY_LIMIT_EXCEEDED);
+            }
+            if (counter.compareAndSet(current, day << DAY_SHIFT | spent)) {
+                break;
+            }
+        }
+        return OperationResult.applied(new CardAuthorization(cardNumber, card.account.getId(), type, amount, limit - spent));
+    }
+
+    public long getSpentToday(long cardNumber, AuthorizationType type) {
+        CardState card = index.get(cardNumber);
+        if (card == null) {
+            throw new RuntimeException(RejectionReason.UNKNOWN_CARD.getMessage());
+        }
+        long current = (type == AuthorizationType.WITHDRAWAL ? card.withdrawnToday : card.spentToday).get();
+        return current >>> DAY_SHIFT == currentDay() ? current & SPENT_MASK : 0;
+    }
+
+    // the epoch day in the clock's zone, recomputed only when the clock leaves the cached day
+    private long currentDay() {
+        long now = clock.millis();
+        Day day = today;
+        if (now < day.startMillis || now >= day.endMillis) {
+            day = Day.of(now, clock.getZone());
+            today = day;
+        }
+        return day.epochDay;
+    }
+
+    private static final class Day {
+        final long epochDay;
+        final long startMillis;
+        final long endMillis;
+
+        private Day(long epochDay, long startMillis, long endMillis) {
+            this.epochDay = epochDay;
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+        }
+
+        static Day of(long millis, ZoneId zone) {
+            LocalDate date = Instant.ofEpochMilli(millis).atZone(zone).toLocalDate();
+            return new Day(date.toEpochDay(),
+                    date.atStartOfDay(zone).toInstant().toEpochMilli(),
+                    date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+        }
+    }
+
+    static final class CardState {
+        final long cardNumber;
+        final CardModel card;
+        final CheckingAccountModel account;
+        final long withdrawalLimit;
+        final long transactionLimit;
+        final long expirationDay;
+        final AtomicLong withdrawnToday;
+        final AtomicLong spentToday;
+
+        CardState(CardModel card, CheckingAccountModel account, CardState previous) {
+            this.cardNumber = card.getCardNumber();
+            this.card = card;
+            this.account = account;
+            this.withdrawalLimit = Math.min(MoneyUtils.toMinorUnits(card.getDailyWithdrawalLimit()), SPENT_MASK);
+            this.transactionLimit = Math.min(MoneyUtils.toMinorUnits(card.getDailyTransactionLimit()), SPENT_MASK);
+            this.expirationDay = card.getExpirationDate() == null ? Long.MAX_VALUE : card.getExpirationDate().toEpochDay();
+            this.withdrawnToday = previous == null ? new AtomicLong() : previous.withdrawnToday;
+            this.spentToday = previous == null ? new AtomicLong() : previous.spentToday;
+        }
+    }
+}
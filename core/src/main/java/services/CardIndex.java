@@ -0,0 +1,75 @@
+package services;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// Open-addressing table from card number to card state with linear probing, keyed by primitive longs so a lookup
+// neither boxes nor allocates. One writer at a time (CardAuthorizationService holds its lock) inserts or replaces in
+// place while readers keep going without locks: a slot's state is published before its key, and keys are never
+// removed, so a reader either misses a card still being added or finds it fully built. A table past half full is not
+// written to any more; the writer copies it into one twice the size and publishes that instead.
+final class CardIndex {
+    private static final long EMPTY = 0; // not a valid card number
+    private static final VarHandle KEY = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle STATE = MethodHandles.arrayElementVarHandle(CardAuthorizationService.CardState[].class);
+
+    private final long[] keys;
+    private final CardAuthorizationService.CardState[] states;
+    private final int mask;
+    private int size; // guarded by the writer's lock
+
+    CardIndex(int expectedCards) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedCards * 2 - 1)) << 1;
+        keys = new long[capacity];
+        states = new CardAuthorizationService.CardState[capacity];
+        mask = capacity - 1;
+    }
+
+    CardAuthorizationService.CardState get(long cardNumber) {
+        if (cardNumber == EMPTY) {
+            return null;
+        }
+        for (int slot = slotOf(cardNumber); ; slot = (slot + 1) & mask) {
+            long key = (long) KEY.getAcquire(keys, slot);
+            if (key == cardNumber) {
+                return (CardAuthorizationService.CardState) STATE.getAcquire(states, slot);
+            }
+            if (key == EMPTY) {
+                return null;
+            }
+        }
+    }
+
+    // Adds the card or replaces the state under its number. Returns false, changing nothing, when a new card would
+    // take the table past half full; the caller then puts it into grown() and publishes that.
+    boolean put(CardAuthorizationService.CardState card) {
+        int slot = slotOf(card.cardNumber);
+        while (keys[slot] != EMPTY && keys[slot] != card.cardNumber) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == EMPTY) {
+            if ((size + 1) * 2 > keys.length) {
+                return false;
+            }
+            size++;
+        }
+        STATE.setRelease(states, slot, card);
+        KEY.setRelease(keys, slot, card.cardNumber);
+        return true;
+    }
+
+    CardIndex grown() {
+        CardIndex grown = new CardIndex(keys.length);
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                grown.put(states[slot]);
+            }
+        }
+        return grown;
+    }
+
+    private int slotOf(long cardNumber) {
+        long hash = cardNumber * 0x9E3779B97F4A7C15L; // card numbers share long prefixes, spread them over the table
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,179 @@
+package services;
+
+import domain.CurrencyType;
+import domain.OperationResult;
+import domain.RejectionReason;
+import domain.TransactionModel;
+import metrics.BankingMetrics;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+// Remembers the outcome of keyed money movements so a retried request gets the original transaction instead of moving
+// the money again. Keys are spread over independently locked segments, each a LinkedHashMap in expiry order: with one
+// TTL for every key, counted from when the request completed, eviction only ever looks at the head. Memory stays under
+// capacity entries of roughly 150 bytes plus the key and account ids, apart from requests still running, which neither
+// expire nor are evicted. A completed key evicted early by the capacity bound is treated as new; such evictions are
+// counted in BankingMetrics.
+public class IdempotencyCache {
+    private static final int SEGMENTS = 64;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final int segmentCapacity;
+    private final long ttlMillis;
+    private final Clock clock;
+
+    public IdempotencyCache(int capacity, Duration ttl) {
+        this(capacity, ttl, Clock.systemUTC());
+    }
+
+    public IdempotencyCache(int capacity, Duration ttl, Clock clock) {
+        if (capacity < 1 || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Capacity and TTL must be positive");
+        }
+        this.segmentCapacity = Math.max(1, (capacity + SEGMENTS - 1) / SEGMENTS);
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    // Runs the operation once per key. A repeat gets the first applied result, a concurrent repeat waits for the first
+    // call to finish, and a repeat describing a different request is rejected. Rejected and failed calls are
+    // forgotten, since they moved no money and may be retried. Either account id may be null, e.g. for a deposit.
+    public OperationResult<TransactionModel> execute(String key, String fromAccountId, String toAccountId, long minorUnits, CurrencyType currency,
+                                              Supplier<OperationResult<TransactionModel>> operation) {
+        Segment segment = segmentOf(key);
+        Entry entry;
+        boolean owner = false;
+        long now = clock.millis();
+        synchronized (segment) {
+            segment.evictExpired(now);
+            entry = segment.entries.get(key);
+            if (entry == null) {
+                entry = new Entry(fromAccountId, toAccountId, minorUnits, currency, now + ttlMillis);
+                segment.entries.put(key, entry);
+                segment.evictOverCapacity(segmentCapacity);
+                owner = true;
+            }
+        }
+
+        if (!owner) {
+            if (!entry.describes(fromAccountId, toAccountId, minorUnits, currency)) {
+                return TransactionManagerService.rejected(RejectionReason.IDEMPOTENCY_KEY_REUSED);
+            }
+            try {
+                return entry.result.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        OperationResult<TransactionModel> result;
+        try {
+            result = operation.get();
+        } catch (RuntimeException e) {
+            forget(segment, key, entry);
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+        if (result.isApplied()) {
+            restamp(segment, key, entry);
+        } else {
+            forget(segment, key, entry);
+        }
+        entry.result.complete(result);
+        return result;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.entries.size();
+            }
+        }
+        return size;
+    }
+
+    private void forget(Segment segment, String key, Entry entry) {
+        synchronized (segment) {
+            segment.entries.remove(key, entry);
+        }
+    }
+
+    // the TTL counts from completion, so a retry arriving right after a slow request still finds it; moving the entry
+    // to the tail keeps the segment in expiry order
+    private void restamp(Segment segment, String key, Entry entry) {
+        synchronized (segment) {
+            if (segment.entries.remove(key, entry)) {
+                entry.expiresAt = clock.millis() + ttlMillis;
+                segment.entries.put(key, entry);
+            }
+        }
+    }
+
+    private Segment segmentOf(String key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private static final class Segment {
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+        // a request running past its TTL stays, like in evictOverCapacity, so its retries keep waiting for it
+        private void evictExpired(long now) {
+            Iterator<Entry> oldest = entries.values().iterator();
+            while (oldest.hasNext()) {
+                Entry entry = oldest.next();
+                if (entry.expiresAt > now) {
+                    break;
+                }
+                if (entry.result.isDone()) {
+                    oldest.remove();
+                }
+            }
+        }
+
+        // oldest completed entries first; a running request stays, so its concurrent retries still find it
+        private void evictOverCapacity(int capacity) {
+            Iterator<Entry> oldest = entries.values().iterator();
+            for (int excess = entries.size() - capacity; excess > 0 && oldest.hasNext(); ) {
+                if (oldest.next().result.isDone()) {
+                    oldest.remove();
+                    BankingMetrics.INSTANCE.countIdempotencyEviction();
+                    excess--;
+                }
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final String fromAccountId;
+        private final String toAccountId;
+        private final long minorUnits;
+        private final CurrencyType currency;
+        private long expiresAt; // guarded by the segment
+        private final CompletableFuture<OperationResult<TransactionModel>> result = new CompletableFuture<>();
+
+        private Entry(String fromAccountId, String toAccountId, long minorUnits, CurrencyType currency, long expiresAt) {
+            this.fromAccountId = fromAccountId;
+            this.toAccountId = toAccountId;
+            this.minorUnits = minorUnits;
+            this.currency = currency;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean describes(String fromAccountId, String toAccountId, long minorUnits, CurrencyType currency) {
+            return this.minorUnits == minorUnits && this.currency == currency
+                    && Objects.equals(this.fromAccountId, fromAccountId) && Objects.equals(this.toAccountId, toAccountId);
+        }
+    }
+}
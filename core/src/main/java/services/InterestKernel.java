@@ -0,0 +1,14 @@
+package services;
+
+// Capitalizes the accounts of a SavingsBook in [from, to) that are due by targetMonth: adds the interest to the
+// balance, records it in interest and moves lastAppliedMonths and dueMonths on as passTime would.
+interface InterestKernel {
+    void capitalize(SavingsBook book, int from, int to, long targetMonth);
+
+    static InterestKernel best() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            return new VectorInterestKernel();
+        }
+        return new ScalarInterestKernel();
+    }
+}
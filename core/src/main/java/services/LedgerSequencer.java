@@ -0,0 +1,263 @@
+package services;
+
+import domain.AccountModel;
+import domain.MoneyModel;
+import domain.OperationResult;
+import domain.RejectionReason;
+import domain.TransactionModel;
+import repository.AccountHandleRegistry;
+import repository.AccountsRepository;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+
+// Alternative to the locking entry points of TransactionManagerService: producers publish commands into a
+// pre-allocated ring buffer and a single applier thread runs them one after another, in batches and without locks.
+// The sequence a command is published under is its place in one total order, which is also the journal order.
+//
+// While a sequencer is running it must be the only writer of balances: do not mix it with the service's
+// transfer/withdraw methods. Completions run on the applier thread once the batch is durable, so keep them short.
+public class LedgerSequencer implements AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private static final int SPINS_BEFORE_PARK = 1_000;
+    private static final long PARK_NANOS = 50_000;
+    private static final AccountHandleRegistry HANDLES = AccountsRepository.INSTANCE.getHandles();
+
+    private final TransactionManagerService service;
+    private final Slot[] ring;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();  // next sequence a producer will take
+    private final AtomicLong consumed = new AtomicLong(); // every sequence below has been applied and completed
+    private final Thread applier;
+    private volatile boolean running = true;
+    private volatile boolean applierParked;
+
+    public LedgerSequencer(TransactionManagerService service) {
+        this(service, DEFAULT_CAPACITY);
+    }
+
+    public LedgerSequencer(TransactionManagerService service, int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new RuntimeException("Ring capacity must be a power of two");
+        }
+        this.service = service;
+        this.ring = new Slot[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new Slot(i - capacity);
+        }
+        this.applier = new Thread(this::applyLoop, "ledger-sequencer");
+        applier.setDaemon(true);
+        applier.start();
+    }
+
+    public CompletableFuture<OperationResult<TransactionModel>> submitTransfer(String fromAccountId, String toAccountId, MoneyModel value) {
+        CompletableFuture<OperationResult<TransactionModel>> future = new CompletableFuture<>();
+        publish(CommandType.TRANSFER, fromAccountId, toAccountId, value, completing(future));
+        return future;
+    }
+
+    public void submitTransfer(String fromAccountId, String toAccountId, MoneyModel value,
+                               BiConsumer<OperationResult<TransactionModel>, Throwable> callback) {
+        publish(CommandType.TRANSFER, fromAccountId, toAccountId, value, callback);
+    }
+
+    public CompletableFuture<OperationResult<TransactionModel>> submitWithdrawal(String accountId, MoneyModel amount) {
+        CompletableFuture<OperationResult<TransactionModel>> future = new CompletableFuture<>();
+        publish(CommandType.WITHDRAWAL, accountId, null, amount, completing(future));
+        return future;
+    }
+
+    public void submitWithdrawal(String accountId, MoneyModel amount, BiConsumer<OperationResult<TransactionModel>, Throwable> callback) {
+        publish(CommandType.WITHDRAWAL, accountId, null, amount, callback);
+    }
+
+    // number of commands applied so far, i.e. the sequence the next command will be applied at
+    public long getAppliedSequence() {
+        return consumed.get();
+    }
+
+    // stops taking commands, applies everything already published and stops the applier
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(applier);
+        try {
+            applier.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static BiConsumer<OperationResult<TransactionModel>, Throwable> completing(
+            CompletableFuture<OperationResult<TransactionModel>> future) {
+        return (result, failure) -> {
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(result);
+            }
+        };
+    }
+
+    private void publish(CommandType type, String firstAccountId, String secondAccountId, MoneyModel amount,
+                         BiConsumer<OperationResult<TransactionModel>, Throwable> completion) {
+        if (!running) {
+            throw new RuntimeException("Sequencer is closed");
+        }
+        long sequence = claimed.getAndIncrement();
+        Slot slot = ring[(int) (sequence & mask)];
+        // wait for the applier to free the slot a full lap ago
+        for (int spins = 0; sequence - consumed.get() >= ring.length; spins++) {
+            if (spins < SPINS_BEFORE_PARK) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+        slot.type = type;
+        slot.firstAccountId = firstAccountId;
+        slot.secondAccountId = secondAccountId;
+        slot.amount = amount;
+        slot.completion = completion;
+        slot.published = sequence; // volatile write publishes the fields above
+        if (applierParked) {
+            LockSupport.unpark(applier);
+        }
+        if (!running) {
+            failIfNotApplied(slot, sequence);
+        }
+    }
+
+    // a command that raced with close() may have been published after the applier's last look
+    private void failIfNotApplied(Slot slot, long sequence) {
+        try {
+            applier.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (consumed.get() <= sequence) {
+            slot.failure = new RuntimeException("Sequencer is closed");
+            complete(slot, null);
+        }
+    }
+
+    private void applyLoop() {
+        long next = 0;
+        int idleSpins = 0;
+        while (true) {
+            long end = next;
+            long[] journalPosition = new long[1];
+            if (ring[(int) (next & mask)].published == next) {
+                Lock gate = BalanceGate.INSTANCE.enter(); // once per batch, released before the durability wait
+                try {
+                    while (end - next < ring.length && ring[(int) (end & mask)].published == end) {
+                        apply(ring[(int) (end & mask)], journalPosition);
+                        end++;
+                    }
+                } finally {
+                    gate.unlock();
+                }
+            }
+
+            if (end == next) {
+                if (!running && claimed.get() == next) {
+                    return;
+                }
+                if (++idleSpins < SPINS_BEFORE_PARK) {
+                    Thread.onSpinWait();
+                } else {
+                    applierParked = true;
+                    if (ring[(int) (next & mask)].published != next && running) {
+                        LockSupport.parkNanos(PARK_NANOS);
+                    }
+                    applierParked = false;
+                }
+                continue;
+            }
+            idleSpins = 0;
+
+            // one durability wait for the whole batch, then complete it in order
+            RuntimeException journalFailure = null;
+            try {
+                service.awaitDurable(journalPosition[0]);
+            } catch (RuntimeException e) {
+                journalFailure = e;
+            }
+            for (long sequence = next; sequence < end; sequence++) {
+                complete(ring[(int) (sequence & mask)], journalFailure);
+            }
+            next = end;
+            consumed.set(next);
+        }
+    }
+
+    // raises journalPosition[0] to the position of the command's journal record, if it got one
+    private void apply(Slot slot, long[] journalPosition) {
+        try {
+            if (slot.type == CommandType.TRANSFER) {
+                int fromHandle = HANDLES.find(slot.firstAccountId);
+                int toHandle = HANDLES.find(slot.secondAccountId);
+                AccountModel fromAccount = HANDLES.accountAt(fromHandle);
+                AccountModel toAccount = HANDLES.accountAt(toHandle);
+                if (fromAccount == null || toAccount == null) {
+                    slot.result = TransactionManagerService.rejected(RejectionReason.UNKNOWN_ACCOUNT);
+                    return;
+                }
+                slot.result = service.applyTransfer(slot.amount, fromHandle, fromAccount, toHandle, toAccount, journalPosition);
+                return;
+            }
+            int handle = HANDLES.find(slot.firstAccountId);
+            AccountModel account = HANDLES.accountAt(handle);
+            if (account == null) {
+                slot.result = TransactionManagerService.rejected(RejectionReason.UNKNOWN_ACCOUNT);
+                return;
+            }
+            slot.result = service.applyWithdrawal(slot.amount, handle, account, journalPosition);
+        } catch (RuntimeException e) {
+            slot.failure = e; // nothing was applied, see applyTransfer
+        }
+    }
+
+    private static void complete(Slot slot, RuntimeException journalFailure) {
+        BiConsumer<OperationResult<TransactionModel>, Throwable> completion = slot.completion;
+        RuntimeException failure = slot.failure != null ? slot.failure : journalFailure;
+        OperationResult<TransactionModel> result = failure == null ? slot.result : null;
+        slot.firstAccountId = null;
+        slot.secondAccountId = null;
+        slot.amount = null;
+        slot.completion = null;
+        slot.result = null;
+        slot.failure = null;
+        try {
+            completion.accept(result, failure);
+        } catch (RuntimeException ignored) {
+            // a failing callback must not stop the applier
+        }
+    }
+
+    private enum CommandType {
+        TRANSFER,
+        WITHDRAWAL
+    }
+
+    private static final class Slot {
+        volatile long published;
+        CommandType type;
+        String firstAccountId;
+        String secondAccountId;
+        MoneyModel amount;
+        BiConsumer<OperationResult<TransactionModel>, Throwable> completion;
+        OperationResult<TransactionModel> result;
+        RuntimeException failure;
+
+        Slot(long published) {
+            this.published = published;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package services;
+
+public enum LockingMode {
+    GLOBAL,      // one lock per service instance, every money movement runs alone
+    PER_ACCOUNT  // only the accounts involved in a money movement are locked
+}
@@ -0,0 +1,125 @@
+package services;
+
+import domain.AccountModel;
+import domain.CapitalizationFrequency;
+import domain.MoneyModel;
+import domain.SavingsAccountModel;
+import journal.JournalRecordType;
+import journal.TransactionJournal;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+// Struct-of-arrays copy of the savings accounts so capitalization runs over primitive columns instead of walking
+// account -> MoneyModel for every account. The book owns the capitalization schedule (last applied and due months);
+// balances, rates and schedules are pulled from the accounts before a run and the interest is pushed back to them
+// afterwards. A schedule is only re-derived when the account's frequency or last interest date was changed outside
+// the book.
+public class SavingsBook {
+    public static final int BLOCK_SIZE = 1 << 16;
+
+    private final SavingsAccountModel[] accounts;
+    final long[] balances;
+    final double[] rates;
+    final boolean[] quarterly;
+    final long[] lastAppliedMonths;
+    private final LocalDate[] lastAppliedDates; // the dates the schedules were derived from
+    final long[] dueMonths;
+    final long[] interest;
+    private final InterestKernel kernel;
+
+    public SavingsBook(Collection<? extends AccountModel> savingAccounts, long currentMonth) {
+        this(savingAccounts, currentMonth, true);
+    }
+
+    // savingAccounts may be a live view of the repository: the book is built from one copy of it, so accounts added
+    // or removed meanwhile are either in the book or not, and are picked up by the next rebuild
+    public SavingsBook(Collection<? extends AccountModel> savingAccounts, long currentMonth, boolean vectorized) {
+        AccountModel[] snapshot = savingAccounts.toArray(new AccountModel[0]);
+        int size = snapshot.length;
+        accounts = new SavingsAccountModel[size];
+        balances = new long[size];
+        rates = new double[size];
+        quarterly = new boolean[size];
+        lastAppliedMonths = new long[size];
+        lastAppliedDates = new LocalDate[size];
+        dueMonths = new long[size];
+        interest = new long[size];
+        kernel = vectorized ? InterestKernel.best() : new ScalarInterestKernel();
+
+        for (int i = 0; i < size; i++) {
+            SavingsAccountModel savingAccount = (SavingsAccountModel) snapshot[i];
+            accounts[i] = savingAccount;
+            balances[i] = savingAccount.getBalance().getMinorUnits();
+            rates[i] = savingAccount.getInterest();
+            schedule(i, savingAccount.getLastInterestAppliedDate(),
+                    savingAccount.getInterestFrequency() == CapitalizationFrequency.QUARTERLY, currentMonth);
+        }
+    }
+
+    public int size() {
+        return accounts.length;
+    }
+
+    public int blocks() {
+        return (accounts.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    }
+
+    public boolean isVectorized() {
+        return kernel instanceof VectorInterestKernel;
+    }
+
+    public void pullAccounts(int from, int to, long currentMonth) {
+        for (int i = from; i < to; i++) {
+            SavingsAccountModel savingAccount = accounts[i];
+            balances[i] = savingAccount.getBalance().getMinorUnits();
+            rates[i] = savingAccount.getInterest();
+            LocalDate lastInterestAppliedDate = savingAccount.getLastInterestAppliedDate();
+            boolean isQuarterly = savingAccount.getInterestFrequency() == CapitalizationFrequency.QUARTERLY;
+            if (lastInterestAppliedDate != lastAppliedDates[i] || isQuarterly != quarterly[i]) {
+                schedule(i, lastInterestAppliedDate, isQuarterly, currentMonth);
+            }
+        }
+    }
+
+    private void schedule(int i, LocalDate lastInterestAppliedDate, boolean isQuarterly, long currentMonth) {
+        lastAppliedDates[i] = lastInterestAppliedDate;
+        quarterly[i] = isQuarterly;
+        lastAppliedMonths[i] = lastInterestAppliedDate == null
+                ? CapitalizationCalendar.NO_MONTH
+                : CapitalizationCalendar.monthIndex(lastInterestAppliedDate);
+        dueMonths[i] = CapitalizationCalendar.firstDueMonth(lastAppliedMonths[i], isQuarterly, currentMonth);
+    }
+
+    public void capitalize(int from, int to, long targetMonth) {
+        kernel.capitalize(this, from, to, targetMonth);
+    }
+
+    // adds the interest capitalized for targetMonth to the accounts, so balance changes made since the pull are kept;
+    // each record is journaled before its account changes, so a failed append leaves that account as it was
+    public void pushInterest(int from, int to, long targetMonth, LocalDate interestDate, TransactionJournal journal) {
+        for (int i = from; i < to; i++) {
+            if (lastAppliedMonths[i] != targetMonth) {
+                continue;
+            }
+            SavingsAccountModel savingAccount = accounts[i];
+            MoneyModel balance = savingAccount.getBalance();
+            if (journal != null) {
+                journal.append(JournalRecordType.INTEREST, null, savingAccount.getId(), savingAccount.getId(),
+                        interest[i], balance.getCurrency(), interestDate, null);
+            }
+            balance.add(interest[i]);
+            savingAccount.setLastInterestAppliedDate(interestDate);
+            lastAppliedDates[i] = interestDate;
+        }
+    }
+
+    public void capitalizeBlock(int block, long currentMonth, long targetMonth, LocalDate interestDate,
+                                TransactionJournal journal) {
+        int from = block * BLOCK_SIZE;
+        int to = Math.min(from + BLOCK_SIZE, accounts.length);
+        pullAccounts(from, to, currentMonth);
+        capitalize(from, to, targetMonth);
+        pushInterest(from, to, targetMonth, interestDate, journal);
+    }
+}
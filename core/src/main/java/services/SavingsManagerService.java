@@ -0,0 +1,183 @@
+package services;
+
+import domain.AccountModel;
+import domain.AccountType;
+import domain.MoneyModel;
+import domain.SavingsAccountModel;
+import journal.JournalRecordType;
+import journal.TransactionJournal;
+import metrics.BankingMetrics;
+import metrics.MeteredOperation;
+import repository.AccountsRepository;
+import utils.MoneyUtils;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.IntStream;
+
+public class SavingsManagerService {
+    public static final int MAX_MONTHS_PER_CALL = 1200; // a hundred years, passTime(months) is O(months) per account
+    private final ForkJoinPool pool;
+    private LocalDate systemDate = LocalDate.now();
+    private volatile TransactionJournal journal;
+    private CapitalizationScheduler scheduler;
+    private SavingsBook savingsBook;
+    private long savingsVersion; // AccountsRepository savings version the scheduler or the savings book was built at
+
+    public SavingsManagerService() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public SavingsManagerService(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public TransactionJournal getJournal() {
+        return journal;
+    }
+
+    public void setJournal(TransactionJournal journal) {
+        this.journal = journal;
+    }
+
+    public LocalDate getSystemDate() {
+        return systemDate;
+    }
+
+    // Files every savings account under the month it is next due in, so passTime only visits the due ones. Like the
+    // savings book, the scheduler is rebuilt whenever a savings account was added to or removed from the repository
+    // since it was built, so added accounts and ones replaced by a restore, a snapshot load or a re-seed are picked up.
+    // Adding and removing checking accounts does not rebuild it.
+    public synchronized void enableScheduling() {
+        savingsBook = null;
+        rebuildScheduler();
+    }
+
+    private void rebuildScheduler() {
+        long version = AccountsRepository.INSTANCE.getSavingsVersion(); // read first, changes during the build rebuild again
+        scheduler = new CapitalizationScheduler(CapitalizationCalendar.monthIndex(systemDate));
+        for (AccountModel account : AccountsRepository.INSTANCE.getAllBy(AccountType.SAVINGS)) {
+            scheduler.schedule((SavingsAccountModel) account);
+        }
+        savingsVersion = version;
+    }
+
+    // Capitalizes over a columnar copy of the savings accounts instead of the account objects. The book is rebuilt
+    // whenever a savings account was added to or removed from the repository since it was built (a restore, a
+    // snapshot load, seeding), so it never capitalizes accounts the repository no longer holds.
+    public synchronized void enableSavingsBook() {
+        scheduler = null;
+        rebuildSavingsBook();
+    }
+
+    public synchronized SavingsBook getSavingsBook() {
+        return savingsBook;
+    }
+
+    private void rebuildSavingsBook() {
+        long version = AccountsRepository.INSTANCE.getSavingsVersion(); // read first, changes during the build rebuild again
+        savingsBook = new SavingsBook(AccountsRepository.INSTANCE.getAllBy(AccountType.SAVINGS), CapitalizationCalendar.monthIndex(systemDate));
+        savingsVersion = version;
+    }
+
+    // re-files an account whose last interest date or frequency was changed in place, under the month it is now due in
+    public synchronized void schedule(SavingsAccountModel account) {
+        if (scheduler == null) {
+            throw new RuntimeException("Scheduling is not enabled");
+        }
+        scheduler.schedule(account);
+    }
+
+    public synchronized CapitalizationScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public void passTime() {
+        passTime(1);
+    }
+
+    // Catches up several months at once: every account is visited once and compounded for all the months it was due
+    // in, rounding each month as passTime() does, so the result equals calling passTime() that many times. The months
+    // are still walked one by one per account (see MoneyUtils.catchUpInterestMinorUnits), hence MAX_MONTHS_PER_CALL.
+    public synchronized void passTime(int months) {
+        if (months < 1) {
+            throw new RuntimeException("Time can only move forward");
+        }
+        if (months > MAX_MONTHS_PER_CALL) {
+            throw new RuntimeException("At most " + MAX_MONTHS_PER_CALL + " months can pass at once");
+        }
+        long started = BankingMetrics.INSTANCE.start();
+        long currentMonth = CapitalizationCalendar.monthIndex(systemDate);
+        long targetMonth = currentMonth + months;
+        LocalDate targetDate = systemDate;
+        for (int i = 0; i < months; i++) {
+            targetDate = targetDate.plusMonths(1); // keeps the day-of-month clamping of month-by-month steps
+        }
+
+        LocalDate interestDate = targetDate;
+        TransactionJournal current = journal;
+        Lock gate = BalanceGate.INSTANCE.enter(); // held for the whole run, the workers below change balances for it
+        try {
+            capitalizeAll(currentMonth, targetMonth, interestDate, current);
+        } finally {
+            gate.unlock();
+        }
+
+        systemDate = targetDate;
+
+        if (current != null) {
+            current.flush();
+        }
+        BankingMetrics.INSTANCE.record(MeteredOperation.PASS_TIME, null, started, null);
+    }
+
+    private void capitalizeAll(long currentMonth, long targetMonth, LocalDate interestDate, TransactionJournal current) {
+        if (savingsBook != null) {
+            if (savingsVersion != AccountsRepository.INSTANCE.getSavingsVersion()) {
+                rebuildSavingsBook();
+            }
+            SavingsBook book = savingsBook;
+            pool.submit(() -> IntStream.range(0, book.blocks()).parallel().forEach(block ->
+                    book.capitalizeBlock(block, currentMonth, targetMonth, interestDate, current))).join();
+        } else if (scheduler != null) {
+            if (savingsVersion != AccountsRepository.INSTANCE.getSavingsVersion()) {
+                rebuildScheduler();
+            }
+            List<CapitalizationScheduler.DueAccount> due = scheduler.advance(targetMonth);
+            pool.submit(() -> due.parallelStream().forEach(entry ->
+                    capitalize(entry.getAccount(), entry.getDueMonth(), targetMonth, interestDate))).join();
+            due.forEach(entry -> scheduler.schedule(entry.getAccount()));
+        } else {
+            Collection<AccountModel> savingAccounts = AccountsRepository.INSTANCE.getAllBy(AccountType.SAVINGS);
+            pool.submit(() -> savingAccounts.parallelStream().forEach(account -> {
+                SavingsAccountModel savingAccount = (SavingsAccountModel) account;
+                capitalize(savingAccount, CapitalizationCalendar.firstDueMonth(savingAccount, currentMonth),
+                        targetMonth, interestDate);
+            })).join();
+        }
+    }
+
+    private void capitalize(SavingsAccountModel savingAccount, long dueMonth, long targetMonth, LocalDate interestDate) {
+        if (dueMonth > targetMonth) {
+            return;
+        }
+        addInterest(savingAccount, (int) (targetMonth - dueMonth + 1), interestDate);
+        savingAccount.setLastInterestAppliedDate(interestDate);
+    }
+
+    // write-ahead like the transaction service: a journal that cannot take the record leaves the balance untouched
+    private void addInterest(SavingsAccountModel savingAccount, int periods, LocalDate interestDate) {
+        MoneyModel balance = savingAccount.getBalance();
+        long interest = MoneyUtils.catchUpInterestMinorUnits(balance.getMinorUnits(), savingAccount.getInterest(), periods);
+
+        TransactionJournal current = journal;
+        if (current != null) {
+            current.append(JournalRecordType.INTEREST, null, savingAccount.getId(), savingAccount.getId(),
+                    interest, balance.getCurrency(), interestDate, null);
+        }
+        balance.add(interest);
+    }
+}
@@ -0,0 +1,23 @@
+package services;
+
+import utils.MoneyUtils;
+
+class ScalarInterestKernel implements InterestKernel {
+    @Override
+    public void capitalize(SavingsBook book, int from, int to, long targetMonth) {
+        long[] balances = book.balances;
+        double[] rates = book.rates;
+        long[] dueMonths = book.dueMonths;
+        for (int i = from; i < to; i++) {
+            long dueMonth = dueMonths[i];
+            if (dueMonth > targetMonth) {
+                continue;
+            }
+            long interest = MoneyUtils.catchUpInterestMinorUnits(balances[i], rates[i], (int) (targetMonth - dueMonth + 1));
+            balances[i] += interest;
+            book.interest[i] = interest;
+            book.lastAppliedMonths[i] = targetMonth;
+            dueMonths[i] = targetMonth + 1;
+        }
+    }
+}
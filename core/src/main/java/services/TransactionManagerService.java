@@ -0,0 +1,584 @@
+package services;
+
+import domain.*;
+import fx.FxRateMatrix;
+import fx.FxRates;
+import journal.JournalRecordType;
+import journal.TransactionJournal;
+import metrics.BankingMetrics;
+import metrics.MeteredOperation;
+import repository.AccountHandleRegistry;
+import repository.AccountsRepository;
+import store.TransactionStore;
+import utils.TimeOrderedIdGenerator;
+import utils.TransactionIdGenerator;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+
+public class TransactionManagerService {
+    private static final int BATCH_LOCK_GROUP_SIZE = 512;
+    private static final int DEFAULT_IDEMPOTENCY_CAPACITY = 1_000_000;
+    private static final Duration DEFAULT_IDEMPOTENCY_TTL = Duration.ofMinutes(15);
+    private static final BankingMetrics METRICS = BankingMetrics.INSTANCE;
+    private static final AccountHandleRegistry HANDLES = AccountsRepository.INSTANCE.getHandles();
+
+    private final AccountLocks accountLocks;
+    private volatile TransactionJournal journal;
+    private volatile TransactionIdGenerator idGenerator = new TimeOrderedIdGenerator();
+    private volatile TransactionStore transactionStore;
+    private volatile IdempotencyCache idempotencyCache = new IdempotencyCache(DEFAULT_IDEMPOTENCY_CAPACITY, DEFAULT_IDEMPOTENCY_TTL);
+
+    public TransactionManagerService() {
+        this(LockingMode.GLOBAL);
+    }
+
+    public TransactionManagerService(LockingMode lockingMode) {
+        this.accountLocks = AccountLocks.forMode(lockingMode);
+    }
+
+    public TransactionJournal getJournal() {
+        return journal;
+    }
+
+    public void setJournal(TransactionJournal journal) {
+        this.journal = journal;
+    }
+
+    public TransactionIdGenerator getIdGenerator() {
+        return idGenerator;
+    }
+
+    public void setIdGenerator(TransactionIdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
+
+    public TransactionStore getTransactionStore() {
+        return transactionStore;
+    }
+
+    // when set, new transactions go to the store instead of the accounts' histories and are read back from it;
+    // set it before the first money movement, transactions already in the histories are not moved over. The store must
+    // name accounts by the repository's handles, as one built with new TransactionStore() does
+    public void setTransactionStore(TransactionStore transactionStore) {
+        this.transactionStore = transactionStore;
+    }
+
+    public IdempotencyCache getIdempotencyCache() {
+        return idempotencyCache;
+    }
+
+    public void setIdempotencyCache(IdempotencyCache idempotencyCache) {
+        this.idempotencyCache = idempotencyCache;
+    }
+
+    public TransactionModel transfer(String fromAccountId, String toAccountId, MoneyModel value) {
+        return tryTransfer(fromAccountId, toAccountId, value).getValueOrThrow();
+    }
+
+    // a retry with the same idempotency key returns the original transaction instead of moving the money again
+    public TransactionModel transfer(String fromAccountId, String toAccountId, MoneyModel value, String idempotencyKey) {
+        return tryTransfer(fromAccountId, toAccountId, value, idempotencyKey).getValueOrThrow();
+    }
+
+    public OperationResult<TransactionModel> tryTransfer(String fromAccountId, String toAccountId, MoneyModel value, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return tryTransfer(fromAccountId, toAccountId, value);
+        }
+        return idempotencyCache.execute(idempotencyKey, fromAccountId, toAccountId, value.getMinorUnits(), value.getCurrency(),
+                () -> tryTransfer(fromAccountId, toAccountId, value));
+    }
+
+    public OperationResult<TransactionModel> tryTransfer(String fromAccountId, String toAccountId, MoneyModel value) {
+        long started = METRICS.start();
+        OperationResult<TransactionModel> result = transferUnderLocks(handleOf(fromAccountId), handleOf(toAccountId), value);
+        METRICS.record(MeteredOperation.TRANSFER, fromAccountId, started, result.getRejectionReason());
+        return result;
+    }
+
+    // for callers that resolved the ids once through AccountsRepository.INSTANCE.getHandles() and keep the handles
+    public TransactionModel transfer(int fromHandle, int toHandle, MoneyModel value) {
+        return tryTransfer(fromHandle, toHandle, value).getValueOrThrow();
+    }
+
+    public OperationResult<TransactionModel> tryTransfer(int fromHandle, int toHandle, MoneyModel value) {
+        long started = METRICS.start();
+        OperationResult<TransactionModel> result = transferUnderLocks(fromHandle, toHandle, value);
+        METRICS.record(MeteredOperation.TRANSFER, fromHandle, started, result.getRejectionReason());
+        return result;
+    }
+
+    // the String and the handle paths both lock by handle, so they agree on every account's stripe
+    private OperationResult<TransactionModel> transferUnderLocks(int fromHandle, int toHandle, MoneyModel value) {
+        AccountModel fromAccount = HANDLES.accountAt(fromHandle);
+        AccountModel toAccount = HANDLES.accountAt(toHandle);
+        if (fromAccount == null || toAccount == null) {
+            return rejected(RejectionReason.UNKNOWN_ACCOUNT);
+        }
+
+        OperationResult<TransactionModel> result;
+        long[] journalPosition = new long[1];
+        Lock gate = BalanceGate.INSTANCE.enter();
+        accountLocks.lock(fromHandle, toHandle);
+        try {
+            result = applyTransfer(value, fromHandle, fromAccount, toHandle, toAccount, journalPosition);
+        } finally {
+            accountLocks.unlock(fromHandle, toHandle);
+            gate.unlock();
+        }
+        awaitDurable(journalPosition[0]);
+        return result;
+    }
+
+    // pauses every money movement in the repository, not only this service's, e.g. to capture a consistent cut for a
+    // snapshot; see BalanceGate
+    public <T> T runExclusive(Supplier<T> action) {
+        return BalanceGate.INSTANCE.runExclusive(action);
+    }
+
+    public List<OperationResult<TransactionModel>> transferBatch(List<TransferRequest> requests) {
+        long started = METRICS.start();
+        List<OperationResult<TransactionModel>> results = new ArrayList<>(requests.size());
+        for (int start = 0; start < requests.size(); start += BATCH_LOCK_GROUP_SIZE) {
+            List<TransferRequest> group = requests.subList(start, Math.min(start + BATCH_LOCK_GROUP_SIZE, requests.size()));
+            transferGroup(group, results);
+        }
+        METRICS.record(MeteredOperation.TRANSFER_BATCH, null, started, null);
+        return results;
+    }
+
+    // accounts are resolved once per request and every stripe is locked once for the whole group
+    private void transferGroup(List<TransferRequest> group, List<OperationResult<TransactionModel>> results) {
+        int size = group.size();
+        int[] handles = new int[2 * size]; // from and to of request i at 2i and 2i + 1
+        AccountModel[] accounts = new AccountModel[2 * size];
+        int[] lockedHandles = new int[2 * size];
+        int locked = 0;
+        for (int i = 0; i < size; i++) {
+            TransferRequest request = group.get(i);
+            handles[2 * i] = handleOf(request.getFromAccountId());
+            handles[2 * i + 1] = handleOf(request.getToAccountId());
+            accounts[2 * i] = HANDLES.accountAt(handles[2 * i]);
+            accounts[2 * i + 1] = HANDLES.accountAt(handles[2 * i + 1]);
+            if (accounts[2 * i] != null && accounts[2 * i + 1] != null) { // a rejected request locks nothing
+                lockedHandles[locked++] = handles[2 * i];
+                lockedHandles[locked++] = handles[2 * i + 1];
+            }
+        }
+
+        int[] stripes = accountLocks.stripesOf(Arrays.copyOf(lockedHandles, locked));
+        long[] journalPosition = new long[1];
+        Lock gate = BalanceGate.INSTANCE.enter();
+        accountLocks.lockAll(stripes);
+        try {
+            for (int i = 0; i < size; i++) {
+                if (accounts[2 * i] == null || accounts[2 * i + 1] == null) {
+                    results.add(rejected(RejectionReason.UNKNOWN_ACCOUNT));
+                } else {
+                    results.add(applyTransfer(group.get(i).getAmount(), handles[2 * i], accounts[2 * i],
+                            handles[2 * i + 1], accounts[2 * i + 1], journalPosition));
+                }
+            }
+        } finally {
+            accountLocks.unlockAll(stripes);
+            gate.unlock();
+        }
+        awaitDurable(journalPosition[0]);
+    }
+
+    // Callers hold the locks of both accounts, or are the LedgerSequencer's applier thread. The journal record is
+    // appended before anything changes (write-ahead), so a journal that cannot take it fails the transfer with the
+    // balances and histories untouched. journalPosition[0] is raised to the record's position, to await after unlocking.
+    OperationResult<TransactionModel> applyTransfer(MoneyModel value, int fromHandle, AccountModel fromAccount, int toHandle,
+                                                    AccountModel toAccount, long[] journalPosition) {
+        FxRateMatrix rates = FxRates.INSTANCE.current(); // one matrix for the whole transfer, even if rates are swapped
+        RejectionReason rejection = checkTransferPreconditions(value, fromAccount, toAccount, rates);
+        if (rejection != null) {
+            return rejected(rejection);
+        }
+        CurrencyType currency = value.getCurrency();
+        value = convertCurrency(value, fromAccount, toAccount, rates);
+        UUID id = idGenerator.nextId();
+        Instant createdAt = Instant.now();
+        journal(JournalRecordType.TRANSFER, id, fromAccount, toAccount, value, createdAt, journalPosition);
+        METRICS.countCurrencyPair(currency, toAccount.getBalance().getCurrency());
+        return OperationResult.applied(processTransfer(id, createdAt, value, fromHandle, fromAccount, toHandle, toAccount));
+    }
+
+    // every rejection of this service and its sequencer goes through here to be counted
+    static <T> OperationResult<T> rejected(RejectionReason rejection) {
+        METRICS.countRejection(rejection);
+        return OperationResult.rejected(rejection);
+    }
+
+    // called under the account locks so the journal order matches the order balances change in
+    private void journal(JournalRecordType type, UUID id, AccountModel fromAccount, AccountModel toAccount, MoneyModel amount,
+                         Instant createdAt, long[] journalPosition) {
+        TransactionJournal current = journal;
+        if (current == null) {
+            return;
+        }
+        long position = current.append(
+                type,
+                id,
+                fromAccount.getId(),
+                toAccount.getId(),
+                amount.getMinorUnits(),
+                amount.getCurrency(),
+                LocalDate.ofInstant(createdAt, ZoneId.systemDefault()),
+                createdAt
+        );
+        journalPosition[0] = Math.max(journalPosition[0], position);
+    }
+
+    // called after the locks are released, so other writers keep going while this one waits for its fsync
+    void awaitDurable(long journalPosition) {
+        TransactionJournal current = journal;
+        if (current != null && journalPosition > 0) {
+            current.awaitDurable(journalPosition);
+        }
+    }
+
+    private TransactionModel createTransaction(UUID id, Instant createdAt, int fromHandle, AccountModel fromAccount, int toHandle,
+                                               AccountModel toAccount, MoneyModel value) {
+        TransactionStore store = transactionStore;
+        if (store != null) {
+            return store.append(id, fromHandle, toHandle, value, createdAt);
+        }
+        TransactionModel transaction = new TransactionModel(
+                id,
+                fromAccount.getId(),
+                toAccount.getId(),
+                value,
+                createdAt
+        );
+        fromAccount.getTransactions().add(transaction);
+        if (toAccount != fromAccount) { // a withdrawal is recorded once
+            toAccount.getTransactions().add(transaction);
+        }
+        return transaction;
+    }
+
+    private MoneyModel convertCurrency (MoneyModel value, AccountModel fromAccount, AccountModel toAccount, FxRateMatrix rates) {
+        CurrencyType toCurrency = toAccount.getBalance().getCurrency();
+        if (fromAccount.getBalance().getCurrency() != toCurrency) {
+            return MoneyModel.ofMinorUnits(rates.convertMinorUnits(value.getMinorUnits(), value.getCurrency(), toCurrency), toCurrency);
+        }
+        return value;
+    }
+
+    private TransactionModel processTransfer(UUID id, Instant createdAt, MoneyModel value, int fromHandle, AccountModel fromAccount,
+                                             int toHandle, AccountModel toAccount) {
+        TransactionModel transaction = createTransaction(id, createdAt, fromHandle, fromAccount, toHandle, toAccount, value);
+        updateBalances(value, fromAccount, toAccount);
+        return transaction;
+    }
+
+    private RejectionReason checkSufficientFunds(AccountModel fromAccount, MoneyModel value) {
+        if (fromAccount.getBalance().getMinorUnits() < value.getMinorUnits()) {
+            return RejectionReason.INSUFFICIENT_FUNDS;
+        }
+        return null;
+    }
+
+    private void updateBalances(MoneyModel value, AccountModel fromAccount, AccountModel toAccount) {
+        fromAccount.getBalance().subtract(value.getMinorUnits());
+        toAccount.getBalance().add(value.getMinorUnits());
+    }
+
+    private RejectionReason checkForNegativeAmount(MoneyModel value) {
+        if (value.getMinorUnits() < 0) {
+            return RejectionReason.NEGATIVE_AMOUNT;
+        }
+        return null;
+    }
+
+    private RejectionReason checkForSameAccountTransfer(AccountModel fromAccount, AccountModel toAccount) {
+        if (Objects.equals(fromAccount.getId(), toAccount.getId())) {
+            return RejectionReason.SAME_ACCOUNT;
+        }
+        return null;
+    }
+
+    private RejectionReason checkForSavingsAccountTransfer(AccountModel fromAccount) {
+        if (fromAccount instanceof SavingsAccountModel) {
+            return RejectionReason.SAVINGS_SOURCE;
+        }
+        return null;
+    }
+
+    // returns the first failed precondition, or null when the transfer may go ahead
+    private RejectionReason checkTransferPreconditions(MoneyModel value, AccountModel fromAccount, AccountModel toAccount,
+                                                       FxRateMatrix rates) {
+        RejectionReason rejection = checkForNegativeAmount(value);
+        if (rejection == null) {
+            rejection = validateTransferAmount(value);
+        }
+        if (rejection == null) {
+            rejection = checkConversionRate(value, toAccount, rates);
+        }
+        if (rejection == null) {
+            rejection = checkForSameAccountTransfer(fromAccount, toAccount);
+        }
+        if (rejection == null) {
+            rejection = checkForSavingsAccountTransfer(fromAccount);
+        }
+        if (rejection == null) {
+            rejection = checkSufficientFunds(fromAccount, value);
+        }
+        return rejection;
+    }
+
+    private static RejectionReason validateTransferAmount(MoneyModel amount) {
+        if (!MaximumTransferableAmount.isSupported(amount.getCurrency())) {
+            return RejectionReason.UNSUPPORTED_CURRENCY;
+        }
+        if (amount.getMinorUnits() > MaximumTransferableAmount.getMaxTransferMinorUnits(amount.getCurrency())) {
+            return RejectionReason.LIMIT_EXCEEDED;
+        }
+        return null;
+    }
+
+    private static RejectionReason checkConversionRate(MoneyModel amount, AccountModel toAccount, FxRateMatrix rates) {
+        if (!rates.hasRate(amount.getCurrency(), toAccount.getBalance().getCurrency())) {
+            return RejectionReason.UNSUPPORTED_CURRENCY;
+        }
+        return null;
+    }
+
+    public TransactionModel withdraw(String accountId, MoneyModel amount) {
+        return tryWithdraw(accountId, amount).getValueOrThrow();
+    }
+
+    public TransactionModel withdraw(String accountId, MoneyModel amount, String idempotencyKey) {
+        return tryWithdraw(accountId, amount, idempotencyKey).getValueOrThrow();
+    }
+
+    public OperationResult<TransactionModel> tryWithdraw(String accountId, MoneyModel amount, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return tryWithdraw(accountId, amount);
+        }
+        return idempotencyCache.execute(idempotencyKey, accountId, null, amount.getMinorUnits(), amount.getCurrency(),
+                () -> tryWithdraw(accountId, amount));
+    }
+
+    public OperationResult<TransactionModel> tryWithdraw(String accountId, MoneyModel amount) {
+        long started = METRICS.start();
+        OperationResult<TransactionModel> result = withdrawUnderLock(handleOf(accountId), amount);
+        METRICS.record(MeteredOperation.WITHDRAW, accountId, started, result.getRejectionReason());
+        return result;
+    }
+
+    public TransactionModel withdraw(int handle, MoneyModel amount) {
+        return tryWithdraw(handle, amount).getValueOrThrow();
+    }
+
+    public OperationResult<TransactionModel> tryWithdraw(int handle, MoneyModel amount) {
+        long started = METRICS.start();
+        OperationResult<TransactionModel> result = withdrawUnderLock(handle, amount);
+        METRICS.record(MeteredOperation.WITHDRAW, handle, started, result.getRejectionReason());
+        return result;
+    }
+
+    private OperationResult<TransactionModel> withdrawUnderLock(int handle, MoneyModel amount) {
+        AccountModel account = HANDLES.accountAt(handle);
+        if (account == null) {
+            return rejected(RejectionReason.UNKNOWN_ACCOUNT);
+        }
+
+        OperationResult<TransactionModel> result;
+        long[] journalPosition = new long[1];
+        Lock gate = BalanceGate.INSTANCE.enter();
+        accountLocks.lock(handle);
+        try {
+            result = applyWithdrawal(amount, handle, account, journalPosition);
+        } finally {
+            accountLocks.unlock(handle);
+            gate.unlock();
+        }
+        awaitDurable(journalPosition[0]);
+        return result;
+    }
+
+    // write-ahead like applyTransfer
+    OperationResult<TransactionModel> applyWithdrawal(MoneyModel amount, int handle, AccountModel account, long[] journalPosition) {
+        RejectionReason rejection = checkWithdrawPreconditions(amount, account);
+        if (rejection != null) {
+            return rejected(rejection);
+        }
+
+        UUID id = idGenerator.nextId();
+        Instant createdAt = Instant.now();
+        journal(JournalRecordType.WITHDRAWAL, id, account, account, amount, createdAt, journalPosition);
+        account.getBalance().subtract(amount.getMinorUnits());
+        return OperationResult.applied(createTransaction(id, createdAt, handle, account, handle, account, amount));
+    }
+
+    private static RejectionReason checkWithdrawPreconditions(MoneyModel amount, AccountModel account) {
+        RejectionReason rejection = validateSufficientFundsForWithdrawal(account, amount);
+        if (rejection == null) {
+            rejection = validatePositiveWithdrawalAmount(amount);
+        }
+        return rejection;
+    }
+
+    private static RejectionReason validateSufficientFundsForWithdrawal(AccountModel account, MoneyModel amount) {
+        if (amount.getMinorUnits() > account.getBalance().getMinorUnits()) {
+            return RejectionReason.INSUFFICIENT_FUNDS;
+        }
+        return null;
+    }
+
+    private static RejectionReason validatePositiveWithdrawalAmount(MoneyModel amount) {
+        if (amount.getMinorUnits() < 0) {
+            return RejectionReason.NEGATIVE_AMOUNT;
+        }
+        return null;
+    }
+
+    public MoneyModel checkFunds(String accountId) {
+        return tryCheckFunds(accountId).getValueOrThrow();
+    }
+
+    public OperationResult<MoneyModel> tryCheckFunds(String accountId) {
+        long started = METRICS.start();
+        OperationResult<MoneyModel> result = fundsOf(HANDLES.accountAt(handleOf(accountId)));
+        METRICS.record(MeteredOperation.CHECK_FUNDS, accountId, started, result.getRejectionReason());
+        return result;
+    }
+
+    public MoneyModel checkFunds(int handle) {
+        return tryCheckFunds(handle).getValueOrThrow();
+    }
+
+    public OperationResult<MoneyModel> tryCheckFunds(int handle) {
+        long started = METRICS.start();
+        OperationResult<MoneyModel> result = fundsOf(HANDLES.accountAt(handle));
+        METRICS.record(MeteredOperation.CHECK_FUNDS, handle, started, result.getRejectionReason());
+        return result;
+    }
+
+    private static OperationResult<MoneyModel> fundsOf(AccountModel account) {
+        return account == null ? rejected(RejectionReason.UNKNOWN_ACCOUNT) : OperationResult.applied(account.getBalance());
+    }
+
+    // lock-free read for the frequent balance checks: an immutable copy of the last committed balance
+    public BalanceSnapshot readBalance(String accountId) {
+        return tryReadBalance(accountId).getValueOrThrow();
+    }
+
+    public OperationResult<BalanceSnapshot> tryReadBalance(String accountId) {
+        long started = METRICS.start();
+        OperationResult<BalanceSnapshot> result = balanceOf(HANDLES.accountAt(handleOf(accountId)));
+        METRICS.record(MeteredOperation.CHECK_FUNDS, accountId, started, result.getRejectionReason());
+        return result;
+    }
+
+    public BalanceSnapshot readBalance(int handle) {
+        return tryReadBalance(handle).getValueOrThrow();
+    }
+
+    public OperationResult<BalanceSnapshot> tryReadBalance(int handle) {
+        long started = METRICS.start();
+        OperationResult<BalanceSnapshot> result = balanceOf(HANDLES.accountAt(handle));
+        METRICS.record(MeteredOperation.CHECK_FUNDS, handle, started, result.getRejectionReason());
+        return result;
+    }
+
+    private static OperationResult<BalanceSnapshot> balanceOf(AccountModel account) {
+        return account == null
+                ? rejected(RejectionReason.UNKNOWN_ACCOUNT)
+                : OperationResult.applied(account.getBalance().snapshot(account.getId()));
+    }
+
+    // the whole history as a read-only view, nothing is copied; walk long histories with the paged overload instead
+    public List<TransactionModel> retrieveTransactions(String accountId) {
+        long started = METRICS.start();
+        int handle = handleOf(accountId);
+        AccountModel account = existingAccount(handle);
+        TransactionStore store = transactionStore;
+        List<TransactionModel> transactions = store != null ? store.historyOf(handle) : account.getTransactionHistory().view();
+        METRICS.record(MeteredOperation.RETRIEVE_TRANSACTIONS, accountId, started, null);
+        return transactions;
+    }
+
+    public List<TransactionModel> retrieveTransactions(int handle) {
+        long started = METRICS.start();
+        AccountModel account = existingAccount(handle);
+        TransactionStore store = transactionStore;
+        List<TransactionModel> transactions = store != null ? store.historyOf(handle) : account.getTransactionHistory().view();
+        METRICS.record(MeteredOperation.RETRIEVE_TRANSACTIONS, handle, started, null);
+        return transactions;
+    }
+
+    // oldest first, from inclusive, to exclusive
+    public List<TransactionModel> retrieveTransactions(String accountId, Instant from, Instant to) {
+        long started = METRICS.start();
+        int handle = handleOf(accountId);
+        AccountModel account = existingAccount(handle);
+        TransactionStore store = transactionStore;
+        List<TransactionModel> transactions = store != null
+                ? store.historyOf(handle).between(from, to)
+                : account.getTransactionHistory().between(from, to);
+        METRICS.record(MeteredOperation.RETRIEVE_TRANSACTIONS, accountId, started, null);
+        return transactions;
+    }
+
+    // both days inclusive, in the system time zone
+    public List<TransactionModel> retrieveTransactions(String accountId, LocalDate from, LocalDate to) {
+        ZoneId zone = ZoneId.systemDefault();
+        return retrieveTransactions(accountId, from.atStartOfDay(zone).toInstant(), to.plusDays(1).atStartOfDay(zone).toInstant());
+    }
+
+    // both days inclusive, in the system time zone, newest first; pages like the overload below
+    public TransactionPage retrieveTransactions(String accountId, LocalDate from, LocalDate to, long continuationToken, int pageSize) {
+        long started = METRICS.start();
+        int handle = handleOf(accountId);
+        AccountModel account = existingAccount(handle);
+        ZoneId zone = ZoneId.systemDefault();
+        Instant fromInstant = from.atStartOfDay(zone).toInstant();
+        Instant toInstant = to.plusDays(1).atStartOfDay(zone).toInstant();
+        TransactionStore store = transactionStore;
+        TransactionPage page = store != null
+                ? store.historyOf(handle).page(fromInstant, toInstant, continuationToken, pageSize)
+                : account.getTransactionHistory().page(fromInstant, toInstant, continuationToken, pageSize);
+        METRICS.record(MeteredOperation.RETRIEVE_TRANSACTIONS, handle, started, null);
+        return page;
+    }
+
+    // pass TransactionPage.FIRST_PAGE for the newest entries, then the token of the previous page
+    public TransactionPage retrieveTransactions(String accountId, long continuationToken, int pageSize) {
+        long started = METRICS.start();
+        int handle = handleOf(accountId);
+        AccountModel account = existingAccount(handle);
+        TransactionStore store = transactionStore;
+        TransactionPage page = store != null
+                ? store.historyOf(handle).page(continuationToken, pageSize)
+                : account.getTransactionHistory().page(continuationToken, pageSize);
+        METRICS.record(MeteredOperation.RETRIEVE_TRANSACTIONS, accountId, started, null);
+        return page;
+    }
+
+    // every id a caller hands in goes through here, once; a null or unknown id gets NO_HANDLE, which resolves to no
+    // account and never reaches the lock stripes
+    private static int handleOf(String accountId) {
+        return HANDLES.find(accountId);
+    }
+
+    private static AccountModel existingAccount(int handle) {
+        AccountModel account = HANDLES.accountAt(handle);
+        if (account == null) {
+            throw new RuntimeException("Specified account does not exist");
+        }
+        return account;
+    }
+}
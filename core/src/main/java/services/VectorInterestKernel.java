@@ -0,0 +1,64 @@
+package services;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import utils.MoneyUtils;
+
+// Only loaded when the jdk.incubator.vector module is present, see InterestKernel.best().
+class VectorInterestKernel implements InterestKernel {
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+    private final ScalarInterestKernel scalar = new ScalarInterestKernel();
+
+    @Override
+    public void capitalize(SavingsBook book, int from, int to, long targetMonth) {
+        if (LONGS.length() != DOUBLES.length()) {
+            scalar.capitalize(book, from, to, targetMonth);
+            return;
+        }
+        long[] balances = book.balances;
+        double[] rates = book.rates;
+        long[] dueMonths = book.dueMonths;
+        long[] lastAppliedMonths = book.lastAppliedMonths;
+        long[] interestColumn = book.interest;
+        int lanes = LONGS.length();
+        int i = from;
+        for (int upper = from + (to - from) / lanes * lanes; i < upper; i += lanes) {
+            LongVector due = LongVector.fromArray(LONGS, dueMonths, i);
+            VectorMask<Long> isDue = due.compare(VectorOperators.LE, targetMonth);
+            if (!isDue.anyTrue()) {
+                continue;
+            }
+            if (due.compare(VectorOperators.LT, targetMonth).anyTrue()) {
+                // catching up several months compounds month by month per account, left to the scalar kernel
+                scalar.capitalize(book, i, i + lanes, targetMonth);
+                continue;
+            }
+            LongVector balance = LongVector.fromArray(LONGS, balances, i);
+            DoubleVector product = ((DoubleVector) balance.convert(VectorOperators.L2D, 0))
+                    .mul(DoubleVector.fromArray(DOUBLES, rates, i));
+            // truncate, then step away from zero by the exact fractional part; lanes too close to a half for the
+            // double product to decide go through MoneyUtils.interestMinorUnits like the scalar kernel
+            LongVector whole = (LongVector) product.convert(VectorOperators.D2L, 0);
+            DoubleVector fraction = product.sub((DoubleVector) whole.convert(VectorOperators.L2D, 0));
+            DoubleVector distance = fraction.abs().sub(0.5).abs();
+            if (distance.compare(VectorOperators.LE, product.abs().mul(MoneyUtils.INTEREST_ERROR_BOUND)).anyTrue()) {
+                scalar.capitalize(book, i, i + lanes, targetMonth);
+                continue;
+            }
+            LongVector interest = whole
+                    .add(1, fraction.compare(VectorOperators.GT, 0.5).cast(LONGS))
+                    .sub(1, fraction.compare(VectorOperators.LT, -0.5).cast(LONGS));
+
+            balance.add(interest, isDue).intoArray(balances, i);
+            interest.intoArray(interestColumn, i, isDue);
+            LongVector.fromArray(LONGS, lastAppliedMonths, i).blend(targetMonth, isDue).intoArray(lastAppliedMonths, i);
+            due.blend(targetMonth + 1, isDue).intoArray(dueMonths, i);
+        }
+        scalar.capitalize(book, i, to, targetMonth);
+    }
+}
@@ -0,0 +1,23 @@
+package snapshot;
+
+// Layout: header | chunk* | footer
+// header: int magic | int version | long journalPosition | long accountCount | long footerOffset
+// footer: int chunkCount | (long offset | long length | int accountCount)*
+// account: byte accountType | string id | byte currency | long balanceMinorUnits
+//          savings:  double interest | byte frequency | long lastInterestEpochDay
+//          checking: byte hasCard | card
+// card:    long number | string holder | int cvv | long expirationEpochDay | long issueEpochDay
+//          | byte flags | double dailyWithdrawalLimit | double dailyTransactionLimit
+// string:  short length | utf-8 bytes
+class SnapshotFormat {
+    static final int MAGIC = 0x42534E50;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int FOOTER_ENTRY_BYTES = 20;
+    static final int ACCOUNTS_PER_CHUNK = 65_536;
+    static final long NO_DATE = Long.MIN_VALUE;
+    static final byte CONTACTLESS = 1;
+    static final byte ACTIVE = 2;
+
+    private SnapshotFormat() {}
+}
@@ -0,0 +1,140 @@
+package snapshot;
+
+import domain.AccountModel;
+import domain.AccountType;
+import domain.CapitalizationFrequency;
+import domain.CardModel;
+import domain.CheckingAccountModel;
+import domain.CurrencyType;
+import domain.MoneyModel;
+import domain.SavingsAccountModel;
+import repository.AccountsRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.stream.IntStream;
+
+import static snapshot.SnapshotFormat.*;
+
+public class SnapshotLoader {
+    private static final AccountType[] ACCOUNT_TYPES = AccountType.values();
+    private static final CurrencyType[] CURRENCIES = CurrencyType.values();
+    private static final CapitalizationFrequency[] FREQUENCIES = CapitalizationFrequency.values();
+
+    private SnapshotLoader() {}
+
+    // adds every account of the snapshot to the repository and returns the journal position to replay from
+    public static long load(Path source) {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            readFully(channel, header, 0);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new RuntimeException("Not a supported snapshot: " + source);
+            }
+            long journalPosition = header.getLong();
+            long accountCount = header.getLong();
+            long footerOffset = header.getLong();
+
+            ByteBuffer footer = ByteBuffer.allocate((int) (channel.size() - footerOffset));
+            readFully(channel, footer, footerOffset);
+            int chunkCount = footer.getInt();
+            long[] offsets = new long[chunkCount];
+            long[] lengths = new long[chunkCount];
+            int[] counts = new int[chunkCount];
+            long total = 0;
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                offsets[chunk] = footer.getLong();
+                lengths[chunk] = footer.getLong();
+                counts[chunk] = footer.getInt();
+                total += counts[chunk];
+            }
+            if (total != accountCount) {
+                throw new RuntimeException("Snapshot footer does not match its header: " + source);
+            }
+
+            // every chunk is mapped and decoded on its own, so the load is spread over all cores
+            IntStream.range(0, chunkCount).parallel().forEach(chunk -> {
+                try {
+                    loadChunk(channel.map(FileChannel.MapMode.READ_ONLY, offsets[chunk], lengths[chunk]), counts[chunk]);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot map snapshot chunk " + chunk, e);
+                }
+            });
+            return journalPosition;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read snapshot " + source, e);
+        }
+    }
+
+    private static void loadChunk(MappedByteBuffer chunk, int accountCount) {
+        for (int i = 0; i < accountCount; i++) {
+            AccountModel account = getAccount(chunk);
+            AccountsRepository.INSTANCE.add(account.getId(), account);
+        }
+    }
+
+    private static AccountModel getAccount(ByteBuffer buffer) {
+        AccountType accountType = ACCOUNT_TYPES[buffer.get()];
+        String id = getString(buffer);
+        CurrencyType currency = CURRENCIES[buffer.get()];
+        MoneyModel balance = MoneyModel.ofMinorUnits(buffer.getLong(), currency);
+
+        if (accountType == AccountType.SAVINGS) {
+            double interest = buffer.getDouble();
+            CapitalizationFrequency frequency = FREQUENCIES[buffer.get()];
+            LocalDate lastInterestAppliedDate = toDate(buffer.getLong());
+            return new SavingsAccountModel(id, balance, new ArrayList<>(), interest, frequency, lastInterestAppliedDate);
+        }
+        CardModel card = buffer.get() == 0 ? null : getCard(buffer);
+        return new CheckingAccountModel(id, balance, new ArrayList<>(), card);
+    }
+
+    private static CardModel getCard(ByteBuffer buffer) {
+        long cardNumber = buffer.getLong();
+        String cardHolderName = getString(buffer);
+        int cvv = buffer.getInt();
+        LocalDate expirationDate = toDate(buffer.getLong());
+        LocalDate issueDate = toDate(buffer.getLong());
+        byte flags = buffer.get();
+        double dailyWithdrawalLimit = buffer.getDouble();
+        double dailyTransactionLimit = buffer.getDouble();
+        return new CardModel(
+                cardNumber,
+                cardHolderName,
+                cvv,
+                expirationDate,
+                issueDate,
+                (flags & CONTACTLESS) != 0,
+                (flags & ACTIVE) != 0,
+                dailyWithdrawalLimit,
+                dailyTransactionLimit
+        );
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static LocalDate toDate(long epochDay) {
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new RuntimeException("Snapshot is truncated");
+            }
+        }
+        buffer.flip();
+    }
+}
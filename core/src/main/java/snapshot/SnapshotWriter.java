@@ -0,0 +1,174 @@
+package snapshot;
+
+import domain.AccountModel;
+import domain.CardModel;
+import domain.CheckingAccountModel;
+import domain.SavingsAccountModel;
+import journal.TransactionJournal;
+import repository.AccountsRepository;
+import services.TransactionManagerService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static snapshot.SnapshotFormat.*;
+
+public class SnapshotWriter {
+    private static final int BUFFER_BYTES = 4 << 20;
+    private static final int MAX_ACCOUNT_BYTES = 1 << 18;
+
+    private SnapshotWriter() {}
+
+    // Every balance writer (all services, passTime, sequencers) pauses only while balances are copied, encoding and
+    // disk I/O happen after they resume. Returns the journal position the snapshot corresponds to.
+    public static long write(Path target, TransactionManagerService service) {
+        TransactionJournal journal = service.getJournal();
+        Capture capture = service.runExclusive(() -> capture(journal));
+        if (journal != null) {
+            // in GROUP and ASYNC mode the records up to the captured position may still be buffered; a crash would take
+            // them back and leave the snapshot naming a position past the journal's end
+            journal.flush();
+        }
+
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeCapture(channel, capture);
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write snapshot " + target, e);
+        }
+
+        try {
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot publish snapshot " + target, e);
+        }
+        return capture.journalPosition;
+    }
+
+    private static Capture capture(TransactionJournal journal) {
+        List<AccountModel> accounts = new ArrayList<>(AccountsRepository.INSTANCE.size());
+        accounts.addAll(AccountsRepository.INSTANCE.values());
+
+        long[] balances = new long[accounts.size()];
+        long[] lastInterestEpochDays = new long[accounts.size()];
+        for (int i = 0; i < balances.length; i++) {
+            AccountModel account = accounts.get(i);
+            balances[i] = account.getBalance().getMinorUnits();
+            lastInterestEpochDays[i] = account instanceof SavingsAccountModel savingsAccount
+                    ? toEpochDay(savingsAccount.getLastInterestAppliedDate())
+                    : NO_DATE;
+        }
+        long journalPosition = journal == null ? 0 : journal.getAppendedPosition();
+        return new Capture(accounts, balances, lastInterestEpochDays, journalPosition);
+    }
+
+    private static void writeCapture(FileChannel channel, Capture capture) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        int accountCount = capture.accounts.size();
+        int chunkCount = (accountCount + ACCOUNTS_PER_CHUNK - 1) / ACCOUNTS_PER_CHUNK;
+        long[] chunkOffsets = new long[chunkCount];
+        long[] chunkLengths = new long[chunkCount];
+
+        long position = HEADER_BYTES;
+        channel.position(position);
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            chunkOffsets[chunk] = position + buffer.position();
+            int end = Math.min(accountCount, (chunk + 1) * ACCOUNTS_PER_CHUNK);
+            for (int i = chunk * ACCOUNTS_PER_CHUNK; i < end; i++) {
+                if (buffer.remaining() < MAX_ACCOUNT_BYTES) {
+                    position += drain(channel, buffer);
+                }
+                putAccount(buffer, capture, i);
+            }
+            chunkLengths[chunk] = position + buffer.position() - chunkOffsets[chunk];
+        }
+
+        long footerOffset = position + buffer.position();
+        buffer.putInt(chunkCount);
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            if (buffer.remaining() < FOOTER_ENTRY_BYTES) {
+                drain(channel, buffer);
+            }
+            buffer.putLong(chunkOffsets[chunk]);
+            buffer.putLong(chunkLengths[chunk]);
+            buffer.putInt(Math.min(ACCOUNTS_PER_CHUNK, accountCount - chunk * ACCOUNTS_PER_CHUNK));
+        }
+        drain(channel, buffer);
+
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putLong(capture.journalPosition);
+        buffer.putLong(accountCount);
+        buffer.putLong(footerOffset);
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, buffer.position());
+        }
+    }
+
+    private static void putAccount(ByteBuffer buffer, Capture capture, int index) {
+        AccountModel account = capture.accounts.get(index);
+        buffer.put((byte) account.getAccountType().ordinal());
+        putString(buffer, account.getId());
+        buffer.put((byte) account.getBalance().getCurrency().ordinal());
+        buffer.putLong(capture.balances[index]);
+
+        if (account instanceof SavingsAccountModel savingsAccount) {
+            buffer.putDouble(savingsAccount.getInterest());
+            buffer.put((byte) savingsAccount.getInterestFrequency().ordinal());
+            buffer.putLong(capture.lastInterestEpochDays[index]);
+        } else if (account instanceof CheckingAccountModel checkingAccount) {
+            CardModel card = checkingAccount.getAssociatedCard();
+            buffer.put((byte) (card == null ? 0 : 1));
+            if (card != null) {
+                putCard(buffer, card);
+            }
+        }
+    }
+
+    private static void putCard(ByteBuffer buffer, CardModel card) {
+        buffer.putLong(card.getCardNumber());
+        putString(buffer, card.getCardHolderName());
+        buffer.putInt(card.getCvv());
+        buffer.putLong(toEpochDay(card.getExpirationDate()));
+        buffer.putLong(toEpochDay(card.getIssueDate()));
+        buffer.put((byte) ((card.isContactless() ? CONTACTLESS : 0) | (card.isActive() ? ACTIVE : 0)));
+        buffer.putDouble(card.getDailyWithdrawalLimit());
+        buffer.putDouble(card.getDailyTransactionLimit());
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static long toEpochDay(LocalDate date) {
+        return date == null ? NO_DATE : date.toEpochDay();
+    }
+
+    private static int drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        int written = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+        return written;
+    }
+
+    private record Capture(List<AccountModel> accounts, long[] balances, long[] lastInterestEpochDays, long journalPosition) {
+    }
+}
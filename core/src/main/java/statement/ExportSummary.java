@@ -0,0 +1,54 @@
+package statement;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public class ExportSummary {
+    private final List<Path> files;
+    private final long accounts;
+    private final long rows;
+    private final long bytes;
+    private final long elapsedNanos;
+
+    ExportSummary(List<Path> files, long accounts, long rows, long bytes, long elapsedNanos) {
+        this.files = files;
+        this.accounts = accounts;
+        this.rows = rows;
+        this.bytes = bytes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public List<Path> getFiles() {
+        return files;
+    }
+
+    public long getAccounts() {
+        return accounts;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getMegabytesPerSecond() {
+        return bytes / 1e6 / (elapsedNanos / 1e9);
+    }
+
+    public double getRowsPerSecond() {
+        return rows / (elapsedNanos / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("accounts=%,d rows=%,d size=%.1fMB time=%.0fms (%.0f MB/s, %,.0f rows/s)",
+                accounts, rows, bytes / 1e6, elapsedNanos / 1e6, getMegabytesPerSecond(), getRowsPerSecond());
+    }
+}
@@ -0,0 +1,392 @@
+package statement;
+
+import domain.AccountModel;
+import domain.TransactionHistory;
+import domain.TransactionModel;
+import repository.AccountsRepository;
+import store.StoredHistory;
+import store.TransactionStore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+// Streams statements straight from the account histories into files: rows are encoded into a direct buffer that is
+// handed to the FileChannel as it fills, so neither a copy of a history nor a String per row is ever built.
+// exportAll gives every worker its own part file and buffer; workers take accounts in blocks from a shared cursor,
+// so a few very long histories do not leave the other workers idle. With a TransactionStore set, the rows are read
+// from the store instead of the account histories.
+public class StatementExporter {
+    private static final int BUFFER_BYTES = 1 << 20;
+    private static final int MAX_ID_CHARS = 256;
+    private static final int MAX_ROW_BYTES = 256 + 4 * MAX_ID_CHARS * 3; // fixed-width fields, then ids at up to 3 UTF-8 bytes per char
+    private static final int ACCOUNTS_PER_BLOCK = 256;
+    private static final byte[] CSV_HEADER = "account,transaction_id,created_at,direction,counterparty,amount,currency\n"
+            .getBytes(StandardCharsets.US_ASCII);
+    private static final byte[][] DIRECTION_NAMES = {
+            "DEBIT".getBytes(StandardCharsets.US_ASCII),
+            "CREDIT".getBytes(StandardCharsets.US_ASCII),
+            "WITHDRAWAL".getBytes(StandardCharsets.US_ASCII)
+    };
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private static final ThreadLocal<ByteBuffer> BUFFERS = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_BYTES));
+
+    private final ForkJoinPool pool;
+    private volatile TransactionStore transactionStore;
+
+    public StatementExporter() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public StatementExporter(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public TransactionStore getTransactionStore() {
+        return transactionStore;
+    }
+
+    // the store the transaction service writes to, if it has one
+    public void setTransactionStore(TransactionStore transactionStore) {
+        this.transactionStore = transactionStore;
+    }
+
+    public ExportSummary exportAccount(String accountId, Path file, StatementFormat format) {
+        return exportAccount(accountId, file, format, Instant.MIN, Instant.MAX);
+    }
+
+    // the transactions created in [from, to)
+    public ExportSummary exportAccount(String accountId, Path file, StatementFormat format, Instant from, Instant to) {
+        AccountModel account = AccountsRepository.INSTANCE.get(accountId);
+        if (account == null) {
+            throw new RuntimeException("Specified account does not exist");
+        }
+        long started = System.nanoTime();
+        try (Part part = new Part(file, format, transactionStore)) {
+            part.write(account, from, to);
+            part.finish();
+            return new ExportSummary(List.of(file), 1, part.rows, part.bytes, System.nanoTime() - started);
+        }
+    }
+
+    public ExportSummary exportAll(Path directory, StatementFormat format) {
+        return exportAll(directory, format, Instant.MIN, Instant.MAX);
+    }
+
+    // one file per worker, statements-<n>.<extension>; together they hold every account exactly once
+    public ExportSummary exportAll(Path directory, StatementFormat format, Instant from, Instant to) {
+        long started = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create " + directory, e);
+        }
+        List<AccountModel> accounts = new ArrayList<>(AccountsRepository.INSTANCE.size());
+        accounts.addAll(AccountsRepository.INSTANCE.values());
+
+        int parts = Math.max(1, Math.min(pool.getParallelism(), (accounts.size() + ACCOUNTS_PER_BLOCK - 1) / ACCOUNTS_PER_BLOCK));
+        AtomicInteger cursor = new AtomicInteger();
+        TransactionStore store = transactionStore;
+        Part[] written = new Part[parts];
+        pool.submit(() -> IntStream.range(0, parts).parallel().forEach(index -> {
+            Path file = directory.resolve(String.format("statements-%03d.%s", index, format.getExtension()));
+            try (Part part = new Part(file, format, store)) {
+                for (int start = cursor.getAndAdd(ACCOUNTS_PER_BLOCK); start < accounts.size(); start = cursor.getAndAdd(ACCOUNTS_PER_BLOCK)) {
+                    int end = Math.min(accounts.size(), start + ACCOUNTS_PER_BLOCK);
+                    for (int i = start; i < end; i++) {
+                        part.write(accounts.get(i), from, to);
+                    }
+                }
+                part.finish();
+                written[index] = part;
+            }
+        })).join();
+
+        List<Path> files = new ArrayList<>(parts);
+        long rows = 0;
+        long bytes = 0;
+        for (Part part : written) {
+            files.add(part.file);
+            rows += part.rows;
+            bytes += part.bytes;
+        }
+        return new ExportSummary(files, accounts.size(), rows, bytes, System.nanoTime() - started);
+    }
+
+    // one output file, its channel and the calling thread's buffer
+    private static final class Part implements AutoCloseable {
+        private final Path file;
+        private final StatementFormat format;
+        private final TransactionStore store;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = BUFFERS.get();
+        private long rows;
+        private long bytes;
+
+        private Part(Path file, StatementFormat format, TransactionStore store) {
+            this.file = file;
+            this.format = format;
+            this.store = store;
+            try {
+                this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open " + file, e);
+            }
+            buffer.clear();
+            if (format == StatementFormat.CSV) {
+                buffer.put(CSV_HEADER);
+            } else {
+                buffer.putInt(StatementFormat.MAGIC);
+                buffer.putInt(StatementFormat.VERSION);
+            }
+        }
+
+        private void write(AccountModel account, Instant from, Instant to) {
+            String accountId = checkLength(account.getId());
+            List<TransactionModel> history;
+            int start;
+            int end;
+            if (store != null) {
+                StoredHistory stored = store.historyOf(accountId);
+                start = stored.indexAtOrAfter(from);
+                end = Math.max(start, stored.indexAtOrAfter(to));
+                history = stored;
+            } else {
+                TransactionHistory transactions = account.getTransactionHistory();
+                start = transactions.indexAtOrAfter(from);
+                end = Math.max(start, transactions.indexAtOrAfter(to)); // later appends are left for the next statement
+                history = transactions;
+            }
+
+            if (format == StatementFormat.BINARY) {
+                ensureRoom(MAX_ROW_BYTES);
+                putString(accountId);
+                buffer.putInt(end - start);
+            }
+            for (int i = start; i < end; i++) {
+                ensureRoom(MAX_ROW_BYTES);
+                TransactionModel transaction = history.get(i);
+                if (format == StatementFormat.CSV) {
+                    putCsvRow(accountId, transaction);
+                } else {
+                    putBinaryRow(accountId, transaction);
+                }
+            }
+            rows += end - start;
+        }
+
+        private void putCsvRow(String accountId, TransactionModel transaction) {
+            byte direction = directionOf(accountId, transaction);
+            putText(accountId);
+            buffer.put((byte) ',');
+            putUuid(transaction.getId());
+            buffer.put((byte) ',');
+            putTimestamp(transaction.getCreatedAt());
+            buffer.put((byte) ',');
+            buffer.put(DIRECTION_NAMES[direction]);
+            buffer.put((byte) ',');
+            putText(checkLength(counterpartyOf(direction, transaction)));
+            buffer.put((byte) ',');
+            putAmount(transaction.getAmount().getMinorUnits());
+            buffer.put((byte) ',');
+            putText(transaction.getAmount().getCurrency().name());
+            buffer.put((byte) '\n');
+        }
+
+        private void putBinaryRow(String accountId, TransactionModel transaction) {
+            byte direction = directionOf(accountId, transaction);
+            UUID id = transaction.getId();
+            buffer.putLong(id == null ? 0 : id.getMostSignificantBits());
+            buffer.putLong(id == null ? 0 : id.getLeastSignificantBits());
+            Instant createdAt = transaction.getCreatedAt();
+            buffer.putLong(createdAt == null ? StatementFormat.NO_TIME : createdAt.getEpochSecond() * 1_000_000L + createdAt.getNano() / 1_000);
+            buffer.putLong(transaction.getAmount().getMinorUnits());
+            buffer.put((byte) transaction.getAmount().getCurrency().ordinal());
+            buffer.put(direction);
+            putString(checkLength(counterpartyOf(direction, transaction)));
+        }
+
+        private static byte directionOf(String accountId, TransactionModel transaction) {
+            if (accountId.equals(transaction.getFrom())) {
+                return accountId.equals(transaction.getTo()) ? StatementFormat.WITHDRAWAL : StatementFormat.DEBIT;
+            }
+            return StatementFormat.CREDIT;
+        }
+
+        private static String counterpartyOf(byte direction, TransactionModel transaction) {
+            return direction == StatementFormat.CREDIT ? transaction.getFrom() : transaction.getTo();
+        }
+
+        // ids are plain ASCII in practice; anything else is quoted for CSV and written as UTF-8
+        private void putText(String value) {
+            int length = value.length();
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c >= 0x80 || c == ',' || c == '"' || c == '\n' || c == '\r') {
+                    putQuoted(value);
+                    return;
+                }
+            }
+            for (int i = 0; i < length; i++) {
+                buffer.put((byte) value.charAt(i));
+            }
+        }
+
+        private void putQuoted(String value) {
+            buffer.put((byte) '"');
+            buffer.put(value.replace("\"", "\"\"").getBytes(StandardCharsets.UTF_8));
+            buffer.put((byte) '"');
+        }
+
+        private void putString(String value) {
+            int length = value.length();
+            boolean ascii = true;
+            for (int i = 0; i < length && ascii; i++) {
+                ascii = value.charAt(i) < 0x80;
+            }
+            if (ascii) {
+                buffer.putShort((short) length);
+                for (int i = 0; i < length; i++) {
+                    buffer.put((byte) value.charAt(i));
+                }
+            } else {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                buffer.putShort((short) bytes.length);
+                buffer.put(bytes);
+            }
+        }
+
+        private void putUuid(UUID id) {
+            if (id == null) {
+                return;
+            }
+            putHex(id.getMostSignificantBits() >>> 32, 8);
+            buffer.put((byte) '-');
+            putHex(id.getMostSignificantBits() >>> 16, 4);
+            buffer.put((byte) '-');
+            putHex(id.getMostSignificantBits(), 4);
+            buffer.put((byte) '-');
+            putHex(id.getLeastSignificantBits() >>> 48, 4);
+            buffer.put((byte) '-');
+            putHex(id.getLeastSignificantBits(), 12);
+        }
+
+        private void putHex(long value, int digits) {
+            for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+                buffer.put(HEX[(int) (value >>> shift) & 0xF]);
+            }
+        }
+
+        // 2024-05-15T10:00:00.123456Z, civil date from the epoch day as in java.time.LocalDate.ofEpochDay
+        private void putTimestamp(Instant instant) {
+            if (instant == null) {
+                return;
+            }
+            long epochDay = Math.floorDiv(instant.getEpochSecond(), 86_400);
+            long secondOfDay = Math.floorMod(instant.getEpochSecond(), 86_400);
+            long zeroDay = epochDay + 719_468;
+            long era = Math.floorDiv(zeroDay, 146_097);
+            long dayOfEra = zeroDay - era * 146_097;
+            long yearOfEra = (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+            long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+            long monthIndex = (5 * dayOfYear + 2) / 153;
+            long day = dayOfYear - (153 * monthIndex + 2) / 5 + 1;
+            long month = monthIndex < 10 ? monthIndex + 3 : monthIndex - 9;
+            long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+            if (year < 0 || year > 9_999) {
+                putText(instant.toString());
+                return;
+            }
+            putDigits(year, 4);
+            buffer.put((byte) '-');
+            putDigits(month, 2);
+            buffer.put((byte) '-');
+            putDigits(day, 2);
+            buffer.put((byte) 'T');
+            putDigits(secondOfDay / 3_600, 2);
+            buffer.put((byte) ':');
+            putDigits(secondOfDay / 60 % 60, 2);
+            buffer.put((byte) ':');
+            putDigits(secondOfDay % 60, 2);
+            buffer.put((byte) '.');
+            putDigits(instant.getNano() / 1_000, 6);
+            buffer.put((byte) 'Z');
+        }
+
+        private void putAmount(long minorUnits) {
+            if (minorUnits < 0) {
+                buffer.put((byte) '-');
+                minorUnits = -minorUnits;
+            }
+            long major = minorUnits / 100;
+            int digits = 1;
+            for (long rest = major / 10; rest > 0; rest /= 10) {
+                digits++;
+            }
+            putDigits(major, digits);
+            buffer.put((byte) '.');
+            putDigits(minorUnits % 100, 2);
+        }
+
+        private void putDigits(long value, int digits) {
+            int end = buffer.position() + digits;
+            for (int i = end - 1; i >= end - digits; i--) {
+                buffer.put(i, (byte) ('0' + value % 10));
+                value /= 10;
+            }
+            buffer.position(end);
+        }
+
+        private static String checkLength(String id) {
+            if (id != null && id.length() > MAX_ID_CHARS) {
+                throw new RuntimeException("Account id longer than " + MAX_ID_CHARS + " characters: " + id.substring(0, 32) + "...");
+            }
+            return id == null ? "" : id;
+        }
+
+        private void ensureRoom(int bytesNeeded) {
+            if (buffer.remaining() < bytesNeeded) {
+                drain();
+            }
+        }
+
+        private void drain() {
+            buffer.flip();
+            bytes += buffer.remaining();
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write " + file, e);
+            }
+            buffer.clear();
+        }
+
+        private void finish() {
+            drain();
+        }
+
+        @Override
+        public void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot close " + file, e);
+            }
+        }
+    }
+}
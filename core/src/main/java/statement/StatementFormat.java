@@ -0,0 +1,31 @@
+package statement;
+
+// CSV:    account,transaction_id,created_at,direction,counterparty,amount,currency
+//         created_at in ISO-8601 UTC with microseconds, amount with two decimals, one header line per file
+// BINARY: int magic | int version | account*
+//         account: string accountId | int rowCount | row*
+//         row:     long idMostSignificantBits | long idLeastSignificantBits | long createdAtEpochMicros
+//                  | long amountMinorUnits | byte currency | byte direction | string counterparty
+//         string:  short length | utf-8 bytes
+// Direction is DEBIT, CREDIT or WITHDRAWAL as seen from the exported account; a withdrawal's counterparty is the account itself.
+public enum StatementFormat {
+    CSV("csv"),
+    BINARY("bin");
+
+    public static final int MAGIC = 0x4253544D;
+    public static final int VERSION = 1;
+    public static final long NO_TIME = Long.MIN_VALUE;
+    public static final byte DEBIT = 0;
+    public static final byte CREDIT = 1;
+    public static final byte WITHDRAWAL = 2;
+
+    private final String extension;
+
+    StatementFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,94 @@
+package store;
+
+import domain.TransactionHistory;
+import domain.TransactionModel;
+import domain.TransactionPage;
+
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+// One account's transactions as of the moment the view was taken, oldest first. Nothing is copied: the view keeps the
+// account's record numbers and size, and get decodes a flyweight on demand.
+public class StoredHistory extends AbstractList<TransactionModel> implements RandomAccess {
+    private final TransactionStore store;
+    private final int[] records;
+    private final int offset;
+    private final int size;
+
+    StoredHistory(TransactionStore store, int[] records, int offset, int size) {
+        this.store = store;
+        this.records = records;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    @Override
+    public StoredTransaction get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        return new StoredTransaction(store, records[offset + index]);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // from inclusive, to exclusive; creation times never decrease within an account, see TransactionStore.append
+    public StoredHistory between(Instant from, Instant to) {
+        int start = indexAtOrAfter(from);
+        int end = Math.max(start, indexAtOrAfter(to));
+        return new StoredHistory(store, records, offset + start, end - start);
+    }
+
+    public int indexAtOrAfter(Instant instant) {
+        long key = TransactionStore.toMicros(instant);
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (store.createdAtMicrosOf(records[offset + middle]) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // newest first, starting right below the exclusive upper index, as TransactionHistory.page
+    public TransactionPage page(long continuationToken, int pageSize) {
+        if (pageSize <= 0) {
+            throw new RuntimeException("Page size must be positive");
+        }
+        int end = TransactionHistory.pageEnd(continuationToken, size);
+        int start = Math.max(0, end - pageSize);
+        return new TransactionPage(new NewestFirst(new StoredHistory(store, records, offset + start, end - start)), start);
+    }
+
+    // the records created in [from, to), paged like TransactionHistory.page(from, to, ...)
+    public TransactionPage page(Instant from, Instant to, long continuationToken, int pageSize) {
+        return between(from, to).page(continuationToken, pageSize);
+    }
+
+    private static final class NewestFirst extends AbstractList<TransactionModel> implements RandomAccess {
+        private final List<TransactionModel> oldestFirst;
+
+        private NewestFirst(List<TransactionModel> oldestFirst) {
+            this.oldestFirst = oldestFirst;
+        }
+
+        @Override
+        public TransactionModel get(int index) {
+            return oldestFirst.get(oldestFirst.size() - 1 - index);
+        }
+
+        @Override
+        public int size() {
+            return oldestFirst.size();
+        }
+    }
+}
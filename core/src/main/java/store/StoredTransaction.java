@@ -0,0 +1,101 @@
+package store;
+
+import domain.MoneyModel;
+import domain.TransactionModel;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+// Flyweight over one record of a TransactionStore: it holds only the record number and decodes fields on access.
+// Read-only, the record is shared by both accounts of a transfer.
+public final class StoredTransaction extends TransactionModel {
+    private final TransactionStore store;
+    private final int record;
+
+    StoredTransaction(TransactionStore store, int record) {
+        super(null, null, null, null, (LocalDate) null, null);
+        this.store = store;
+        this.record = record;
+    }
+
+    public int getRecord() {
+        return record;
+    }
+
+    @Override
+    public UUID getId() {
+        return store.idOf(record);
+    }
+
+    @Override
+    public String getFrom() {
+        return store.fromOf(record);
+    }
+
+    @Override
+    public String getTo() {
+        return store.toOf(record);
+    }
+
+    @Override
+    public MoneyModel getAmount() {
+        return store.amountOf(record);
+    }
+
+    @Override
+    public LocalDate getTimestamp() {
+        return store.timestampOf(record);
+    }
+
+    @Override
+    public Instant getCreatedAt() {
+        return store.createdAtOf(record);
+    }
+
+    @Override
+    public void setId(UUID id) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setFrom(String from) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setTo(String to) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setAmount(MoneyModel amount) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setTimestamp(LocalDate timestamp) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setCreatedAt(Instant createdAt) {
+        throw readOnly();
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Stored transactions are read-only");
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionModel{" +
+                "id='" + getId() + '\'' +
+                ", from='" + getFrom() + '\'' +
+                ", to='" + getTo() + '\'' +
+                ", amount=" + getAmount() +
+                ", timestamp=" + getTimestamp() +
+                ", createdAt=" + getCreatedAt() +
+                '}';
+    }
+}
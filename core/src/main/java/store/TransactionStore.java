@@ -0,0 +1,251 @@
+package store;
+
+import domain.CurrencyType;
+import domain.MoneyModel;
+import repository.AccountHandleRegistry;
+import repository.AccountsRepository;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Transactions as fixed-width records in off-heap segments, accounts as their registry handles. A transfer is stored once and
+// both accounts keep only its 4-byte record number, instead of a TransactionModel with its UUID, MoneyModel,
+// LocalDate and Instant on the heap referenced from two histories.
+//
+// record: long idMostSignificantBits | long idLeastSignificantBits | long createdAtEpochMicros | long amountMinorUnits
+//         | int fromHandle | int toHandle | int timestampEpochDay | byte currency | 3 bytes padding
+//
+// Appends to one account come from one writer at a time (callers hold its lock), readers may run concurrently.
+public class TransactionStore {
+    public static final int RECORD_BYTES = 48;
+
+    private static final int RECORDS_PER_SEGMENT_SHIFT = 16;
+    private static final int RECORDS_PER_SEGMENT = 1 << RECORDS_PER_SEGMENT_SHIFT;
+    private static final int SEGMENT_BYTES = RECORDS_PER_SEGMENT * RECORD_BYTES;
+    private static final int MAX_SEGMENTS = Integer.MAX_VALUE / RECORDS_PER_SEGMENT + 1;
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final CurrencyType[] CURRENCIES = CurrencyType.values();
+    private static final VarHandle LIST = MethodHandles.arrayElementVarHandle(RecordList[].class);
+
+    private static final int ID_HIGH = 0;
+    private static final int ID_LOW = 8;
+    private static final int CREATED_AT = 16;
+    private static final int AMOUNT = 24;
+    private static final int FROM = 32;
+    private static final int TO = 36;
+    private static final int TIMESTAMP = 40;
+    private static final int CURRENCY = 44;
+
+    private final AccountHandleRegistry handles;
+    private final AtomicReferenceArray<ByteBuffer> segments = new AtomicReferenceArray<>(MAX_SEGMENTS);
+    private final AtomicInteger nextRecord = new AtomicInteger();
+    private final AtomicInteger segmentCount = new AtomicInteger();
+    private final AtomicInteger accountCount = new AtomicInteger();
+    private volatile RecordList[] lists = new RecordList[1024];
+
+    public TransactionStore() {
+        this(AccountsRepository.INSTANCE.getHandles());
+    }
+
+    public TransactionStore(AccountHandleRegistry handles) {
+        this.handles = handles;
+    }
+
+    // Callers hold the locks of both accounts. Each id gets a registry handle for good, see AccountHandleRegistry.handleOf.
+    public StoredTransaction append(UUID id, String fromAccountId, String toAccountId, MoneyModel amount, Instant createdAt) {
+        return append(id, handles.handleOf(fromAccountId), handles.handleOf(toAccountId), amount, createdAt);
+    }
+
+    // Handles of this store's registry. Creation times are clamped to never decrease within either account, which
+    // keeps every account's records in time order for range queries even if the wall clock steps back.
+    public StoredTransaction append(UUID id, int fromHandle, int toHandle, MoneyModel amount, Instant createdAt) {
+        RecordList fromList = listOf(fromHandle);
+        RecordList toList = listOf(toHandle);
+
+        long createdAtMicros = createdAt == null ? NO_TIME : Math.max(toMicros(createdAt), Math.max(fromList.lastMicros, toList.lastMicros));
+        int record = nextRecord.getAndIncrement();
+        if (record < 0) {
+            nextRecord.set(Integer.MIN_VALUE); // keeps later appends failing too
+            throw new RuntimeException("Transaction store is full");
+        }
+        ByteBuffer segment = segmentFor(record);
+        int base = (record & (RECORDS_PER_SEGMENT - 1)) * RECORD_BYTES;
+        segment.putLong(base + ID_HIGH, id == null ? 0 : id.getMostSignificantBits());
+        segment.putLong(base + ID_LOW, id == null ? 0 : id.getLeastSignificantBits());
+        segment.putLong(base + CREATED_AT, createdAtMicros);
+        segment.putLong(base + AMOUNT, amount.getMinorUnits());
+        segment.putInt(base + FROM, fromHandle);
+        segment.putInt(base + TO, toHandle);
+        segment.putInt(base + TIMESTAMP, createdAt == null ? NO_DATE : (int) LocalDate.ofInstant(fromMicros(createdAtMicros), ZoneId.systemDefault()).toEpochDay());
+        segment.put(base + CURRENCY, (byte) amount.getCurrency().ordinal());
+
+        fromList.add(record, createdAtMicros);
+        if (toList != fromList) {
+            toList.add(record, createdAtMicros);
+        }
+        return new StoredTransaction(this, record);
+    }
+
+    // the account's transactions so far, oldest first; later appends do not show up in the returned view
+    public StoredHistory historyOf(String accountId) {
+        return historyOf(handles.find(accountId));
+    }
+
+    public StoredHistory historyOf(int handle) {
+        RecordList[] current = lists;
+        RecordList list = handle < 0 || handle >= current.length ? null : (RecordList) LIST.getAcquire(current, handle);
+        if (list == null) {
+            return new StoredHistory(this, new int[0], 0, 0);
+        }
+        int size = list.size; // read before the array, which only ever grows to hold at least size entries
+        return new StoredHistory(this, list.records, 0, size);
+    }
+
+    public int getRecordCount() {
+        int next = nextRecord.get();
+        return next < 0 ? Integer.MAX_VALUE : next;
+    }
+
+    public int getAccountCount() {
+        return accountCount.get();
+    }
+
+    public long getOffHeapBytes() {
+        return (long) segmentCount.get() * SEGMENT_BYTES;
+    }
+
+    // the per-account record number arrays, the on-heap part of the store
+    public long getIndexBytes() {
+        long bytes = 0;
+        RecordList[] current = lists;
+        for (int handle = 0; handle < current.length; handle++) {
+            RecordList list = (RecordList) LIST.getAcquire(current, handle);
+            if (list != null) {
+                bytes += 16L + 4L * list.records.length + 32;
+            }
+        }
+        return bytes;
+    }
+
+    UUID idOf(int record) {
+        ByteBuffer segment = segmentOf(record);
+        int base = offsetOf(record);
+        long high = segment.getLong(base + ID_HIGH);
+        long low = segment.getLong(base + ID_LOW);
+        return high == 0 && low == 0 ? null : new UUID(high, low);
+    }
+
+    String fromOf(int record) {
+        return handles.idOf(segmentOf(record).getInt(offsetOf(record) + FROM));
+    }
+
+    String toOf(int record) {
+        return handles.idOf(segmentOf(record).getInt(offsetOf(record) + TO));
+    }
+
+    MoneyModel amountOf(int record) {
+        ByteBuffer segment = segmentOf(record);
+        int base = offsetOf(record);
+        return MoneyModel.ofMinorUnits(segment.getLong(base + AMOUNT), CURRENCIES[segment.get(base + CURRENCY)]);
+    }
+
+    LocalDate timestampOf(int record) {
+        int epochDay = segmentOf(record).getInt(offsetOf(record) + TIMESTAMP);
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    Instant createdAtOf(int record) {
+        long micros = createdAtMicrosOf(record);
+        return micros == NO_TIME ? null : fromMicros(micros);
+    }
+
+    long createdAtMicrosOf(int record) {
+        return segmentOf(record).getLong(offsetOf(record) + CREATED_AT);
+    }
+
+    static long toMicros(Instant instant) {
+        long seconds = instant.getEpochSecond();
+        if (seconds >= Long.MAX_VALUE / 1_000_000L) {
+            return Long.MAX_VALUE;
+        }
+        if (seconds <= Long.MIN_VALUE / 1_000_000L) {
+            return Long.MIN_VALUE + 1; // above NO_TIME
+        }
+        return seconds * 1_000_000L + instant.getNano() / 1_000;
+    }
+
+    private static Instant fromMicros(long micros) {
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L);
+    }
+
+    private ByteBuffer segmentOf(int record) {
+        return segments.get(record >>> RECORDS_PER_SEGMENT_SHIFT);
+    }
+
+    private static int offsetOf(int record) {
+        return (record & (RECORDS_PER_SEGMENT - 1)) * RECORD_BYTES;
+    }
+
+    private ByteBuffer segmentFor(int record) {
+        int index = record >>> RECORDS_PER_SEGMENT_SHIFT;
+        ByteBuffer segment = segments.get(index);
+        if (segment == null) {
+            ByteBuffer allocated = ByteBuffer.allocateDirect(SEGMENT_BYTES);
+            if (segments.compareAndSet(index, null, allocated)) {
+                segmentCount.incrementAndGet();
+            }
+            segment = segments.get(index);
+        }
+        return segment;
+    }
+
+    private RecordList listOf(int handle) {
+        RecordList[] current = lists;
+        RecordList list = handle < current.length ? (RecordList) LIST.getAcquire(current, handle) : null;
+        if (list != null) {
+            return list;
+        }
+        synchronized (this) {
+            current = lists;
+            if (handle >= current.length) {
+                current = Arrays.copyOf(current, Math.max(current.length * 2, handle + 1));
+            }
+            list = current[handle];
+            if (list == null) {
+                list = new RecordList();
+                accountCount.incrementAndGet();
+                LIST.setRelease(current, handle, list); // readers outside the lock see it fully built
+            }
+            lists = current;
+            return list;
+        }
+    }
+
+    // one account's record numbers in append order, written under the account's lock
+    private static final class RecordList {
+        private volatile int[] records = new int[4];
+        private volatile int size;
+        private long lastMicros = Long.MIN_VALUE;
+
+        private void add(int record, long createdAtMicros) {
+            int index = size;
+            int[] current = records;
+            if (index == current.length) {
+                current = Arrays.copyOf(current, index * 2);
+                records = current;
+            }
+            current[index] = record;
+            lastMicros = Math.max(lastMicros, createdAtMicros);
+            size = index + 1; // publishes the entry and the record bytes written before it
+        }
+    }
+}
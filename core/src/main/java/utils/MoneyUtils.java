@@ -0,0 +1,81 @@
+package utils;
+
+import domain.CurrencyType;
+import domain.MoneyModel;
+import fx.FxRates;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public class MoneyUtils {
+    public static final int MINOR_UNITS_PER_UNIT = 100;
+    public static final long RATE_SCALE = 1_000_000; // conversion rates are kept as millionths
+    // relative error of balance * rate against balance times the decimal rate, with room to spare
+    public static final double INTEREST_ERROR_BOUND = 0x1p-50;
+
+    public static MoneyModel convert(MoneyModel money, CurrencyType toCurrency) {
+        long convertedMinorUnits = convertMinorUnits(money.getMinorUnits(), money.getCurrency(), toCurrency);
+        return MoneyModel.ofMinorUnits(convertedMinorUnits, toCurrency);
+    }
+
+    // converts with the rates currently published in FxRates
+    public static long convertMinorUnits(long minorUnits, CurrencyType fromCurrency, CurrencyType toCurrency) {
+        return FxRates.INSTANCE.current().convertMinorUnits(minorUnits, fromCurrency, toCurrency);
+    }
+
+    public static double getConversionRate(CurrencyType fromCurrency, CurrencyType toCurrency) {
+        return (double) getScaledConversionRate(fromCurrency, toCurrency) / RATE_SCALE;
+    }
+
+    public static long getScaledConversionRate(CurrencyType fromCurrency, CurrencyType toCurrency) {
+        return FxRates.INSTANCE.current().getScaledRate(fromCurrency, toCurrency);
+    }
+
+    // Interest on the decimal value of the rate (0.055 is 5.5%, not the nearest double), rounded half-up, i.e. halves
+    // away from zero, to the minor unit. The double product is only trusted when it is too far from a half for its
+    // rounding error to matter; near-ties and very large balances are redone in BigDecimal.
+    public static long interestMinorUnits(long balanceMinorUnits, double rate) {
+        double product = balanceMinorUnits * rate;
+        double floor = Math.floor(product);
+        double fraction = product - floor;
+        if (Math.abs(fraction - 0.5) > Math.abs(product) * INTEREST_ERROR_BOUND) {
+            return (long) floor + (fraction > 0.5 ? 1 : 0);
+        }
+        return BigDecimal.valueOf(balanceMinorUnits)
+                .multiply(BigDecimal.valueOf(rate))
+                .setScale(0, RoundingMode.HALF_UP)
+                .longValueExact();
+    }
+
+    // An iterative catch-up, not a closed form: the periods are compounded one after another, each rounded like
+    // interestMinorUnits, so catching up several periods at once gives exactly what applying them one at a time does.
+    // The cost is O(periods); SavingsManagerService.passTime bounds the months of one call.
+    public static long catchUpInterestMinorUnits(long balanceMinorUnits, double rate, int periods) {
+        long interest = 0;
+        for (int period = 0; period < periods; period++) {
+            interest += interestMinorUnits(balanceMinorUnits + interest, rate);
+        }
+        return interest;
+    }
+
+    // amounts entered as decimals are rounded half-even to the minor unit
+    public static long toMinorUnits(double amount) {
+        return BigDecimal.valueOf(amount)
+                .movePointRight(2)
+                .setScale(0, RoundingMode.HALF_EVEN)
+                .longValueExact();
+    }
+
+    public static double toAmount(long minorUnits) {
+        return (double) minorUnits / MINOR_UNITS_PER_UNIT;
+    }
+
+    public static long divideHalfEven(long dividend, long divisor) {
+        long quotient = Math.floorDiv(dividend, divisor);
+        long twiceRemainder = 2 * (dividend - quotient * divisor);
+        if (twiceRemainder > divisor || (twiceRemainder == divisor && (quotient & 1) != 0)) {
+            quotient++;
+        }
+        return quotient;
+    }
+}
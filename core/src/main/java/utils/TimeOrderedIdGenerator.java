@@ -0,0 +1,56 @@
+package utils;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// UUIDv7 layout: 48 bit unix millis | version 7 | 12 high sequence bits
+//                variant | 4 low sequence bits | 58 bit random node
+// The (millis, sequence) counter is striped: a thread always uses the stripe its thread id falls on, advanced with a
+// CAS that only threads of the same stripe contend on. Each stripe owns a node (the generator's random node with the
+// stripe in its low bits), so ids are unique across stripes and strictly increasing within a thread. Across threads
+// they are ordered by millisecond; two threads' ids minted in the same millisecond may come out in either order. The
+// random node keeps two generators, in this process or another, from producing the same id in the same millisecond.
+public class TimeOrderedIdGenerator implements TransactionIdGenerator {
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+    private static final int SEQUENCE_BITS = 16;
+    private static final long NODE_MASK = (1L << 58) - 1;
+    private static final int STRIPE_BITS = 6;
+    private static final int STRIDE = 16; // longs between two stripes' counters, so no two share a cache line
+    private static final SecureRandom NODES = new SecureRandom();
+
+    // per stripe: millis << SEQUENCE_BITS | sequence; a sequence running over carries into the next millisecond
+    private final AtomicLongArray states;
+    private final int stripeMask;
+    private final long node = NODES.nextLong() & NODE_MASK & -(1L << STRIPE_BITS);
+
+    public TimeOrderedIdGenerator() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    // stripes is rounded up to a power of two, at most 64
+    public TimeOrderedIdGenerator(int stripes) {
+        int stripeCount = Integer.highestOneBit(Math.min(Math.max(1, stripes), 1 << STRIPE_BITS) * 2 - 1);
+        this.states = new AtomicLongArray(stripeCount * STRIDE);
+        this.stripeMask = stripeCount - 1;
+    }
+
+    @Override
+    public UUID nextId() {
+        int stripe = (int) Thread.currentThread().threadId() & stripeMask;
+        int slot = stripe * STRIDE;
+        long floor = System.currentTimeMillis() << SEQUENCE_BITS;
+        long current;
+        long next;
+        do {
+            current = states.get(slot);
+            next = Math.max(current + 1, floor); // never goes back, also when the clock does
+        } while (!states.compareAndSet(slot, current, next));
+
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        long mostSignificantBits = ((next >>> SEQUENCE_BITS) << 16) | VERSION_7 | (sequence >>> 4);
+        long leastSignificantBits = VARIANT | ((sequence & 0xF) << 58) | node | stripe;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+}
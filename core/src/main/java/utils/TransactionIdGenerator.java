@@ -0,0 +1,10 @@
+package utils;
+
+import java.util.UUID;
+
+@FunctionalInterface
+public interface TransactionIdGenerator {
+    TransactionIdGenerator RANDOM = UUID::randomUUID;
+
+    UUID nextId();
+}
@@ -0,0 +1,141 @@
+import domain.CheckingAccountModel;
+import domain.CurrencyType;
+import domain.MoneyModel;
+import domain.OperationResult;
+import domain.RejectionReason;
+import domain.TransactionModel;
+import org.junit.After;
+import org.junit.Test;
+import repository.AccountHandleRegistry;
+import repository.AccountsDatabase;
+import repository.AccountsRepository;
+import services.AccountLocks;
+import services.LockingMode;
+import services.TransactionManagerService;
+import store.TransactionStore;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class AccountHandleRegistryTest {
+    private final AccountsDatabase database = new AccountsDatabase();
+    private final AccountHandleRegistry handles = database.getHandles();
+
+    @After
+    public void tearDown() {
+        AccountsRepository.INSTANCE.clear();
+    }
+
+    @Test
+    public void handlesAreDenseAndFollowTheDatabase() {
+        for (int i = 0; i < 3_000; i++) { // past the initial capacity
+            database.add("HANDLE" + i, account("HANDLE" + i));
+        }
+        for (int i = 0; i < 3_000; i++) {
+            assertEquals(i, handles.find("HANDLE" + i));
+            assertEquals("HANDLE" + i, handles.idOf(i));
+            assertSame(database.get("HANDLE" + i), handles.accountAt(i));
+        }
+        assertEquals(AccountHandleRegistry.NO_HANDLE, handles.find("MISSING"));
+        assertNull(handles.accountAt(AccountHandleRegistry.NO_HANDLE));
+        assertNull(handles.accountAt(1_000_000));
+    }
+
+    @Test
+    public void handleOfAnIdSurvivesRemoveAndReAdd() {
+        database.add("HANDLE_A", account("HANDLE_A"));
+        int handle = handles.find("HANDLE_A");
+
+        database.clear();
+        assertNull(handles.accountAt(handle));
+
+        CheckingAccountModel replacement = account("HANDLE_A");
+        database.add(replacement.getId(), replacement);
+        assertEquals(handle, handles.find("HANDLE_A"));
+        assertSame(replacement, handles.accountAt(handle));
+        assertEquals(1, handles.size());
+    }
+
+    @Test
+    public void serviceOverloadsResolveHandlesWithoutTheIds() {
+        CheckingAccountModel first = account("HANDLE_FROM");
+        CheckingAccountModel second = account("HANDLE_TO");
+        AccountsRepository.INSTANCE.add(first.getId(), first);
+        AccountsRepository.INSTANCE.add(second.getId(), second);
+        AccountHandleRegistry registry = AccountsRepository.INSTANCE.getHandles();
+        int from = registry.find(first.getId());
+        int to = registry.find(second.getId());
+        TransactionManagerService service = new TransactionManagerService(LockingMode.PER_ACCOUNT);
+
+        TransactionModel transfer = service.transfer(from, to, new MoneyModel(10, CurrencyType.RON));
+        service.withdraw(from, new MoneyModel(5, CurrencyType.RON));
+
+        assertEquals(second.getId(), transfer.getTo());
+        assertEquals(new MoneyModel(985, CurrencyType.RON).getMinorUnits(), service.checkFunds(from).getMinorUnits());
+        assertEquals(service.readBalance(second.getId()).getMinorUnits(), service.readBalance(to).getMinorUnits());
+        assertEquals(2, service.retrieveTransactions(from).size());
+        assertEquals(RejectionReason.UNKNOWN_ACCOUNT,
+                service.tryTransfer(from, AccountHandleRegistry.NO_HANDLE, new MoneyModel(1, CurrencyType.RON)).getRejectionReason());
+
+        AccountsRepository.INSTANCE.remove(second.getId());
+        OperationResult<TransactionModel> removed = service.tryTransfer(from, to, new MoneyModel(1, CurrencyType.RON));
+        assertEquals(RejectionReason.UNKNOWN_ACCOUNT, removed.getRejectionReason());
+    }
+
+    @Test
+    public void transactionStoreSharesTheRepositoryHandles() {
+        CheckingAccountModel first = account("HANDLE_STORE_A");
+        CheckingAccountModel second = account("HANDLE_STORE_B");
+        AccountsRepository.INSTANCE.add(first.getId(), first);
+        AccountsRepository.INSTANCE.add(second.getId(), second);
+        TransactionManagerService service = new TransactionManagerService(LockingMode.PER_ACCOUNT);
+        TransactionStore store = new TransactionStore();
+        service.setTransactionStore(store);
+
+        service.transfer(first.getId(), second.getId(), new MoneyModel(1, CurrencyType.RON));
+
+        int handle = AccountsRepository.INSTANCE.getHandles().find(second.getId());
+        assertEquals(1, store.historyOf(handle).size());
+        assertEquals(1, service.retrieveTransactions(handle).size());
+        assertEquals(2, store.getAccountCount());
+    }
+
+    @Test
+    public void consecutiveHandlesTakeDistinctLockStripes() {
+        AccountLocks locks = new AccountLocks(1_024);
+        int[] handles = new int[1_024];
+        for (int handle = 0; handle < handles.length; handle++) {
+            handles[handle] = handle;
+        }
+
+        assertEquals(1_024, locks.stripesOf(handles).length);
+        assertEquals(locks.stripeOf(3), locks.stripeOf(1_024 + 3));
+    }
+
+    @Test
+    public void unknownIdsAreNotGivenHandles() {
+        CheckingAccountModel account = account("HANDLE_KNOWN");
+        AccountsRepository.INSTANCE.add(account.getId(), account);
+        AccountHandleRegistry registry = AccountsRepository.INSTANCE.getHandles();
+        int size = registry.size();
+        TransactionManagerService service = new TransactionManagerService(LockingMode.PER_ACCOUNT);
+        service.setTransactionStore(new TransactionStore());
+
+        assertEquals(RejectionReason.UNKNOWN_ACCOUNT,
+                service.tryTransfer(account.getId(), "HANDLE_UNKNOWN", new MoneyModel(1, CurrencyType.RON)).getRejectionReason());
+        assertEquals(RejectionReason.UNKNOWN_ACCOUNT,
+                service.tryWithdraw(null, new MoneyModel(1, CurrencyType.RON)).getRejectionReason());
+        service.withdraw(account.getId(), new MoneyModel(1, CurrencyType.RON));
+
+        assertEquals(size, registry.size());
+        assertEquals(AccountHandleRegistry.NO_HANDLE, registry.find(null));
+        assertNull(registry.idOf(AccountHandleRegistry.NO_HANDLE));
+    }
+
+    private static CheckingAccountModel account(String id) {
+        return new CheckingAccountModel(id, new MoneyModel(1_000, CurrencyType.RON), new ArrayList<>(), null);
+    }
+}
@@ -0,0 +1,80 @@
+import domain.BalanceSnapshot;
+import domain.CheckingAccountModel;
+import domain.CurrencyType;
+import domain.MoneyModel;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import repository.AccountsRepository;
+import services.TransactionManagerService;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class BalanceSnapshotTest {
+    private final CheckingAccountModel account = new CheckingAccountModel("SNAP1", MoneyModel.ofMinorUnits(0, CurrencyType.RON), new ArrayList<>(), null);
+
+    @Before
+    public void setUp() {
+        AccountsRepository.INSTANCE.add(account.getId(), account);
+    }
+
+    @After
+    public void tearDown() {
+        AccountsRepository.INSTANCE.remove(account.getId());
+    }
+
+    @Test
+    public void snapshotsAreDetachedFromTheLiveBalance() {
+        TransactionManagerService service = new TransactionManagerService();
+        BalanceSnapshot before = service.readBalance(account.getId());
+        before.toMoney().add(500);
+        account.getBalance().add(100);
+
+        assertEquals(0, before.getMinorUnits());
+        assertEquals(100, service.readBalance(account.getId()).getMinorUnits());
+        assertEquals(before.getVersion() + 2, service.readBalance(account.getId()).getVersion());
+    }
+
+    @Test
+    public void readersOnlySeeCommittedWritesWhileWritersRace() throws Exception {
+        TransactionManagerService service = new TransactionManagerService();
+        int writers = 3;
+        int writesPerWriter = 200_000;
+        AtomicBoolean failed = new AtomicBoolean();
+        AtomicBoolean writing = new AtomicBoolean(true);
+
+        // every write adds one, so a committed state always has minorUnits == version / 2
+        Thread reader = new Thread(() -> {
+            long lastVersion = -1;
+            while (writing.get()) {
+                BalanceSnapshot snapshot = service.readBalance(account.getId());
+                if (snapshot.getMinorUnits() != snapshot.getVersion() / 2 || snapshot.getVersion() < lastVersion) {
+                    failed.set(true);
+                }
+                lastVersion = snapshot.getVersion();
+            }
+        });
+        reader.start();
+        Thread[] threads = new Thread[writers];
+        for (int w = 0; w < writers; w++) {
+            threads[w] = new Thread(() -> {
+                for (int i = 0; i < writesPerWriter; i++) {
+                    account.getBalance().add(1);
+                }
+            });
+            threads[w].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        writing.set(false);
+        reader.join();
+
+        assertFalse(failed.get());
+        assertEquals((long) writers * writesPerWriter, account.getBalance().getMinorUnits());
+    }
+}
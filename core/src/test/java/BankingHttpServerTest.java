@@ -0,0 +1,110 @@
+import domain.CheckingAccountModel;
+import domain.CurrencyType;
+import domain.MoneyModel;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import repository.AccountsRepository;
+import server.BankingHttpServer;
+import services.LockingMode;
+import services.SavingsManagerService;
+import services.TransactionManagerService;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BankingHttpServerTest {
+    private final CheckingAccountModel first = new CheckingAccountModel("HTTP1", new MoneyModel(100, CurrencyType.RON), new ArrayList<>(), null);
+    private final CheckingAccountModel second = new CheckingAccountModel("HTTP2", new MoneyModel(0, CurrencyType.RON), new ArrayList<>(), null);
+    private final HttpClient client = HttpClient.newHttpClient();
+    private BankingHttpServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        AccountsRepository.INSTANCE.add(first.getId(), first);
+        AccountsRepository.INSTANCE.add(second.getId(), second);
+        server = BankingHttpServer.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                new TransactionManagerService(LockingMode.PER_ACCOUNT), new SavingsManagerService());
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+        AccountsRepository.INSTANCE.remove(first.getId());
+        AccountsRepository.INSTANCE.remove(second.getId());
+    }
+
+    @Test
+    public void transferThenReadFundsAndTransactions() throws Exception {
+        HttpResponse<String> transfer = post("/transfers", "{\"from\": \"HTTP1\", \"to\": \"HTTP2\", \"amount\": \"12.34\", \"currency\": \"RON\"}");
+        assertEquals(200, transfer.statusCode());
+        assertTrue(transfer.body().contains("\"amount\":{\"amount\":12.34,\"currency\":\"RON\"}"));
+
+        assertEquals("{\"amount\":87.66,\"currency\":\"RON\",\"version\":2}", get("/accounts/HTTP1/funds").body());
+        HttpResponse<String> transactions = get("/accounts/HTTP2/transactions?pageSize=10");
+        assertEquals(200, transactions.statusCode());
+        assertTrue(transactions.body().contains("\"from\":\"HTTP1\""));
+        assertTrue(transactions.body().endsWith("\"continuation\":null}"));
+    }
+
+    @Test
+    public void dateRangesArePaged() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, post("/transfers", "{\"from\": \"HTTP1\", \"to\": \"HTTP2\", \"amount\": \"1\", \"currency\": \"RON\"}").statusCode());
+        }
+        String range = "/accounts/HTTP2/transactions?from=" + LocalDate.now().minusDays(1) + "&to=" + LocalDate.now().plusDays(1);
+
+        String firstPage = get(range + "&pageSize=2").body();
+        assertEquals(2, firstPage.split("\"from\":\"HTTP1\"", -1).length - 1);
+        String continuation = firstPage.substring(firstPage.lastIndexOf("\"continuation\":") + "\"continuation\":".length(), firstPage.length() - 1);
+        String lastPage = get(range + "&pageSize=2&continuation=" + continuation).body();
+        assertEquals(1, lastPage.split("\"from\":\"HTTP1\"", -1).length - 1);
+        assertTrue(lastPage.endsWith("\"continuation\":null}"));
+
+        assertEquals(400, get("/accounts/HTTP2/transactions?from=2024-01-01").statusCode());
+        assertEquals(400, get(range + "&pageSize=1001").statusCode());
+    }
+
+    @Test
+    public void rejectionsAndBadRequestsMapToStatusCodes() throws Exception {
+        HttpResponse<String> insufficient = post("/transfers", "{\"from\":\"HTTP2\",\"to\":\"HTTP1\",\"amount\":\"1\",\"currency\":\"RON\"}");
+        assertEquals(422, insufficient.statusCode());
+        assertTrue(insufficient.body().contains("\"error\":\"INSUFFICIENT_FUNDS\""));
+
+        assertEquals(404, get("/accounts/MISSING/funds").statusCode());
+        assertEquals(404, post("/withdrawals", "{\"account\":\"MISSING\",\"amount\":\"1\",\"currency\":\"RON\"}").statusCode());
+        assertEquals(400, post("/transfers", "{\"from\":\"HTTP1\"").statusCode());
+        assertEquals(400, post("/transfers", "{\"from\":\"HTTP1\",\"to\":\"HTTP2\",\"amount\":\"x\",\"currency\":\"RON\"}").statusCode());
+        assertEquals(400, get("/accounts/HTTP1/transactions?continuation=-5").statusCode());
+        assertEquals(400, get("/accounts/HTTP1/transactions?continuation=1000").statusCode());
+        assertEquals(400, get("/accounts/HTTP1/transactions?pageSize=4294967297").statusCode()); // 2^32 + 1, not 1
+        assertEquals(400, post("/savings/pass-time", "{\"months\":\"4294967297\"}").statusCode());
+        assertEquals(400, get("/accounts/HTTP1/transactions?pageSize=1001").statusCode());
+        assertEquals(400, post("/savings/pass-time", "{\"months\":\"1201\"}").statusCode());
+        assertEquals(400, post("/transfers", "{\"from\":\"HTTP\\u00zz\",\"to\":\"HTTP2\",\"amount\":\"1\",\"currency\":\"RON\"}").statusCode());
+        assertEquals(400, post("/transfers", "{\"from\":\"HTTP\\u-001\",\"to\":\"HTTP2\",\"amount\":\"1\",\"currency\":\"RON\"}").statusCode());
+        assertEquals(405, get("/transfers").statusCode());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + server.getPort() + path);
+    }
+}
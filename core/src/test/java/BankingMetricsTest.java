@@ -0,0 +1,133 @@
+import domain.CapitalizationFrequency;
+import domain.CheckingAccountModel;
+import domain.CurrencyType;
+import domain.InterestRate;
+import domain.MoneyModel;
+import domain.RejectionReason;
+import domain.SavingsAccountModel;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import metrics.BankingMetrics;
+import metrics.LatencyHistogram;
+import metrics.MeteredOperation;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import repository.AccountsRepository;
+import services.TransactionManagerService;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BankingMetricsTest {
+    private final BankingMetrics metrics = BankingMetrics.INSTANCE;
+    private final TransactionManagerService service = new TransactionManagerService();
+    private final CheckingAccountModel checkingAccountA = new CheckingAccountModel("METRICS_A", new MoneyModel(100, CurrencyType.RON), new ArrayList<>(), null);
+    private final CheckingAccountModel checkingAccountB = new CheckingAccountModel("METRICS_B", new MoneyModel(100, CurrencyType.EUR), new ArrayList<>(), null);
+    private final SavingsAccountModel savingsAccountA = new SavingsAccountModel("METRICS_S", new MoneyModel(100, CurrencyType.RON), new ArrayList<>(),
+            InterestRate.ONE_MONTH_ACCOUNT, CapitalizationFrequency.MONTHLY, LocalDate.now());
+
+    @Before
+    public void setUp() {
+        AccountsRepository.INSTANCE.add(checkingAccountA.getId(), checkingAccountA);
+        AccountsRepository.INSTANCE.add(checkingAccountB.getId(), checkingAccountB);
+        AccountsRepository.INSTANCE.add(savingsAccountA.getId(), savingsAccountA);
+        metrics.reset();
+        metrics.setLatencySampleRate(1);
+    }
+
+    @After
+    public void tearDown() {
+        metrics.setEnabled(true);
+        metrics.setLatencySampleRate(8);
+        AccountsRepository.INSTANCE.remove(checkingAccountA.getId());
+        AccountsRepository.INSTANCE.remove(checkingAccountB.getId());
+        AccountsRepository.INSTANCE.remove(savingsAccountA.getId());
+    }
+
+    @Test
+    public void percentilesStayWithinTheBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 100_000; nanos++) {
+            histogram.record(nanos);
+        }
+
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100_000, histogram.getMaxNanos());
+        long median = histogram.valueAtPercentile(50);
+        assertTrue("median was " + median, median >= 50_000 && median <= 50_000 * 1.125);
+        long p99 = histogram.valueAtPercentile(99);
+        assertTrue("p99 was " + p99, p99 >= 99_000 && p99 <= 100_000);
+    }
+
+    @Test
+    public void servicesCountLatenciesRejectionsAndCurrencyPairs() {
+        service.tryTransfer(checkingAccountA.getId(), checkingAccountB.getId(), new MoneyModel(1, CurrencyType.RON));
+        service.tryTransfer(checkingAccountA.getId(), checkingAccountB.getId(), new MoneyModel(-1, CurrencyType.RON));
+        service.tryTransfer(savingsAccountA.getId(), checkingAccountB.getId(), new MoneyModel(1, CurrencyType.RON));
+        service.tryWithdraw("MISSING", new MoneyModel(1, CurrencyType.RON));
+        service.tryCheckFunds(checkingAccountB.getId());
+
+        assertEquals(3, metrics.getLatency(MeteredOperation.TRANSFER).getCount());
+        assertEquals(1, metrics.getLatency(MeteredOperation.WITHDRAW).getCount());
+        assertEquals(1, metrics.getLatency(MeteredOperation.CHECK_FUNDS).getCount());
+        assertEquals(1, metrics.getRejectionCount(RejectionReason.NEGATIVE_AMOUNT));
+        assertEquals(1, metrics.getRejectionCount(RejectionReason.SAVINGS_SOURCE));
+        assertEquals(1, metrics.getRejectionCount(RejectionReason.UNKNOWN_ACCOUNT));
+        assertEquals(1, metrics.getCurrencyPairCount(CurrencyType.RON, CurrencyType.EUR));
+    }
+
+    @Test
+    public void disabledMetricsRecordNothing() {
+        metrics.setEnabled(false);
+        service.tryTransfer(checkingAccountA.getId(), checkingAccountB.getId(), new MoneyModel(-1, CurrencyType.RON));
+
+        assertEquals(0, metrics.getLatency(MeteredOperation.TRANSFER).getCount());
+        assertEquals(0, metrics.getRejectionCount(RejectionReason.NEGATIVE_AMOUNT));
+    }
+
+    @Test
+    public void jfrEventsCoverEveryCallWhateverTheSampling() throws Exception {
+        metrics.setEnabled(false);
+        metrics.setLatencySampleRate(8);
+        Path file = Files.createTempFile("operations", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("banking.Operation");
+            recording.start();
+            for (int i = 0; i < 100; i++) {
+                service.tryCheckFunds(checkingAccountA.getId());
+            }
+            recording.stop();
+            recording.dump(file);
+
+            long events = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals("banking.Operation"))
+                    .count();
+            assertEquals(100, events);
+            assertEquals(0, metrics.getLatency(MeteredOperation.CHECK_FUNDS).getCount());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void countersAreReadableOverJmx() throws Exception {
+        BankingMetrics.register();
+        service.tryWithdraw("MISSING", new MoneyModel(1, CurrencyType.RON));
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        TabularData rejections = (TabularData) server.getAttribute(new ObjectName(BankingMetrics.OBJECT_NAME), "RejectionCounts");
+        assertEquals(1L, rejections.get(new Object[]{"UNKNOWN_ACCOUNT"}).get("value"));
+        TabularData latencies = (TabularData) server.getAttribute(new ObjectName(BankingMetrics.OBJECT_NAME), "LatencyMicros");
+        assertEquals(1.0, latencies.get(new Object[]{"withdraw.count"}).get("value"));
+    }
+}
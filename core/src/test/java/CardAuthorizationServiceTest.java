@@ -0,0 +1,137 @@
+import domain.AuthorizationType;
+import domain.CardAuthorization;
+import domain.CardModel;
+import domain.CheckingAccountModel;
+import domain.CurrencyType;
+import domain.MoneyModel;
+import domain.OperationResult;
+import domain.RejectionReason;
+import metrics.BankingMetrics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import repository.AccountsRepository;
+import services.CardAuthorizationService;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CardAuthorizationServiceTest {
+    private static final long CARD_NUMBER = 4_111_111_111_111_111L;
+    private static final Instant NOW = Instant.parse("2024-05-15T23:59:00Z");
+
+    private final CardModel card = new CardModel(CARD_NUMBER, "Holder", 123, LocalDate.of(2024, 5, 16), LocalDate.of(2021, 5, 16),
+            true, true, 500, 1000);
+    private final CheckingAccountModel account = new CheckingAccountModel("CARD_ACCOUNT", new MoneyModel(10_000, CurrencyType.RON), new ArrayList<>(), card);
+
+    @Before
+    public void setUp() {
+        AccountsRepository.INSTANCE.add(account.getId(), account);
+    }
+
+    @After
+    public void tearDown() {
+        AccountsRepository.INSTANCE.remove(account.getId());
+    }
+
+    @Test
+    public void dailyLimitsAreEnforcedPerTypeAndResetWithTheDay() {
+        MutableClock clock = new MutableClock(NOW);
+        CardAuthorizationService service = new CardAuthorizationService(clock);
+
+        OperationResult<CardAuthorization> first = service.authorize(CARD_NUMBER, new MoneyModel(300, CurrencyType.RON), AuthorizationType.WITHDRAWAL);
+        assertTrue(first.isApplied());
+        assertEquals(20_000, first.getValue().getRemainingDailyMinorUnits());
+        assertEquals(RejectionReason.DAILY_LIMIT_EXCEEDED,
+                service.authorize(CARD_NUMBER, new MoneyModel(300, CurrencyType.RON), AuthorizationType.WITHDRAWAL).getRejectionReason());
+        assertTrue(service.authorize(CARD_NUMBER, new MoneyModel(900, CurrencyType.RON), AuthorizationType.PURCHASE).isApplied());
+
+        clock.advance(Duration.ofMinutes(2));
+        assertEquals(0, service.getSpentToday(CARD_NUMBER, AuthorizationType.WITHDRAWAL));
+        assertTrue(service.authorize(CARD_NUMBER, new MoneyModel(500, CurrencyType.RON), AuthorizationType.WITHDRAWAL).isApplied());
+        assertEquals(50_000, service.getSpentToday(CARD_NUMBER, AuthorizationType.WITHDRAWAL));
+    }
+
+    @Test
+    public void cardStatusIsChecked() {
+        MutableClock clock = new MutableClock(NOW);
+        CardAuthorizationService service = new CardAuthorizationService(clock);
+        MoneyModel amount = new MoneyModel(10, CurrencyType.RON);
+
+        assertEquals(RejectionReason.UNKNOWN_CARD, service.authorize(42, amount, AuthorizationType.PURCHASE).getRejectionReason());
+        assertEquals(RejectionReason.UNSUPPORTED_CURRENCY,
+                service.authorize(CARD_NUMBER, new MoneyModel(10, CurrencyType.EUR), AuthorizationType.PURCHASE).getRejectionReason());
+        assertEquals(RejectionReason.INSUFFICIENT_FUNDS,
+                service.authorize(CARD_NUMBER, new MoneyModel(10_001, CurrencyType.RON), AuthorizationType.PURCHASE).getRejectionReason());
+
+        clock.advance(Duration.ofDays(2)); // valid through its expiration date
+        assertEquals(RejectionReason.CARD_EXPIRED, service.authorize(CARD_NUMBER, amount, AuthorizationType.PURCHASE).getRejectionReason());
+
+        card.setActive(false);
+        assertEquals(RejectionReason.CARD_INACTIVE, service.authorize(CARD_NUMBER, amount, AuthorizationType.PURCHASE).getRejectionReason());
+        card.setActive(true);
+    }
+
+    @Test
+    public void concurrentAuthorizationsNeverOverspend() throws Exception {
+        CardAuthorizationService service = new CardAuthorizationService(new MutableClock(NOW));
+        MoneyModel amount = MoneyModel.ofMinorUnits(7, CurrencyType.RON);
+        AtomicInteger approved = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int thread = 0; thread < 4; thread++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    if (service.authorize(CARD_NUMBER, amount, AuthorizationType.PURCHASE).isApplied()) {
+                        approved.incrementAndGet();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(100_000 / 7, approved.get());
+        assertEquals(approved.get() * 7L, service.getSpentToday(CARD_NUMBER, AuthorizationType.PURCHASE));
+        assertFalse(service.authorize(CARD_NUMBER, amount, AuthorizationType.PURCHASE).isApplied());
+    }
+
+    @Test
+    public void cardsRegisteredOneByOneAreAllFoundAndKeepTheirSpend() {
+        CardAuthorizationService service = new CardAuthorizationService(new MutableClock(NOW));
+        MoneyModel amount = new MoneyModel(1, CurrencyType.RON);
+        assertTrue(service.authorize(CARD_NUMBER, amount, AuthorizationType.PURCHASE).isApplied());
+        for (int i = 1; i <= 5_000; i++) { // grows the index several times
+            service.register(new CheckingAccountModel("CARD_" + i, new MoneyModel(100, CurrencyType.RON), new ArrayList<>(), cardNumbered(i)));
+        }
+        service.register(account); // a re-registration keeps the day's spend
+
+        for (int i = 1; i <= 5_000; i++) {
+            assertTrue(service.authorize(i, amount, AuthorizationType.PURCHASE).isApplied());
+        }
+        assertEquals(100, service.getSpentToday(CARD_NUMBER, AuthorizationType.PURCHASE));
+    }
+
+    @Test
+    public void declinesAreCountedInTheMetrics() {
+        CardAuthorizationService service = new CardAuthorizationService(new MutableClock(NOW));
+        long before = BankingMetrics.INSTANCE.getRejectionCount(RejectionReason.UNKNOWN_CARD);
+
+        service.authorize(42, new MoneyModel(10, CurrencyType.RON), AuthorizationType.PURCHASE);
+
+        assertEquals(before + 1, BankingMetrics.INSTANCE.getRejectionCount(RejectionReason.UNKNOWN_CARD));
+    }
+
+    private static CardModel cardNumbered(long cardNumber) {
+        return new CardModel(cardNumber, "Holder", 123, LocalDate.of(2030, 1, 31), LocalDate.of(2021, 5, 16), true, true, 100, 100);
+    }
+}
@@ -0,0 +1,104 @@
+import domain.CheckingAccountModel;
+import domain.CurrencyType;
+import domain.MoneyModel;
+import domain.OperationResult;
+import domain.RejectionReason;
+import domain.TransactionModel;
+import fx.FxRateMatrix;
+import fx.FxRates;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import repository.AccountsRepository;
+import services.LockingMode;
+import services.TransactionManagerService;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FxRatesTest {
+    private final CheckingAccountModel dollars = new CheckingAccountModel("FX_USD", new MoneyModel(1_000_000, CurrencyType.USD), new ArrayList<>(), null);
+    private final CheckingAccountModel euros = new CheckingAccountModel("FX_EUR", new MoneyModel(0, CurrencyType.EUR), new ArrayList<>(), null);
+
+    @Before
+    public void setUp() {
+        AccountsRepository.INSTANCE.add(dollars.getId(), dollars);
+        AccountsRepository.INSTANCE.add(euros.getId(), euros);
+    }
+
+    @After
+    public void tearDown() {
+        AccountsRepository.INSTANCE.remove(dollars.getId());
+        AccountsRepository.INSTANCE.remove(euros.getId());
+        FxRates.INSTANCE.publish(FxRateMatrix.defaults());
+    }
+
+    @Test
+    public void ratesLoadFromFile() throws Exception {
+        Path file = Files.createTempFile("rates", ".txt");
+        try {
+            Files.writeString(file, "# mid-market\nUSD EUR 0.92\nEUR USD 1.087\n\nEUR RON 4.97\n");
+            FxRates.INSTANCE.load(file);
+        } finally {
+            Files.delete(file);
+        }
+
+        FxRateMatrix rates = FxRates.INSTANCE.current();
+        assertEquals(920_000, rates.getScaledRate(CurrencyType.USD, CurrencyType.EUR));
+        assertEquals(1_000_000, rates.getScaledRate(CurrencyType.GBP, CurrencyType.GBP));
+        assertEquals(FxRateMatrix.NO_RATE, rates.getScaledRate(CurrencyType.RON, CurrencyType.EUR));
+
+        TransactionManagerService service = new TransactionManagerService();
+        service.transfer(dollars.getId(), euros.getId(), new MoneyModel(100, CurrencyType.USD));
+        assertEquals(92.0, euros.getBalance().getAmount(), 0.0);
+    }
+
+    @Test
+    public void missingRateRejectsTheTransfer() {
+        TransactionManagerService service = new TransactionManagerService();
+        OperationResult<TransactionModel> result = service.tryTransfer(dollars.getId(), euros.getId(), new MoneyModel(100, CurrencyType.USD));
+
+        assertEquals(RejectionReason.UNSUPPORTED_CURRENCY, result.getRejectionReason());
+        assertEquals(0, euros.getBalance().getMinorUnits());
+    }
+
+    @Test(timeout = 60_000)
+    public void transfersSeeOneMatrixWhileRatesAreSwapped() throws Exception {
+        FxRateMatrix withRate = FxRateMatrix.builder().rate(CurrencyType.USD, CurrencyType.EUR, 500_000).build();
+        FxRateMatrix withoutRate = FxRateMatrix.builder().build();
+        FxRates.INSTANCE.publish(withRate);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread publisher = new Thread(() -> {
+            for (int i = 1; running.get(); i++) {
+                FxRates.INSTANCE.publish(i % 2 == 0 ? withRate : withoutRate);
+            }
+        });
+        publisher.start();
+
+        TransactionManagerService service = new TransactionManagerService(LockingMode.PER_ACCOUNT);
+        int applied = 0;
+        int rejected = 0;
+        try {
+            // runs until both matrices were seen, however late the publisher gets scheduled
+            for (int i = 0; i < 20_000 || applied == 0 || rejected == 0; i++) {
+                OperationResult<TransactionModel> result = service.tryTransfer(dollars.getId(), euros.getId(), MoneyModel.ofMinorUnits(2, CurrencyType.USD));
+                if (result.isApplied()) {
+                    applied++;
+                } else {
+                    assertEquals(RejectionReason.UNSUPPORTED_CURRENCY, result.getRejectionReason());
+                    rejected++;
+                }
+            }
+        } finally {
+            running.set(false);
+            publisher.join();
+        }
+
+        assertEquals(applied, euros.getBalance().getMinorUnits());
+    }
+}
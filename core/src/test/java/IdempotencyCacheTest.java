@@ -0,0 +1,218 @@
+import domain.CheckingAccountModel;
+import domain.CurrencyType;
+import domain.MoneyModel;
+import domain.OperationResult;
+import domain.RejectionReason;
+import domain.TransactionModel;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import repository.AccountsRepository;
+import metrics.BankingMetrics;
+import services.BalanceGate;
+import services.IdempotencyCache;
+import services.LockingMode;
+import services.TransactionManagerService;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class IdempotencyCacheTest {
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-05-15T10:00:00Z"));
+    private final TransactionManagerService service = new TransactionManagerService(LockingMode.PER_ACCOUNT);
+    private final CheckingAccountModel checkingAccountA = new CheckingAccountModel("IDEMPOTENCY_A", new MoneyModel(100, CurrencyType.RON), new ArrayList<>(), null);
+    private final CheckingAccountModel checkingAccountB = new CheckingAccountModel("IDEMPOTENCY_B", new MoneyModel(300, CurrencyType.RON), new ArrayList<>(), null);
+
+    @Before
+    public void setUp() {
+        AccountsRepository.INSTANCE.add(checkingAccountA.getId(), checkingAccountA);
+        AccountsRepository.INSTANCE.add(checkingAccountB.getId(), checkingAccountB);
+        service.setIdempotencyCache(new IdempotencyCache(1_000, Duration.ofMinutes(10), clock));
+    }
+
+    @After
+    public void tearDown() {
+        for (String id : new String[]{checkingAccountA.getId(), checkingAccountB.getId(), "IDEMPOTENCY_Aa", "IDEMPOTENCY_BB"}) {
+            AccountsRepository.INSTANCE.remove(id);
+        }
+    }
+
+    @Test
+    public void retryReturnsTheOriginalTransaction() {
+        long before = checkingAccountA.getBalance().getMinorUnits();
+        TransactionModel first = service.transfer(checkingAccountA.getId(), checkingAccountB.getId(), new MoneyModel(10, CurrencyType.RON), "request-1");
+        TransactionModel retry = service.transfer(checkingAccountA.getId(), checkingAccountB.getId(), new MoneyModel(10, CurrencyType.RON), "request-1");
+
+        assertSame(first, retry);
+        assertEquals(before - 1_000, checkingAccountA.getBalance().getMinorUnits());
+        assertNotSame(first, service.transfer(checkingAccountA.getId(), checkingAccountB.getId(), new MoneyModel(10, CurrencyType.RON), "request-2"));
+    }
+
+    @Test
+    public void keyReusedForADifferentRequestIsRejected() {
+        service.withdraw(checkingAccountA.getId(), new MoneyModel(1, CurrencyType.RON), "request-1");
+
+        OperationResult<TransactionModel> result = service.tryWithdraw(checkingAccountA.getId(), new MoneyModel(2, CurrencyType.RON), "request-1");
+
+        assertEquals(RejectionReason.IDEMPOTENCY_KEY_REUSED, result.getRejectionReason());
+    }
+
+    @Test
+    public void keyReusedForAnAccountWithTheSameHashCodeIsRejected() {
+        CheckingAccountModel first = new CheckingAccountModel("IDEMPOTENCY_Aa", new MoneyModel(100, CurrencyType.RON), new ArrayList<>(), null);
+        CheckingAccountModel second = new CheckingAccountModel("IDEMPOTENCY_BB", new MoneyModel(100, CurrencyType.RON), new ArrayList<>(), null);
+        AccountsRepository.INSTANCE.add(first.getId(), first);
+        AccountsRepository.INSTANCE.add(second.getId(), second);
+        assertEquals(first.getId().hashCode(), second.getId().hashCode());
+        service.withdraw(first.getId(), new MoneyModel(1, CurrencyType.RON), "request-1");
+
+        OperationResult<TransactionModel> result = service.tryWithdraw(second.getId(), new MoneyModel(1, CurrencyType.RON), "request-1");
+
+        assertEquals(RejectionReason.IDEMPOTENCY_KEY_REUSED, result.getRejectionReason());
+        assertEquals(10_000, second.getBalance().getMinorUnits());
+    }
+
+    @Test
+    public void retryOfARequestWithoutASourceAccountIsMatched() {
+        IdempotencyCache cache = new IdempotencyCache(16, Duration.ofMinutes(10), clock);
+        OperationResult<TransactionModel> deposit = OperationResult.applied(new TransactionModel(UUID.randomUUID(), null,
+                checkingAccountA.getId(), new MoneyModel(1, CurrencyType.RON), clock.instant()));
+
+        assertSame(deposit, cache.execute("deposit-1", null, checkingAccountA.getId(), 100, CurrencyType.RON, () -> deposit));
+        assertSame(deposit, cache.execute("deposit-1", null, checkingAccountA.getId(), 100, CurrencyType.RON, () -> {
+            throw new AssertionError("a retry must not run again");
+        }));
+        assertEquals(RejectionReason.IDEMPOTENCY_KEY_REUSED, cache.execute("deposit-1", checkingAccountB.getId(),
+                checkingAccountA.getId(), 100, CurrencyType.RON, () -> deposit).getRejectionReason());
+    }
+
+    @Test
+    public void rejectedRequestsCanBeRetried() {
+        MoneyModel amount = new MoneyModel(1_000, CurrencyType.RON);
+        assertFalse(service.tryWithdraw(checkingAccountA.getId(), amount, "request-1").isApplied());
+
+        checkingAccountA.getBalance().add(100_000);
+
+        assertTrue(service.tryWithdraw(checkingAccountA.getId(), amount, "request-1").isApplied());
+    }
+
+    @Test
+    public void keysExpireAfterTheirTtl() {
+        TransactionModel first = service.withdraw(checkingAccountA.getId(), new MoneyModel(1, CurrencyType.RON), "request-1");
+        clock.advance(Duration.ofMinutes(11));
+
+        assertNotSame(first, service.withdraw(checkingAccountA.getId(), new MoneyModel(1, CurrencyType.RON), "request-1"));
+        assertEquals(1, service.getIdempotencyCache().size());
+    }
+
+    @Test
+    public void sizeStaysWithinTheCapacity() {
+        service.setIdempotencyCache(new IdempotencyCache(64, Duration.ofMinutes(10), clock));
+        checkingAccountA.getBalance().add(1_000_000);
+        long evictions = BankingMetrics.INSTANCE.getIdempotencyEvictionCount();
+        for (int i = 0; i < 10_000; i++) {
+            service.withdraw(checkingAccountA.getId(), MoneyModel.ofMinorUnits(1, CurrencyType.RON), "request-" + i);
+        }
+
+        assertTrue(service.getIdempotencyCache().size() <= 64);
+        assertTrue(BankingMetrics.INSTANCE.getIdempotencyEvictionCount() - evictions >= 10_000 - 64);
+    }
+
+    @Test
+    public void runningRequestsAreNotEvicted() throws Exception {
+        service.setIdempotencyCache(new IdempotencyCache(64, Duration.ofMinutes(10), clock)); // one entry per segment
+        long before = checkingAccountA.getBalance().getMinorUnits();
+        CountDownLatch paused = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        executor.submit(() -> BalanceGate.INSTANCE.runExclusive(() -> { // holds every money movement back
+            paused.countDown();
+            awaitQuietly(resume);
+            return null;
+        }));
+        paused.await();
+        Future<TransactionModel> first = executor.submit(() ->
+                service.withdraw(checkingAccountA.getId(), new MoneyModel(1, CurrencyType.RON), "request-1"));
+        while (service.getIdempotencyCache().size() == 0) {
+            Thread.onSpinWait();
+        }
+
+        for (int i = 0; i < 1_000; i++) { // passes through every segment, rejected without waiting for the gate
+            service.tryWithdraw("IDEMPOTENCY_MISSING", new MoneyModel(1, CurrencyType.RON), "other-" + i);
+        }
+        Future<TransactionModel> retry = executor.submit(() ->
+                service.withdraw(checkingAccountA.getId(), new MoneyModel(1, CurrencyType.RON), "request-1"));
+        resume.countDown();
+
+        assertSame(first.get(), retry.get());
+        executor.shutdown();
+        assertEquals(before - 100, checkingAccountA.getBalance().getMinorUnits());
+    }
+
+    @Test
+    public void runningRequestsDoNotExpire() throws Exception {
+        long before = checkingAccountA.getBalance().getMinorUnits();
+        CountDownLatch paused = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        executor.submit(() -> BalanceGate.INSTANCE.runExclusive(() -> {
+            paused.countDown();
+            awaitQuietly(resume);
+            return null;
+        }));
+        paused.await();
+        Future<TransactionModel> first = executor.submit(() ->
+                service.withdraw(checkingAccountA.getId(), new MoneyModel(1, CurrencyType.RON), "request-1"));
+        while (service.getIdempotencyCache().size() == 0) {
+            Thread.onSpinWait();
+        }
+
+        clock.advance(Duration.ofMinutes(11));
+        Future<TransactionModel> retry = executor.submit(() ->
+                service.withdraw(checkingAccountA.getId(), new MoneyModel(1, CurrencyType.RON), "request-1"));
+        resume.countDown();
+
+        assertSame(first.get(), retry.get());
+        executor.shutdown();
+        assertEquals(before - 100, checkingAccountA.getBalance().getMinorUnits());
+    }
+
+    @Test
+    public void concurrentRetriesApplyOnce() throws Exception {
+        long before = checkingAccountA.getBalance().getMinorUnits();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<TransactionModel>> retries = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            retries.add(executor.submit(() ->
+                    service.transfer(checkingAccountA.getId(), checkingAccountB.getId(), new MoneyModel(1, CurrencyType.RON), "request-1")));
+        }
+
+        TransactionModel first = retries.get(0).get();
+        for (Future<TransactionModel> retry : retries) {
+            assertSame(first, retry.get());
+        }
+        executor.shutdown();
+        assertEquals(before - 100, checkingAccountA.getBalance().getMinorUnits());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+import domain.AccountModel;
+import domain.AccountType;
+import domain.CapitalizationFrequency;
+import domain.CheckingAccountModel;
+import domain.CurrencyType;
+import domain.InterestRate;
+import domain.MoneyModel;
+import domain.SavingsAccountModel;
+import org.junit.Test;
+import repository.IndexedInMemoryDatabase;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class IndexedInMemoryDatabaseTest {
+    private final IndexedInMemoryDatabase<AccountModel, AccountType> database =
+            new IndexedInMemoryDatabase<>(AccountModel::getAccountType);
+
+    @Test
+    public void indexFollowsAddReplaceAndRemove() {
+        SavingsAccountModel savings = new SavingsAccountModel("ID1", new MoneyModel(10, CurrencyType.RON), new ArrayList<>(),
+                InterestRate.ONE_MONTH_ACCOUNT, CapitalizationFrequency.MONTHLY, LocalDate.now());
+        CheckingAccountModel checking = new CheckingAccountModel("ID1", new MoneyModel(10, CurrencyType.RON), new ArrayList<>(), null);
+
+        database.add(savings.getId(), savings);
+        assertEquals(1, database.countBy(AccountType.SAVINGS));
+        assertTrue(database.getAllBy(AccountType.SAVINGS).contains(savings));
+
+        database.add(checking.getId(), checking);
+        assertEquals(0, database.countBy(AccountType.SAVINGS));
+        assertEquals(1, database.countBy(AccountType.CHECKING));
+
+        assertTrue(database.remove(checking.getId()));
+        assertFalse(database.remove(checking.getId()));
+        assertEquals(0, database.countBy(AccountType.CHECKING));
+        assertTrue(database.values().isEmpty());
+    }
+
+    @Test
+    public void nullIdIsNotFound() {
+        assertNull(database.get(null));
+        assertFalse(database.exist(null));
+        assertFalse(database.remove(null));
+    }
+
+    @Test
+    public void viewsSeeLaterWritesWithoutCopying() {
+        var checkingView = database.getAllBy(AccountType.CHECKING);
+        database.add("ID2", new CheckingAccountModel("ID2", new MoneyModel(10, CurrencyType.RON), new ArrayList<>(), null));
+
+        assertEquals(1, checkingView.size());
+        assertEquals(1, database.values().size());
+    }
+}
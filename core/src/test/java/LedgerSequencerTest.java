@@ -0,0 +1,92 @@
+import domain.CheckingAccountModel;
+import domain.CurrencyType;
+import domain.MoneyModel;
+import domain.OperationResult;
+import domain.RejectionReason;
+import domain.TransactionModel;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import repository.AccountsRepository;
+import services.LedgerSequencer;
+import services.TransactionManagerService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LedgerSequencerTest {
+    private static final int ACCOUNTS = 4;
+
+    private final List<CheckingAccountModel> accounts = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        for (int i = 0; i < ACCOUNTS; i++) {
+            CheckingAccountModel account = new CheckingAccountModel("SEQ" + i, new MoneyModel(1_000, CurrencyType.RON), new ArrayList<>(), null);
+            accounts.add(account);
+            AccountsRepository.INSTANCE.add(account.getId(), account);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        accounts.forEach(account -> AccountsRepository.INSTANCE.remove(account.getId()));
+    }
+
+    @Test
+    public void commandsFromOneProducerApplyInOrder() throws Exception {
+        try (LedgerSequencer sequencer = new LedgerSequencer(new TransactionManagerService(), 8)) {
+            List<CompletableFuture<OperationResult<TransactionModel>>> results = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                results.add(sequencer.submitTransfer("SEQ0", "SEQ1", MoneyModel.ofMinorUnits(i, CurrencyType.RON)));
+            }
+            CompletableFuture<OperationResult<TransactionModel>> unknown = sequencer.submitWithdrawal("MISSING", new MoneyModel(1, CurrencyType.RON));
+
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(i, results.get(i).get(5, TimeUnit.SECONDS).getValue().getAmount().getMinorUnits());
+                assertEquals(i, accounts.get(1).getTransactions().get(i).getAmount().getMinorUnits());
+            }
+            assertEquals(RejectionReason.UNKNOWN_ACCOUNT, unknown.get(5, TimeUnit.SECONDS).getRejectionReason());
+            assertEquals(101, sequencer.getAppliedSequence());
+        }
+    }
+
+    @Test
+    public void concurrentProducersConserveMoney() throws Exception {
+        int producers = 4;
+        int commandsPerProducer = 20_000;
+        List<CompletableFuture<OperationResult<TransactionModel>>> results = new ArrayList<>();
+        try (LedgerSequencer sequencer = new LedgerSequencer(new TransactionManagerService(), 1024)) {
+            ExecutorService executor = Executors.newFixedThreadPool(producers);
+            List<CompletableFuture<List<CompletableFuture<OperationResult<TransactionModel>>>>> submitted = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                submitted.add(CompletableFuture.supplyAsync(() -> {
+                    List<CompletableFuture<OperationResult<TransactionModel>>> mine = new ArrayList<>();
+                    for (int i = 0; i < commandsPerProducer; i++) {
+                        String from = "SEQ" + (i + producer) % ACCOUNTS;
+                        String to = "SEQ" + (i + producer + 1) % ACCOUNTS;
+                        mine.add(sequencer.submitTransfer(from, to, MoneyModel.ofMinorUnits(i % 500, CurrencyType.RON)));
+                    }
+                    return mine;
+                }, executor));
+            }
+            for (CompletableFuture<List<CompletableFuture<OperationResult<TransactionModel>>>> batch : submitted) {
+                results.addAll(batch.get(30, TimeUnit.SECONDS));
+            }
+            executor.shutdown();
+        }
+
+        long total = accounts.stream().mapToLong(account -> account.getBalance().getMinorUnits()).sum();
+        assertEquals(ACCOUNTS * 100_000L, total);
+        assertEquals(producers * commandsPerProducer, results.size());
+        assertTrue(results.stream().allMatch(CompletableFuture::isDone));
+    }
+}
@@ -0,0 +1,52 @@
+import domain.CurrencyType;
+import domain.MoneyModel;
+import org.junit.Test;
+import utils.MoneyUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.Assert.assertEquals;
+
+public class MoneyUtilsTest {
+
+    @Test
+    public void decimalAmountsAreStoredExactly() {
+        MoneyModel money = new MoneyModel(0.1, CurrencyType.RON);
+        money.add(MoneyUtils.toMinorUnits(0.2));
+
+        assertEquals(30, money.getMinorUnits());
+        assertEquals(0.3, money.getAmount(), 0.0);
+    }
+
+    @Test
+    public void conversionRoundsHalfEven() {
+        assertEquals(2, MoneyUtils.divideHalfEven(5, 2));
+        assertEquals(4, MoneyUtils.divideHalfEven(7, 2));
+        assertEquals(-2, MoneyUtils.divideHalfEven(-5, 2));
+
+        // 0.05 EUR * 4.98 = 0.249 RON
+        assertEquals(25, MoneyUtils.convertMinorUnits(5, CurrencyType.EUR, CurrencyType.RON));
+        // 0.03 RON * 0.2 = 0.006 EUR
+        assertEquals(1, MoneyUtils.convertMinorUnits(3, CurrencyType.RON, CurrencyType.EUR));
+        assertEquals(12345, MoneyUtils.convertMinorUnits(12345, CurrencyType.RON, CurrencyType.RON));
+    }
+
+    @Test
+    public void interestRoundsHalfUp() {
+        assertEquals(1, MoneyUtils.interestMinorUnits(10, 0.05));
+        assertEquals(5500, MoneyUtils.interestMinorUnits(100000, 0.055));
+        assertEquals(1, MoneyUtils.interestMinorUnits(25, 0.02)); // 0.5 exactly, 0.02 is not a double
+        assertEquals(-1, MoneyUtils.interestMinorUnits(-10, 0.05)); // halves go away from zero
+        assertEquals(0, MoneyUtils.interestMinorUnits(-4, 0.1));
+    }
+
+    @Test
+    public void interestOnLargeBalancesIsExact() {
+        long balance = 1_234_567_890_123_456_789L;
+        long expected = BigDecimal.valueOf(balance).multiply(new BigDecimal("0.035"))
+                .setScale(0, RoundingMode.HALF_UP).longValueExact();
+
+        assertEquals(expected, MoneyUtils.interestMinorUnits(balance, 0.035));
+    }
+}
@@ -0,0 +1,79 @@
+import domain.CapitalizationFrequency;
+import domain.CurrencyType;
+import domain.MoneyModel;
+import domain.SavingsAccountModel;
+import org.junit.Test;
+import services.CapitalizationCalendar;
+import services.SavingsBook;
+
+import java.time.LocalDate;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class SavingsBookTest {
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 15);
+
+    @Test
+    public void accountsRemovedWhileTheBookIsBuiltAreLeftOut() {
+        List<SavingsAccountModel> remaining = accounts().subList(0, 10);
+        Collection<SavingsAccountModel> shrinking = new AbstractCollection<>() { // as a live view losing an account
+            @Override
+            public Iterator<SavingsAccountModel> iterator() {
+                return remaining.iterator();
+            }
+
+            @Override
+            public int size() {
+                return remaining.size() + 1;
+            }
+        };
+
+        assertEquals(10, new SavingsBook(shrinking, CapitalizationCalendar.monthIndex(TODAY)).size());
+    }
+
+    @Test
+    public void vectorAndScalarKernelsCapitalizeIdentically() {
+        long currentMonth = CapitalizationCalendar.monthIndex(TODAY);
+        List<SavingsAccountModel> vectorAccounts = accounts();
+        List<SavingsAccountModel> scalarAccounts = accounts();
+        SavingsBook vector = new SavingsBook(vectorAccounts, currentMonth, true);
+        SavingsBook scalar = new SavingsBook(scalarAccounts, currentMonth, false);
+
+        LocalDate date = TODAY;
+        for (int months : new int[]{1, 1, 4, 1}) {
+            long targetMonth = currentMonth + months;
+            date = date.plusMonths(months);
+            for (SavingsBook book : new SavingsBook[]{vector, scalar}) {
+                for (int block = 0; block < book.blocks(); block++) {
+                    book.capitalizeBlock(block, currentMonth, targetMonth, date, null);
+                }
+            }
+            currentMonth = targetMonth;
+            assertArrayEquals(minorUnits(scalarAccounts), minorUnits(vectorAccounts));
+        }
+    }
+
+    private static List<SavingsAccountModel> accounts() {
+        Random random = new Random(42);
+        List<SavingsAccountModel> accounts = new ArrayList<>();
+        for (int i = 0; i < 1_003; i++) {
+            MoneyModel balance = MoneyModel.ofMinorUnits(random.nextInt(20_000_000) - 1_000_000, CurrencyType.RON);
+            CapitalizationFrequency frequency = random.nextBoolean() ? CapitalizationFrequency.MONTHLY : CapitalizationFrequency.QUARTERLY;
+            LocalDate lastInterestAppliedDate = random.nextInt(10) == 0 ? null : TODAY.minusMonths(random.nextInt(5));
+            accounts.add(new SavingsAccountModel("SAVINGS_" + i, balance, new ArrayList<>(), random.nextDouble() * 0.1,
+                    frequency, lastInterestAppliedDate));
+        }
+        return accounts;
+    }
+
+    private static long[] minorUnits(List<SavingsAccountModel> accounts) {
+        return accounts.stream().mapToLong(account -> account.getBalance().getMinorUnits()).toArray();
+    }
+}
@@ -0,0 +1,252 @@
+import domain.CapitalizationFrequency;
+import domain.CheckingAccountModel;
+import domain.CurrencyType;
+import domain.MoneyModel;
+import domain.SavingsAccountModel;
+import journal.DurabilityMode;
+import journal.TransactionJournal;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import repository.AccountsRepository;
+import services.SavingsBook;
+import services.SavingsManagerService;
+import utils.MoneyUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SavingsManagerServiceTest {
+    private static final int[] MONTH_OFFSETS = {-7, -5, -4, -3, -2, -1, 0, 1, 2, 5};
+
+    @Before
+    public void setUp() {
+        AccountsRepository.INSTANCE.clear();
+    }
+
+    @After
+    public void tearDown() {
+        AccountsRepository.INSTANCE.clear();
+    }
+
+    @Test
+    public void singleMonthStepsMatchTheMonthByMonthRulesExactly() {
+        SavingsManagerService service = new SavingsManagerService();
+        LocalDate systemDate = service.getSystemDate();
+        List<SavingsAccountModel> reference = accounts(systemDate);
+        List<SavingsAccountModel> actual = accounts(systemDate);
+        actual.forEach(account -> AccountsRepository.INSTANCE.add(account.getId(), account));
+
+        for (int month = 0; month < 14; month++) {
+            systemDate = referencePassTime(reference, systemDate);
+            service.passTime();
+
+            for (int i = 0; i < reference.size(); i++) {
+                assertEquals(reference.get(i).getBalance().getMinorUnits(), actual.get(i).getBalance().getMinorUnits());
+                assertEquals(reference.get(i).getLastInterestAppliedDate(), actual.get(i).getLastInterestAppliedDate());
+            }
+        }
+    }
+
+    @Test
+    public void multiMonthCatchUpMatchesMonthByMonthExactly() {
+        for (int months : new int[]{1, 2, 3, 7, 12, 25, 70}) {
+            AccountsRepository.INSTANCE.clear();
+            SavingsManagerService service = new SavingsManagerService();
+            LocalDate systemDate = service.getSystemDate();
+            List<SavingsAccountModel> reference = accounts(systemDate);
+            List<SavingsAccountModel> actual = accounts(systemDate);
+            actual.forEach(account -> AccountsRepository.INSTANCE.add(account.getId(), account));
+
+            for (int month = 0; month < months; month++) {
+                systemDate = referencePassTime(reference, systemDate);
+            }
+            service.passTime(months);
+
+            for (int i = 0; i < reference.size(); i++) { // MONTHLY and QUARTERLY accounts alike
+                assertEquals("months=" + months + " account=" + reference.get(i).getId(),
+                        reference.get(i).getBalance().getMinorUnits(), actual.get(i).getBalance().getMinorUnits());
+                assertEquals(reference.get(i).getLastInterestAppliedDate(), actual.get(i).getLastInterestAppliedDate());
+            }
+            assertEquals(systemDate, service.getSystemDate());
+        }
+    }
+
+    @Test
+    public void passTimeRejectsMoreMonthsThanTheBound() {
+        SavingsManagerService service = new SavingsManagerService();
+        LocalDate systemDate = service.getSystemDate();
+        try {
+            service.passTime(SavingsManagerService.MAX_MONTHS_PER_CALL + 1);
+            fail("passTime should have refused the months");
+        } catch (RuntimeException expected) {
+        }
+        assertEquals(systemDate, service.getSystemDate());
+    }
+
+    @Test
+    public void scheduledPassTimeMatchesTheFullScan() {
+        assertMatchesTheFullScan(service -> {
+            service.enableScheduling();
+            assertTrue(service.getScheduler().getScheduled() < AccountsRepository.INSTANCE.size());
+        });
+    }
+
+    @Test
+    public void scheduledPassTimeCapitalizesAccountsReplacedInTheRepository() {
+        SavingsManagerService service = new SavingsManagerService();
+        List<SavingsAccountModel> original = accounts(service.getSystemDate());
+        original.forEach(account -> AccountsRepository.INSTANCE.add(account.getId(), account));
+        service.enableScheduling();
+
+        List<SavingsAccountModel> replaced = accounts(service.getSystemDate()); // as a restore or a re-seed would
+        replaced.forEach(account -> AccountsRepository.INSTANCE.add(account.getId(), account));
+        List<SavingsAccountModel> reference = accounts(service.getSystemDate());
+        LocalDate systemDate = service.getSystemDate();
+        for (int month = 0; month < 4; month++) {
+            systemDate = referencePassTime(reference, systemDate);
+            service.passTime();
+        }
+
+        for (int i = 0; i < reference.size(); i++) {
+            assertEquals(reference.get(i).getBalance().getMinorUnits(), replaced.get(i).getBalance().getMinorUnits());
+            assertEquals(reference.get(i).getLastInterestAppliedDate(), replaced.get(i).getLastInterestAppliedDate());
+        }
+    }
+
+    @Test
+    public void savingsBookPassTimeMatchesTheFullScan() {
+        assertMatchesTheFullScan(SavingsManagerService::enableSavingsBook);
+    }
+
+    @Test
+    public void savingsBookIsOnlyRebuiltWhenSavingsAccountsChange() {
+        SavingsManagerService service = new SavingsManagerService();
+        accounts(service.getSystemDate()).forEach(account -> AccountsRepository.INSTANCE.add(account.getId(), account));
+        service.enableSavingsBook();
+        SavingsBook book = service.getSavingsBook();
+
+        CheckingAccountModel checking = new CheckingAccountModel("CHECKING_1", new MoneyModel(100, CurrencyType.RON), new ArrayList<>(), null);
+        AccountsRepository.INSTANCE.add(checking.getId(), checking);
+        AccountsRepository.INSTANCE.remove(checking.getId());
+        service.passTime();
+        assertSame(book, service.getSavingsBook());
+
+        SavingsAccountModel added = new SavingsAccountModel("SAVINGS_ADDED", new MoneyModel(100, CurrencyType.RON), new ArrayList<>(),
+                0.0475, CapitalizationFrequency.MONTHLY, service.getSystemDate());
+        AccountsRepository.INSTANCE.add(added.getId(), added);
+        service.passTime();
+        assertNotSame(book, service.getSavingsBook());
+    }
+
+    @Test
+    public void interestIsNotCreditedWhenTheJournalRejectsIt() throws IOException {
+        Path journalPath = Files.createTempFile("journal", ".bin");
+        TransactionJournal closed = TransactionJournal.open(journalPath, DurabilityMode.PER_OPERATION);
+        closed.close();
+        try {
+            for (boolean savingsBook : new boolean[]{false, true}) {
+                AccountsRepository.INSTANCE.clear();
+                SavingsManagerService service = new SavingsManagerService();
+                List<SavingsAccountModel> accounts = accounts(service.getSystemDate());
+                List<SavingsAccountModel> untouched = accounts(service.getSystemDate());
+                accounts.forEach(account -> AccountsRepository.INSTANCE.add(account.getId(), account));
+                if (savingsBook) {
+                    service.enableSavingsBook();
+                }
+                service.setJournal(closed);
+                try {
+                    service.passTime(3);
+                    fail("a closed journal should have failed passTime");
+                } catch (RuntimeException expected) {
+                }
+
+                for (int i = 0; i < accounts.size(); i++) {
+                    assertEquals(untouched.get(i).getBalance().getMinorUnits(), accounts.get(i).getBalance().getMinorUnits());
+                    assertEquals(untouched.get(i).getLastInterestAppliedDate(), accounts.get(i).getLastInterestAppliedDate());
+                }
+            }
+        } finally {
+            Files.delete(journalPath);
+        }
+    }
+
+    private static void assertMatchesTheFullScan(Consumer<SavingsManagerService> mode) {
+        int[] steps = {1, 1, 3, 1, 70, 2, 1, 12};
+        List<SavingsAccountModel> scanned = accounts(LocalDate.now());
+        scanned.forEach(account -> AccountsRepository.INSTANCE.add(account.getId(), account));
+        SavingsManagerService scanning = new SavingsManagerService();
+        for (int months : steps) {
+            scanning.passTime(months);
+        }
+
+        AccountsRepository.INSTANCE.clear();
+        SavingsManagerService other = new SavingsManagerService();
+        List<SavingsAccountModel> actual = accounts(other.getSystemDate());
+        actual.forEach(account -> AccountsRepository.INSTANCE.add(account.getId(), account));
+        mode.accept(other);
+        for (int months : steps) {
+            other.passTime(months);
+        }
+
+        assertEquals(scanning.getSystemDate(), other.getSystemDate());
+        for (int i = 0; i < scanned.size(); i++) {
+            assertEquals(scanned.get(i).getBalance().getMinorUnits(), actual.get(i).getBalance().getMinorUnits());
+            assertEquals(scanned.get(i).getLastInterestAppliedDate(), actual.get(i).getLastInterestAppliedDate());
+        }
+    }
+
+    private static List<SavingsAccountModel> accounts(LocalDate systemDate) {
+        List<SavingsAccountModel> accounts = new ArrayList<>();
+        for (CapitalizationFrequency frequency : CapitalizationFrequency.values()) {
+            for (int offset : MONTH_OFFSETS) {
+                accounts.add(new SavingsAccountModel(
+                        "SAVINGS_" + frequency + "_" + offset,
+                        new MoneyModel(12_345.67 + offset, CurrencyType.RON),
+                        new ArrayList<>(),
+                        0.0475,
+                        frequency,
+                        systemDate.plusMonths(offset)
+                ));
+            }
+        }
+        return accounts;
+    }
+
+    // the month-by-month rules passTime() has always followed
+    private static LocalDate referencePassTime(List<SavingsAccountModel> accounts, LocalDate systemDate) {
+        LocalDate nextSystemDate = systemDate.plusMonths(1);
+        for (SavingsAccountModel account : accounts) {
+            LocalDate next = account.getLastInterestAppliedDate().plusMonths(1);
+            if (next.getMonth() == nextSystemDate.getMonth() && next.getYear() == nextSystemDate.getYear()) {
+                referenceAddInterest(account, nextSystemDate);
+            }
+        }
+        for (SavingsAccountModel account : accounts) {
+            if (account.getInterestFrequency() != CapitalizationFrequency.QUARTERLY) {
+                continue;
+            }
+            LocalDate next = account.getLastInterestAppliedDate().plusMonths(3);
+            if ((next.getMonthValue() - 1) / 3 == (nextSystemDate.getMonthValue() - 1) / 3 && next.getYear() == nextSystemDate.getYear()) {
+                referenceAddInterest(account, nextSystemDate);
+            }
+        }
+        return nextSystemDate;
+    }
+
+    private static void referenceAddInterest(SavingsAccountModel account, LocalDate date) {
+        account.getBalance().add(MoneyUtils.interestMinorUnits(account.getBalance().getMinorUnits(), account.getInterest()));
+        account.setLastInterestAppliedDate(date);
+    }
+}
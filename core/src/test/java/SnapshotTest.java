@@ -0,0 +1,202 @@
+import domain.AccountModel;
+import domain.CapitalizationFrequency;
+import domain.CardModel;
+import domain.CheckingAccountModel;
+import domain.CurrencyType;
+import domain.InterestRate;
+import domain.MoneyModel;
+import domain.SavingsAccountModel;
+import journal.DurabilityMode;
+import journal.TransactionJournal;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import repository.AccountsRepository;
+import seed.SeedInitializer;
+import services.LedgerSequencer;
+import services.LockingMode;
+import services.SavingsManagerService;
+import services.TransactionManagerService;
+import snapshot.SnapshotWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SnapshotTest {
+    private Path snapshotPath;
+    private Path journalPath;
+
+    @Before
+    public void setUp() throws IOException {
+        snapshotPath = Files.createTempFile("snapshot", ".bin");
+        journalPath = Files.createTempFile("journal", ".bin");
+        AccountsRepository.INSTANCE.clear();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        AccountsRepository.INSTANCE.clear();
+        Files.deleteIfExists(snapshotPath);
+        Files.deleteIfExists(journalPath);
+    }
+
+    @Test
+    public void restoreLoadsSnapshotAndReplaysJournalTail() {
+        CardModel card = new CardModel(1111222233334444L, "Ana Popescu", 321, LocalDate.of(2030, 1, 31),
+                LocalDate.of(2024, 2, 1), true, false, 1500, 2500);
+        add(new CheckingAccountModel("SNAP_A", new MoneyModel(500, CurrencyType.RON), new ArrayList<>(), card));
+        add(new CheckingAccountModel("SNAP_B", new MoneyModel(20, CurrencyType.EUR), new ArrayList<>(), null));
+        add(new SavingsAccountModel("SNAP_S", new MoneyModel(1000, CurrencyType.RON), new ArrayList<>(),
+                InterestRate.SIX_MONTH_ACCOUNT, CapitalizationFrequency.QUARTERLY, LocalDate.of(2024, 3, 15)));
+
+        TransactionManagerService service = new TransactionManagerService(LockingMode.PER_ACCOUNT);
+        try (TransactionJournal journal = TransactionJournal.open(journalPath, DurabilityMode.GROUP)) {
+            service.setJournal(journal);
+            service.transfer("SNAP_A", "SNAP_S", new MoneyModel(100, CurrencyType.RON));
+            SnapshotWriter.write(snapshotPath, service);
+            service.transfer("SNAP_A", "SNAP_B", new MoneyModel(50, CurrencyType.RON));
+            service.withdraw("SNAP_S", new MoneyModel(10.55, CurrencyType.RON));
+        }
+        long balanceA = balanceOf("SNAP_A");
+        long balanceB = balanceOf("SNAP_B");
+        long balanceS = balanceOf("SNAP_S");
+
+        SeedInitializer.restore(snapshotPath, journalPath);
+
+        assertEquals(3, AccountsRepository.INSTANCE.size());
+        assertEquals(balanceA, balanceOf("SNAP_A"));
+        assertEquals(balanceB, balanceOf("SNAP_B"));
+        assertEquals(balanceS, balanceOf("SNAP_S"));
+
+        CardModel restoredCard = ((CheckingAccountModel) AccountsRepository.INSTANCE.get("SNAP_A")).getAssociatedCard();
+        assertEquals(card.toString(), restoredCard.toString());
+        assertNull(((CheckingAccountModel) AccountsRepository.INSTANCE.get("SNAP_B")).getAssociatedCard());
+
+        SavingsAccountModel savings = (SavingsAccountModel) AccountsRepository.INSTANCE.get("SNAP_S");
+        assertEquals(CapitalizationFrequency.QUARTERLY, savings.getInterestFrequency());
+        assertEquals(LocalDate.of(2024, 3, 15), savings.getLastInterestAppliedDate());
+        assertEquals(InterestRate.SIX_MONTH_ACCOUNT, savings.getInterest(), 0.0);
+    }
+
+    @Test
+    public void snapshotIsOneCutAcrossServicesSequencerAndPassTime() throws Exception {
+        for (int i = 0; i < 8; i++) {
+            add(new CheckingAccountModel("SNAP_C" + i, new MoneyModel(10_000, CurrencyType.RON), new ArrayList<>(), null));
+            add(new CheckingAccountModel("SNAP_Q" + i, new MoneyModel(10_000, CurrencyType.RON), new ArrayList<>(), null));
+        }
+        SavingsManagerService savings = new SavingsManagerService();
+        for (int i = 0; i < 20_000; i++) { // enough that passTime and the copy take a while and overlap
+            add(new SavingsAccountModel("SNAP_S" + i, new MoneyModel(10_000, CurrencyType.RON), new ArrayList<>(),
+                    0.01, CapitalizationFrequency.MONTHLY, savings.getSystemDate()));
+        }
+
+        TransactionManagerService service = new TransactionManagerService(LockingMode.PER_ACCOUNT);
+        TransactionManagerService sequenced = new TransactionManagerService(LockingMode.PER_ACCOUNT);
+        AtomicBoolean running = new AtomicBoolean(true);
+        try (TransactionJournal journal = TransactionJournal.open(journalPath, DurabilityMode.GROUP)) {
+            service.setJournal(journal);
+            sequenced.setJournal(journal);
+            savings.setJournal(journal);
+            ExecutorService writers = Executors.newFixedThreadPool(3);
+            try (LedgerSequencer sequencer = new LedgerSequencer(sequenced)) {
+                // the sequencer and the locking service own disjoint accounts, passTime only touches the savings
+                writers.submit(() -> {
+                    for (int i = 0; running.get(); i++) {
+                        service.tryTransfer("SNAP_C" + i % 8, "SNAP_C" + (i + 3) % 8, MoneyModel.ofMinorUnits(1 + i % 7, CurrencyType.RON));
+                    }
+                });
+                writers.submit(() -> {
+                    for (int i = 0; running.get(); i++) {
+                        sequencer.submitTransfer("SNAP_Q" + i % 8, "SNAP_Q" + (i + 5) % 8, MoneyModel.ofMinorUnits(1 + i % 5, CurrencyType.RON)).join();
+                    }
+                });
+                writers.submit(() -> {
+                    for (int month = 0; running.get() && month < 240; month++) {
+                        savings.passTime();
+                        Thread.yield();
+                    }
+                });
+                Thread.sleep(100);
+                for (int round = 0; round < 10; round++) {
+                    SnapshotWriter.write(snapshotPath, service);
+                    Thread.sleep(5);
+                }
+                running.set(false);
+                writers.shutdown();
+                assertTrue(writers.awaitTermination(30, TimeUnit.SECONDS));
+            }
+        }
+        Map<String, Long> balances = new HashMap<>();
+        AccountsRepository.INSTANCE.values().forEach(account -> balances.put(account.getId(), account.getBalance().getMinorUnits()));
+
+        SeedInitializer.restore(snapshotPath, journalPath);
+
+        assertEquals(balances.size(), AccountsRepository.INSTANCE.size());
+        balances.forEach((id, balance) -> assertEquals(id, (long) balance, balanceOf(id)));
+    }
+
+    @Test
+    public void savingsBookCapitalizesTheRestoredAccounts() {
+        SavingsManagerService savings = new SavingsManagerService();
+        LocalDate systemDate = savings.getSystemDate();
+        for (String id : new String[]{"SNAP_S1", "SNAP_S2"}) {
+            add(new SavingsAccountModel(id, new MoneyModel(1_000, CurrencyType.RON), new ArrayList<>(),
+                    0.05, CapitalizationFrequency.MONTHLY, systemDate));
+        }
+        savings.enableSavingsBook();
+        SnapshotWriter.write(snapshotPath, new TransactionManagerService(LockingMode.PER_ACCOUNT));
+
+        SeedInitializer.restore(snapshotPath, journalPath); // same number of savings accounts, new objects
+        savings.passTime();
+
+        assertEquals(105_000, balanceOf("SNAP_S1"));
+        assertEquals(105_000, balanceOf("SNAP_S2"));
+        SavingsAccountModel edited = (SavingsAccountModel) AccountsRepository.INSTANCE.get("SNAP_S2");
+        assertEquals(systemDate.plusMonths(1), edited.getLastInterestAppliedDate());
+
+        edited.setLastInterestAppliedDate(systemDate.minusMonths(6)); // a monthly account this far behind is never due
+        savings.passTime();
+
+        assertEquals(110_250, balanceOf("SNAP_S1"));
+        assertEquals(105_000, balanceOf("SNAP_S2"));
+    }
+
+    @Test
+    public void snapshotPositionIsDurableBeforeTheSnapshotIsPublished() throws IOException {
+        add(new CheckingAccountModel("SNAP_A", new MoneyModel(500, CurrencyType.RON), new ArrayList<>(), null));
+        add(new CheckingAccountModel("SNAP_B", new MoneyModel(20, CurrencyType.RON), new ArrayList<>(), null));
+
+        TransactionManagerService service = new TransactionManagerService(LockingMode.PER_ACCOUNT);
+        try (TransactionJournal journal = TransactionJournal.open(journalPath, DurabilityMode.ASYNC)) {
+            service.setJournal(journal);
+            for (int i = 0; i < 100; i++) {
+                service.transfer("SNAP_A", "SNAP_B", new MoneyModel(1, CurrencyType.RON));
+            }
+            long position = SnapshotWriter.write(snapshotPath, service);
+
+            assertTrue(journal.getDurablePosition() >= position);
+            assertTrue(Files.size(journalPath) >= position);
+        }
+    }
+
+    private static void add(AccountModel account) {
+        AccountsRepository.INSTANCE.add(account.getId(), account);
+    }
+
+    private static long balanceOf(String accountId) {
+        return AccountsRepository.INSTANCE.get(accountId).getBalance().getMinorUnits();
+    }
+}
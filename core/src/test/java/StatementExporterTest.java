@@ -0,0 +1,160 @@
+import domain.AccountModel;
+import domain.CheckingAccountModel;
+import domain.CurrencyType;
+import domain.MoneyModel;
+import domain.TransactionModel;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import repository.AccountsRepository;
+import seed.SyntheticDataGenerator;
+import services.TransactionManagerService;
+import statement.ExportSummary;
+import statement.StatementExporter;
+import statement.StatementFormat;
+import store.TransactionStore;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+
+public class StatementExporterTest {
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSS'Z'").withZone(ZoneOffset.UTC);
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("statements");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        AccountsRepository.INSTANCE.clear();
+        try (var files = Files.walk(directory)) {
+            files.sorted((a, b) -> b.compareTo(a)).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void csvRowsDescribeTheTransactionsFromTheAccountsSide() throws IOException {
+        CheckingAccountModel checkingAccountA = new CheckingAccountModel("STATEMENT_A", new MoneyModel(100, CurrencyType.RON), new ArrayList<>(), null);
+        CheckingAccountModel checkingAccountB = new CheckingAccountModel("STATEMENT_B", new MoneyModel(300, CurrencyType.RON), new ArrayList<>(), null);
+        AccountsRepository.INSTANCE.add(checkingAccountA.getId(), checkingAccountA);
+        AccountsRepository.INSTANCE.add(checkingAccountB.getId(), checkingAccountB);
+        TransactionManagerService service = new TransactionManagerService();
+        TransactionModel transfer = service.transfer(checkingAccountA.getId(), checkingAccountB.getId(), new MoneyModel(12.5, CurrencyType.RON));
+        service.withdraw(checkingAccountA.getId(), new MoneyModel(1, CurrencyType.RON));
+
+        Path file = directory.resolve("a.csv");
+        ExportSummary summary = new StatementExporter().exportAccount(checkingAccountA.getId(), file, StatementFormat.CSV);
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.US_ASCII);
+        assertEquals(2, summary.getRows());
+        assertEquals(Files.size(file), summary.getBytes());
+        assertEquals("account,transaction_id,created_at,direction,counterparty,amount,currency", lines.get(0));
+        assertEquals(String.join(",", checkingAccountA.getId(), transfer.getId().toString(), TIMESTAMP.format(transfer.getCreatedAt()),
+                "DEBIT", checkingAccountB.getId(), "12.50", "RON"), lines.get(1));
+        assertEquals("WITHDRAWAL", lines.get(2).split(",")[3]);
+    }
+
+    @Test
+    public void exportReadsTheTransactionStoreWhenOneIsSet() throws IOException {
+        CheckingAccountModel checkingAccountA = new CheckingAccountModel("STATEMENT_A", new MoneyModel(100, CurrencyType.RON), new ArrayList<>(), null);
+        CheckingAccountModel checkingAccountB = new CheckingAccountModel("STATEMENT_B", new MoneyModel(300, CurrencyType.RON), new ArrayList<>(), null);
+        AccountsRepository.INSTANCE.add(checkingAccountA.getId(), checkingAccountA);
+        AccountsRepository.INSTANCE.add(checkingAccountB.getId(), checkingAccountB);
+        TransactionStore store = new TransactionStore();
+        TransactionManagerService service = new TransactionManagerService();
+        service.setTransactionStore(store);
+        TransactionModel transfer = service.transfer(checkingAccountA.getId(), checkingAccountB.getId(), new MoneyModel(12.5, CurrencyType.RON));
+        service.withdraw(checkingAccountA.getId(), new MoneyModel(1, CurrencyType.RON));
+
+        StatementExporter exporter = new StatementExporter();
+        exporter.setTransactionStore(store);
+        Path file = directory.resolve("a.csv");
+        ExportSummary summary = exporter.exportAccount(checkingAccountA.getId(), file, StatementFormat.CSV);
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.US_ASCII);
+        assertEquals(0, checkingAccountA.getTransactions().size());
+        assertEquals(2, summary.getRows());
+        assertEquals(String.join(",", checkingAccountA.getId(), transfer.getId().toString(), TIMESTAMP.format(transfer.getCreatedAt()),
+                "DEBIT", checkingAccountB.getId(), "12.50", "RON"), lines.get(1));
+        assertEquals("WITHDRAWAL", lines.get(2).split(",")[3]);
+
+        ExportSummary all = exporter.exportAll(directory.resolve("all"), StatementFormat.CSV);
+        assertEquals(3, all.getRows()); // the transfer from both sides and the withdrawal
+    }
+
+    @Test
+    public void binaryExportOfEveryAccountHoldsEveryRowOnce() throws IOException {
+        new SyntheticDataGenerator().seed(5).checkingAccounts(3_000).savingsAccounts(500).histories(8, 60)
+                .referenceDate(LocalDate.of(2024, 6, 1)).generate(AccountsRepository.INSTANCE);
+
+        ExportSummary summary = new StatementExporter().exportAll(directory, StatementFormat.BINARY);
+
+        Map<String, Integer> rowsPerAccount = new HashMap<>();
+        long bytes = 0;
+        for (Path file : summary.getFiles()) {
+            bytes += Files.size(file);
+            try (InputStream input = Files.newInputStream(file); DataInputStream data = new DataInputStream(input)) {
+                assertEquals(StatementFormat.MAGIC, data.readInt());
+                assertEquals(StatementFormat.VERSION, data.readInt());
+                while (data.available() > 0) {
+                    String accountId = readString(data);
+                    int rows = data.readInt();
+                    AccountModel account = AccountsRepository.INSTANCE.get(accountId);
+                    for (int i = 0; i < rows; i++) {
+                        TransactionModel expected = account.getTransactions().get(i);
+                        assertEquals(expected.getId(), new UUID(data.readLong(), data.readLong()));
+                        assertEquals(expected.getCreatedAt().getEpochSecond() * 1_000_000L, data.readLong());
+                        assertEquals(expected.getAmount().getMinorUnits(), data.readLong());
+                        assertEquals(expected.getAmount().getCurrency().ordinal(), data.readByte());
+                        byte direction = data.readByte();
+                        assertEquals(direction == StatementFormat.CREDIT ? expected.getFrom() : expected.getTo(), readString(data));
+                    }
+                    assertEquals(null, rowsPerAccount.put(accountId, rows));
+                }
+            }
+        }
+
+        assertEquals(3_500, rowsPerAccount.size());
+        assertEquals(summary.getRows(), rowsPerAccount.values().stream().mapToLong(Integer::longValue).sum());
+        assertEquals(bytes, summary.getBytes());
+    }
+
+    @Test
+    public void periodExportsOnlyTheTransactionsInRange() throws IOException {
+        new SyntheticDataGenerator().seed(9).checkingAccounts(1).savingsAccounts(0).histories(500, 30)
+                .referenceDate(LocalDate.of(2024, 6, 1)).generate(AccountsRepository.INSTANCE);
+        String accountId = SyntheticDataGenerator.checkingId(0);
+        Instant from = Instant.parse("2024-05-10T00:00:00Z");
+        Instant to = Instant.parse("2024-05-20T00:00:00Z");
+
+        ExportSummary summary = new StatementExporter().exportAccount(accountId, directory.resolve("may.csv"), StatementFormat.CSV, from, to);
+
+        TransactionManagerService service = new TransactionManagerService();
+        assertEquals(service.retrieveTransactions(accountId, from, to).size(), summary.getRows());
+    }
+
+    private static String readString(DataInputStream data) throws IOException {
+        byte[] bytes = new byte[data.readShort()];
+        data.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
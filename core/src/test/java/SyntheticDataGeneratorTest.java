@@ -0,0 +1,94 @@
+import domain.AccountModel;
+import domain.CardModel;
+import domain.CheckingAccountModel;
+import domain.CurrencyType;
+import domain.SavingsAccountModel;
+import domain.TransactionModel;
+import org.junit.Test;
+import repository.InMemoryDatabase;
+import seed.SyntheticDataGenerator;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class SyntheticDataGeneratorTest {
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 1);
+
+    private static SyntheticDataGenerator generator(long seed) {
+        return new SyntheticDataGenerator().seed(seed).checkingAccounts(10_000).savingsAccounts(2_000)
+                .histories(5, 90).hotAccounts(3, 0.5, 50).referenceDate(TODAY);
+    }
+
+    @Test
+    public void generatesTheRequestedAccounts() {
+        InMemoryDatabase<AccountModel> database = new InMemoryDatabase<>();
+        assertEquals(12_000, generator(1).generate(database));
+
+        assertEquals(12_000, database.size());
+        assertTrue(database.get(SyntheticDataGenerator.checkingId(9_999)) instanceof CheckingAccountModel);
+        assertTrue(database.get(SyntheticDataGenerator.savingsId(1_999)) instanceof SavingsAccountModel);
+
+        long ron = database.values().stream().filter(account -> account.getBalance().getCurrency() == CurrencyType.RON).count();
+        assertTrue("RON should dominate the currency mix", ron > 7_800 && ron < 9_000);
+    }
+
+    @Test
+    public void sameSeedGeneratesTheSameData() {
+        InMemoryDatabase<AccountModel> first = new InMemoryDatabase<>();
+        InMemoryDatabase<AccountModel> second = new InMemoryDatabase<>();
+        generator(7).generate(first);
+        generator(7).generate(second);
+
+        for (AccountModel account : first.values()) {
+            AccountModel other = second.get(account.getId());
+            assertEquals(account.getBalance().getMinorUnits(), other.getBalance().getMinorUnits());
+            assertEquals(account.getBalance().getCurrency(), other.getBalance().getCurrency());
+            List<TransactionModel> transactions = account.getTransactions();
+            List<TransactionModel> otherTransactions = other.getTransactions();
+            assertEquals(transactions.size(), otherTransactions.size());
+            for (int i = 0; i < transactions.size(); i++) {
+                assertEquals(transactions.get(i).getId(), otherTransactions.get(i).getId());
+                assertEquals(transactions.get(i).getCreatedAt(), otherTransactions.get(i).getCreatedAt());
+            }
+        }
+    }
+
+    @Test
+    public void hotAccountsHaveLongerHistoriesAndCardsAreValid() {
+        InMemoryDatabase<AccountModel> database = new InMemoryDatabase<>();
+        generator(3).generate(database);
+
+        int hot = database.get(SyntheticDataGenerator.checkingId(0)).getTransactions().size()
+                + database.get(SyntheticDataGenerator.checkingId(1)).getTransactions().size()
+                + database.get(SyntheticDataGenerator.checkingId(2)).getTransactions().size();
+        assertTrue("hot accounts should average far above 5 transactions, got " + hot, hot > 60);
+
+        List<TransactionModel> history = database.get(SyntheticDataGenerator.checkingId(0)).getTransactions();
+        for (int i = 1; i < history.size(); i++) {
+            assertTrue(!history.get(i).getCreatedAt().isBefore(history.get(i - 1).getCreatedAt()));
+        }
+
+        CardModel card = database.values().stream().filter(account -> account instanceof CheckingAccountModel)
+                .map(account -> ((CheckingAccountModel) account).getAssociatedCard()).filter(c -> c != null).findFirst().orElse(null);
+        assertNotNull(card);
+        assertTrue(luhnValid(card.getCardNumber()));
+    }
+
+    private static boolean luhnValid(long number) {
+        int sum = 0;
+        boolean doubled = false;
+        for (long rest = number; rest > 0; rest /= 10) {
+            int digit = (int) (rest % 10);
+            if (doubled) {
+                digit = digit * 2 > 9 ? digit * 2 - 9 : digit * 2;
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return sum % 10 == 0;
+    }
+}
@@ -0,0 +1,76 @@
+import org.junit.Test;
+import utils.TimeOrderedIdGenerator;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TimeOrderedIdGeneratorTest {
+    private final TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator();
+
+    @Test
+    public void idsIncreaseWithinAThread() {
+        UUID previous = generator.nextId();
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = generator.nextId();
+            assertTrue(next.compareTo(previous) > 0);
+            assertEquals(7, next.version());
+            assertEquals(2, next.variant());
+            previous = next;
+        }
+    }
+
+    @Test
+    public void idsAreUniqueAcrossThreads() {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 8).parallel().forEach(thread -> {
+            for (int i = 0; i < 50_000; i++) {
+                ids.add(generator.nextId());
+            }
+        });
+        assertEquals(8 * 50_000, ids.size());
+    }
+
+    @Test
+    public void idsIncreaseWithinEachThreadOfOneGenerator() throws InterruptedException {
+        IntStream.range(0, 8).parallel().forEach(thread -> {
+            UUID previous = generator.nextId();
+            for (int i = 0; i < 50_000; i++) {
+                UUID next = generator.nextId();
+                assertTrue(next.compareTo(previous) > 0);
+                previous = next;
+            }
+        });
+        // an id minted in a later millisecond sorts after every earlier one, whichever thread minted it
+        UUID before = generator.nextId();
+        Thread.sleep(2);
+        UUID after = IntStream.range(0, 1).parallel().mapToObj(thread -> generator.nextId()).findFirst().orElseThrow();
+        assertTrue(after.compareTo(before) > 0);
+    }
+
+    @Test
+    public void oneStripeOrdersIdsAcrossThreads() throws InterruptedException {
+        TimeOrderedIdGenerator single = new TimeOrderedIdGenerator(1);
+        UUID before = single.nextId();
+        UUID[] after = new UUID[1];
+        Thread other = new Thread(() -> after[0] = single.nextId());
+        other.start();
+        other.join();
+        assertTrue(after[0].compareTo(before) > 0);
+    }
+
+    @Test
+    public void generatorsDoNotCollide() {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 1_000; i++) {
+            TimeOrderedIdGenerator other = new TimeOrderedIdGenerator();
+            ids.add(other.nextId());
+            ids.add(other.nextId());
+        }
+        assertEquals(2_000, ids.size());
+    }
+}
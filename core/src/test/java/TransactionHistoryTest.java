@@ -0,0 +1,147 @@
+import domain.CurrencyType;
+import domain.MoneyModel;
+import domain.TransactionHistory;
+import domain.TransactionModel;
+import domain.TransactionPage;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TransactionHistoryTest {
+
+    @Test
+    public void keepsInsertionOrderAcrossChunks() {
+        TransactionHistory history = new TransactionHistory();
+        List<TransactionModel> expected = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            TransactionModel transaction = transaction(i);
+            history.add(transaction);
+            expected.add(transaction);
+        }
+
+        assertEquals(expected, history);
+        assertSame(expected.get(15), history.get(15));
+        assertSame(expected.get(16), history.get(16));
+        assertSame(expected.get(9_999), history.get(9_999));
+    }
+
+    @Test
+    public void viewKeepsItsSizeAndSharesTheEntries() {
+        TransactionHistory history = new TransactionHistory();
+        for (int i = 0; i < 20; i++) {
+            history.add(transaction(i));
+        }
+
+        List<TransactionModel> view = history.view();
+        history.add(transaction(20));
+
+        assertEquals(20, view.size());
+        assertEquals(history.subList(0, 20), view);
+        assertSame(history.get(17), view.get(17));
+        try {
+            view.add(transaction(21));
+            fail("the view should be read-only");
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    @Test
+    public void pagesWalkNewestToOldest() {
+        TransactionHistory history = new TransactionHistory();
+        for (int i = 0; i < 25; i++) {
+            history.add(transaction(i));
+        }
+
+        TransactionPage first = history.page(TransactionPage.FIRST_PAGE, 10);
+        assertEquals(10, first.getTransactions().size());
+        assertEquals("24", first.getTransactions().get(0).getFrom());
+        assertTrue(first.hasMore());
+
+        history.add(transaction(25)); // newer entries do not shift the pages that follow
+
+        TransactionPage second = history.page(first.getContinuationToken(), 10);
+        assertEquals("14", second.getTransactions().get(0).getFrom());
+
+        TransactionPage last = history.page(second.getContinuationToken(), 10);
+        assertEquals(5, last.getTransactions().size());
+        assertEquals("0", last.getTransactions().get(4).getFrom());
+        assertFalse(last.hasMore());
+    }
+
+    @Test
+    public void continuationTokensNoPageHandedOutAreRejected() {
+        TransactionHistory history = new TransactionHistory();
+        for (int i = 0; i < 5; i++) {
+            history.add(transaction(i));
+        }
+
+        assertEquals(0, history.page(0, 10).getTransactions().size());
+        assertEquals(5, history.page(5, 10).getTransactions().size());
+        for (long token : new long[]{-5, 6, Long.MIN_VALUE, Long.MAX_VALUE}) {
+            try {
+                history.page(token, 10);
+                fail("token " + token + " should have been rejected");
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+
+    private static TransactionModel transaction(int i) {
+        return new TransactionModel(UUID.randomUUID(), String.valueOf(i), String.valueOf(i),
+                new MoneyModel(i, CurrencyType.RON), LocalDate.now());
+    }
+
+    @Test
+    public void rangeQueriesUseCreationTimes() {
+        TransactionHistory history = new TransactionHistory();
+        Instant start = Instant.parse("2026-01-01T00:00:00Z");
+        for (int i = 0; i < 1_000; i++) {
+            history.add(transactionAt(i, start.plusSeconds(60L * i)));
+        }
+        history.add(transactionAt(1_000, start)); // clock stepped back, still filed after its predecessor
+
+        List<TransactionModel> range = history.between(start.plusSeconds(600), start.plusSeconds(1_200));
+        assertEquals(10, range.size());
+        assertEquals("10", range.get(0).getFrom());
+        assertEquals("19", range.get(9).getFrom());
+
+        assertEquals(2, history.between(start.plusSeconds(60L * 999), Instant.MAX).size());
+        assertTrue(history.between(Instant.MIN, start).isEmpty());
+    }
+
+    @Test
+    public void rangePagesWalkTheRangeNewestToOldest() {
+        TransactionHistory history = new TransactionHistory();
+        Instant start = Instant.parse("2026-01-01T00:00:00Z");
+        for (int i = 0; i < 100; i++) {
+            history.add(transactionAt(i, start.plusSeconds(60L * i)));
+        }
+
+        TransactionPage first = history.page(start.plusSeconds(600), start.plusSeconds(1_200), TransactionPage.FIRST_PAGE, 6);
+        assertEquals(6, first.getTransactions().size());
+        assertEquals("19", first.getTransactions().get(0).getFrom());
+        assertTrue(first.hasMore());
+        history.add(transactionAt(100, start.plusSeconds(60L * 100))); // outside the range, the token stays valid
+
+        TransactionPage last = history.page(start.plusSeconds(600), start.plusSeconds(1_200), first.getContinuationToken(), 6);
+        assertEquals(4, last.getTransactions().size());
+        assertEquals("13", last.getTransactions().get(0).getFrom());
+        assertEquals("10", last.getTransactions().get(3).getFrom());
+        assertFalse(last.hasMore());
+    }
+
+    private static TransactionModel transactionAt(int i, Instant createdAt) {
+        return new TransactionModel(UUID.randomUUID(), String.valueOf(i), String.valueOf(i),
+                new MoneyModel(i, CurrencyType.RON), createdAt);
+    }
+}
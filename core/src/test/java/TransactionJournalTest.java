@@ -0,0 +1,403 @@
+import domain.CheckingAccountModel;
+import domain.CurrencyType;
+import domain.MoneyModel;
+import domain.TransactionModel;
+import journal.DurabilityMode;
+import journal.JournalRecordType;
+import journal.JournalRecovery;
+import journal.TransactionJournal;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import repository.AccountsRepository;
+import services.LockingMode;
+import services.TransactionManagerService;
+import store.TransactionStore;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class TransactionJournalTest {
+    private Path journalPath;
+
+    @Before
+    public void setUp() throws IOException {
+        journalPath = Files.createTempFile("journal", ".bin");
+        seedAccounts();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        AccountsRepository.INSTANCE.remove("JOURNAL_A");
+        AccountsRepository.INSTANCE.remove("JOURNAL_B");
+        Files.deleteIfExists(journalPath);
+    }
+
+    @Test
+    public void replayRebuildsBalancesAndHistories() throws IOException {
+        for (DurabilityMode durabilityMode : DurabilityMode.values()) {
+            runAndReplay(durabilityMode);
+        }
+    }
+
+    @Test
+    public void replayWithAStoreRecordsTheTransactionsInIt() throws IOException {
+        TransactionManagerService service = new TransactionManagerService(LockingMode.PER_ACCOUNT);
+        service.setTransactionStore(new TransactionStore());
+        List<UUID> ids = new ArrayList<>();
+        try (TransactionJournal journal = TransactionJournal.open(journalPath, DurabilityMode.GROUP)) {
+            service.setJournal(journal);
+            ids.add(service.transfer("JOURNAL_A", "JOURNAL_B", new MoneyModel(10, CurrencyType.RON)).getId());
+            ids.add(service.withdraw("JOURNAL_A", new MoneyModel(0.25, CurrencyType.RON)).getId());
+        }
+
+        seedAccounts();
+        TransactionStore recovered = new TransactionStore();
+        assertEquals(2, JournalRecovery.recover(journalPath, 0, recovered));
+
+        assertEquals(8975, AccountsRepository.INSTANCE.get("JOURNAL_A").getBalance().getMinorUnits());
+        assertEquals(ids, recovered.historyOf("JOURNAL_A").stream().map(TransactionModel::getId).toList());
+        assertEquals(ids.subList(0, 1), recovered.historyOf("JOURNAL_B").stream().map(TransactionModel::getId).toList());
+        assertEquals(0, AccountsRepository.INSTANCE.get("JOURNAL_A").getTransactions().size());
+        assertEquals(0, AccountsRepository.INSTANCE.get("JOURNAL_B").getTransactions().size());
+    }
+
+    @Test
+    public void tornTailIsIgnoredAndTruncatedOnReopen() throws IOException {
+        TransactionManagerService service = new TransactionManagerService(LockingMode.PER_ACCOUNT);
+        try (TransactionJournal journal = TransactionJournal.open(journalPath, DurabilityMode.GROUP)) {
+            service.setJournal(journal);
+            service.transfer("JOURNAL_A", "JOURNAL_B", new MoneyModel(10, CurrencyType.RON));
+        }
+        long validSize = Files.size(journalPath);
+        try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 40, 1, 2, 3}));
+        }
+
+        seedAccounts();
+        assertEquals(1, JournalRecovery.recover(journalPath));
+        assertEquals(90.0, AccountsRepository.INSTANCE.get("JOURNAL_A").getBalance().getAmount(), 0.0);
+
+        TransactionJournal.open(journalPath, DurabilityMode.GROUP).close();
+        assertEquals(validSize, Files.size(journalPath));
+    }
+
+    @Test
+    public void failedFlushKeepsTheBatchAndRetriesIt() throws IOException {
+        FailingChannel channel = new FailingChannel(FileChannel.open(journalPath, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        try (TransactionJournal journal = TransactionJournal.open(channel, DurabilityMode.GROUP)) {
+            appendInterest(journal, 1);
+            journal.flush();
+            appendInterest(journal, 2);
+            appendInterest(journal, 3);
+
+            channel.failing = true; // writes half of the batch, then fails
+            try {
+                journal.flush();
+                fail("flush should have failed");
+            } catch (UncheckedIOException expected) {
+            }
+            appendInterest(journal, 4);
+            channel.failing = false;
+            journal.flush();
+            appendInterest(journal, 5);
+        }
+
+        List<Long> amounts = new ArrayList<>();
+        assertEquals(Files.size(journalPath), TransactionJournal.replay(journalPath, record -> amounts.add(record.getAmountMinorUnits())));
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), amounts);
+    }
+
+    @Test
+    public void rejectedAccountIdLeavesNoPartialRecord() throws IOException {
+        try (TransactionJournal journal = TransactionJournal.open(journalPath, DurabilityMode.GROUP)) {
+            appendInterest(journal, 1);
+            try {
+                journal.append(JournalRecordType.INTEREST, null, "JOURNAL_\u0100", "JOURNAL_A", 2, CurrencyType.RON, LocalDate.of(2024, 1, 1), null);
+                fail("a non latin-1 id should have been rejected");
+            } catch (IllegalArgumentException expected) {
+            }
+            appendInterest(journal, 3);
+        }
+
+        List<Long> amounts = new ArrayList<>();
+        assertEquals(Files.size(journalPath), TransactionJournal.replay(journalPath, record -> amounts.add(record.getAmountMinorUnits())));
+        assertEquals(List.of(1L, 3L), amounts);
+    }
+
+    @Test
+    public void journalFailureMovesNoMoney() throws IOException {
+        TransactionManagerService service = new TransactionManagerService(LockingMode.PER_ACCOUNT);
+        TransactionJournal closed = TransactionJournal.open(journalPath, DurabilityMode.GROUP);
+        closed.close();
+        service.setJournal(closed);
+        try {
+            service.transfer("JOURNAL_A", "JOURNAL_B", new MoneyModel(10, CurrencyType.RON));
+            fail("a closed journal should have failed the transfer");
+        } catch (IllegalStateException expected) {
+        }
+        assertUntouched();
+
+        FailingChannel channel = new FailingChannel(FileChannel.open(journalPath, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        try (TransactionJournal journal = TransactionJournal.open(channel, DurabilityMode.PER_OPERATION)) {
+            service.setJournal(journal);
+            channel.failing = true;
+            try {
+                service.withdraw("JOURNAL_A", new MoneyModel(1, CurrencyType.RON));
+                fail("the failed write should have failed the withdrawal");
+            } catch (UncheckedIOException expected) {
+            }
+            assertUntouched();
+            channel.failing = false;
+            service.transfer("JOURNAL_A", "JOURNAL_B", new MoneyModel(10, CurrencyType.RON));
+        }
+
+        seedAccounts();
+        assertEquals(1, JournalRecovery.recover(journalPath));
+        assertEquals(90.0, AccountsRepository.INSTANCE.get("JOURNAL_A").getBalance().getAmount(), 0.0);
+    }
+
+    @Test
+    public void recordWhoseForceFailedIsNotReplayed() throws IOException {
+        TransactionManagerService service = new TransactionManagerService(LockingMode.PER_ACCOUNT);
+        FailingChannel channel = new FailingChannel(FileChannel.open(journalPath, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        try (TransactionJournal journal = TransactionJournal.open(channel, DurabilityMode.PER_OPERATION)) {
+            service.setJournal(journal);
+            channel.failingForce = true; // the record is written in full, only the fsync fails
+            try {
+                service.withdraw("JOURNAL_A", new MoneyModel(1, CurrencyType.RON));
+                fail("the failed force should have failed the withdrawal");
+            } catch (UncheckedIOException expected) {
+            }
+            assertUntouched();
+        }
+
+        assertEquals(0, Files.size(journalPath));
+        assertEquals(0, TransactionJournal.replay(journalPath, record -> fail("the failed record was replayed")));
+    }
+
+    @Test
+    public void journalFailsWhenAFailedRecordCannotBeCutOff() throws IOException {
+        FailingChannel channel = new FailingChannel(FileChannel.open(journalPath, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        try (TransactionJournal journal = TransactionJournal.open(channel, DurabilityMode.PER_OPERATION)) {
+            appendInterest(journal, 1);
+            channel.failingForce = true;
+            channel.failingTruncate = true;
+            try {
+                appendInterest(journal, 2);
+                fail("the failed force should have failed the append");
+            } catch (UncheckedIOException expected) {
+            }
+            channel.failingForce = false;
+            channel.failingTruncate = false;
+            try {
+                appendInterest(journal, 3);
+                fail("a journal with a record it could not cut off should refuse appends");
+            } catch (UncheckedIOException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void replayRejectsAPositionThatIsNotARecordBoundary() throws IOException {
+        try (TransactionJournal journal = TransactionJournal.open(journalPath, DurabilityMode.GROUP)) {
+            appendInterest(journal, 1);
+            appendInterest(journal, 2);
+        }
+        long size = Files.size(journalPath);
+        long firstRecordEnd = size / 2;
+
+        List<Long> amounts = new ArrayList<>();
+        assertEquals(size, TransactionJournal.replay(journalPath, firstRecordEnd, record -> amounts.add(record.getAmountMinorUnits())));
+        assertEquals(List.of(2L), amounts);
+        for (long position : new long[]{firstRecordEnd - 1, size + firstRecordEnd}) { // inside a record, past the end
+            try {
+                TransactionJournal.replay(journalPath, position, record -> fail("nothing should have been replayed"));
+                fail("position " + position + " should have been rejected");
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void closeWritesEverythingTheAsyncFlusherHasNotYet() throws IOException {
+        for (int round = 0; round < 20; round++) {
+            int records = 1_000 * round;
+            TransactionJournal journal = TransactionJournal.open(journalPath, DurabilityMode.ASYNC);
+            for (int i = 0; i < records; i++) {
+                appendInterest(journal, i);
+            }
+            journal.close();
+
+            long[] replayed = new long[1];
+            TransactionJournal.replay(journalPath, record -> replayed[0]++);
+            assertEquals(records, replayed[0]);
+            Files.delete(journalPath);
+        }
+    }
+
+    private static void appendInterest(TransactionJournal journal, long amount) {
+        journal.append(JournalRecordType.INTEREST, null, "JOURNAL_A", "JOURNAL_A", amount, CurrencyType.RON, LocalDate.of(2024, 1, 1), null);
+    }
+
+    private void runAndReplay(DurabilityMode durabilityMode) throws IOException {
+        Files.deleteIfExists(journalPath);
+        seedAccounts();
+        TransactionManagerService service = new TransactionManagerService(LockingMode.PER_ACCOUNT);
+        try (TransactionJournal journal = TransactionJournal.open(journalPath, durabilityMode)) {
+            service.setJournal(journal);
+            service.transfer("JOURNAL_A", "JOURNAL_B", new MoneyModel(10, CurrencyType.RON));
+            service.transfer("JOURNAL_B", "JOURNAL_A", new MoneyModel(2.5, CurrencyType.RON));
+            service.tryTransfer("JOURNAL_A", "JOURNAL_B", new MoneyModel(1000, CurrencyType.RON)); // rejected, not journaled
+            service.withdraw("JOURNAL_A", new MoneyModel(0.25, CurrencyType.RON));
+        }
+        long expectedA = AccountsRepository.INSTANCE.get("JOURNAL_A").getBalance().getMinorUnits();
+        long expectedB = AccountsRepository.INSTANCE.get("JOURNAL_B").getBalance().getMinorUnits();
+
+        seedAccounts();
+        assertEquals(3, JournalRecovery.recover(journalPath));
+        assertEquals(expectedA, AccountsRepository.INSTANCE.get("JOURNAL_A").getBalance().getMinorUnits());
+        assertEquals(expectedB, AccountsRepository.INSTANCE.get("JOURNAL_B").getBalance().getMinorUnits());
+        assertEquals(3, AccountsRepository.INSTANCE.get("JOURNAL_A").getTransactions().size());
+        assertEquals(2, AccountsRepository.INSTANCE.get("JOURNAL_B").getTransactions().size());
+    }
+
+    private static void assertUntouched() {
+        assertEquals(10_000, AccountsRepository.INSTANCE.get("JOURNAL_A").getBalance().getMinorUnits());
+        assertEquals(0, AccountsRepository.INSTANCE.get("JOURNAL_B").getBalance().getMinorUnits());
+        assertEquals(0, AccountsRepository.INSTANCE.get("JOURNAL_A").getTransactions().size());
+    }
+
+    private void seedAccounts() {
+        AccountsRepository.INSTANCE.add("JOURNAL_A", new CheckingAccountModel("JOURNAL_A", new MoneyModel(100, CurrencyType.RON), new ArrayList<>(), null));
+        AccountsRepository.INSTANCE.add("JOURNAL_B", new CheckingAccountModel("JOURNAL_B", new MoneyModel(0, CurrencyType.RON), new ArrayList<>(), null));
+    }
+
+    // a channel whose writes stop halfway through and fail while failing is set, as on a full disk; failingForce and
+    // failingTruncate make only those calls fail
+    private static final class FailingChannel extends FileChannel {
+        private final FileChannel delegate;
+        private volatile boolean failing;
+        private volatile boolean failingForce;
+        private volatile boolean failingTruncate;
+
+        private FailingChannel(FileChannel delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int write(ByteBuffer source) throws IOException {
+            if (!failing) {
+                return delegate.write(source);
+            }
+            ByteBuffer half = source.duplicate();
+            half.limit(source.position() + source.remaining() / 2);
+            source.position(source.position() + delegate.write(half));
+            throw new IOException("No space left on device");
+        }
+
+        @Override
+        public int read(ByteBuffer destination) throws IOException {
+            return delegate.read(destination);
+        }
+
+        @Override
+        public long read(ByteBuffer[] destinations, int offset, int length) throws IOException {
+            return delegate.read(destinations, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] sources, int offset, int length) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            if (failingTruncate) {
+                throw new IOException("Input/output error");
+            }
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            if (failingForce) {
+                throw new IOException("Input/output error");
+            }
+            delegate.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel source, long position, long count) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int read(ByteBuffer destination, long position) throws IOException {
+            return delegate.read(destination, position);
+        }
+
+        @Override
+        public int write(ByteBuffer source, long position) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+import domain.AccountModel;
+import domain.CheckingAccountModel;
+import domain.CurrencyType;
+import domain.MoneyModel;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import repository.AccountsRepository;
+import services.LockingMode;
+import services.TransactionManagerService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TransactionManagerServiceConcurrencyTest {
+    private static final int ACCOUNTS = 256;
+    private static final int TRANSFERS_PER_THREAD = 20_000;
+    private static final double INITIAL_BALANCE = 1_000_000;
+
+    private final List<AccountModel> accounts = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        for (int i = 0; i < ACCOUNTS; i++) {
+            CheckingAccountModel account = new CheckingAccountModel(
+                    "STRESS" + i,
+                    new MoneyModel(INITIAL_BALANCE, CurrencyType.RON),
+                    new ArrayList<>(),
+                    null
+            );
+            accounts.add(account);
+            AccountsRepository.INSTANCE.add(account.getId(), account);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        accounts.forEach(account -> AccountsRepository.INSTANCE.remove(account.getId()));
+    }
+
+    @Test
+    public void perAccountLockingKeepsMoneyConservedUnderContention() throws InterruptedException {
+        TransactionManagerService service = new TransactionManagerService(LockingMode.PER_ACCOUNT);
+
+        runTransfers(service, 8);
+
+        double total = accounts.stream().mapToDouble(account -> account.getBalance().getAmount()).sum();
+        assertEquals(ACCOUNTS * INITIAL_BALANCE, total, 0.001);
+
+        int recordedTransactions = accounts.stream().mapToInt(account -> account.getTransactions().size()).sum();
+        assertEquals(2 * 8 * TRANSFERS_PER_THREAD, recordedTransactions);
+    }
+
+    private void runTransfers(TransactionManagerService service, int threads) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                        int from = random.nextInt(ACCOUNTS);
+                        int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                        service.transfer(accounts.get(from).getId(), accounts.get(to).getId(), new MoneyModel(1, CurrencyType.RON));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        start.countDown();
+        assertTrue("Transfers did not finish, possible deadlock", done.await(60, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,145 @@
+import domain.CheckingAccountModel;
+import domain.CurrencyType;
+import domain.MoneyModel;
+import domain.TransactionModel;
+import domain.TransactionPage;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import repository.AccountsRepository;
+import services.LockingMode;
+import services.TransactionManagerService;
+import store.StoredHistory;
+import store.TransactionStore;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TransactionStoreTest {
+    private final CheckingAccountModel first = new CheckingAccountModel("STORE_A", new MoneyModel(1_000, CurrencyType.RON), new ArrayList<>(), null);
+    private final CheckingAccountModel second = new CheckingAccountModel("STORE_B", new MoneyModel(1_000, CurrencyType.RON), new ArrayList<>(), null);
+    private final TransactionStore store = new TransactionStore();
+    private final TransactionManagerService service = new TransactionManagerService(LockingMode.PER_ACCOUNT);
+
+    @Before
+    public void setUp() {
+        AccountsRepository.INSTANCE.add(first.getId(), first);
+        AccountsRepository.INSTANCE.add(second.getId(), second);
+        service.setTransactionStore(store);
+    }
+
+    @After
+    public void tearDown() {
+        AccountsRepository.INSTANCE.clear();
+    }
+
+    @Test
+    public void recordsRoundTripEveryField() {
+        UUID id = UUID.randomUUID();
+        Instant createdAt = Instant.parse("2024-05-15T10:15:30.123456Z");
+        store.append(id, "FROM", "TO", MoneyModel.ofMinorUnits(12_345, CurrencyType.GBP), createdAt);
+
+        TransactionModel stored = store.historyOf("TO").get(0);
+        assertEquals(id, stored.getId());
+        assertEquals("FROM", stored.getFrom());
+        assertEquals("TO", stored.getTo());
+        assertEquals(12_345, stored.getAmount().getMinorUnits());
+        assertEquals(CurrencyType.GBP, stored.getAmount().getCurrency());
+        assertEquals(createdAt, stored.getCreatedAt());
+        assertEquals(LocalDate.ofInstant(createdAt, ZoneId.systemDefault()), stored.getTimestamp());
+        assertEquals(1, store.getRecordCount());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void storedTransactionsAreReadOnly() {
+        service.transfer(first.getId(), second.getId(), new MoneyModel(1, CurrencyType.RON)).setTo("ELSEWHERE");
+    }
+
+    @Test
+    public void serviceReadsTransfersAndWithdrawalsBackFromTheStore() {
+        TransactionModel transfer = service.transfer(first.getId(), second.getId(), new MoneyModel(10, CurrencyType.RON));
+        service.withdraw(first.getId(), new MoneyModel(1, CurrencyType.RON));
+
+        List<TransactionModel> firstHistory = service.retrieveTransactions(first.getId());
+        List<TransactionModel> secondHistory = service.retrieveTransactions(second.getId());
+        assertEquals(2, firstHistory.size());
+        assertEquals(1, secondHistory.size());
+        assertEquals(transfer.getId(), secondHistory.get(0).getId());
+        assertEquals(first.getId(), firstHistory.get(1).getTo());
+        assertEquals(2, store.getRecordCount()); // the transfer is stored once for both accounts
+        assertTrue(first.getTransactions().isEmpty());
+    }
+
+    @Test
+    public void rangesAndPagesMatchTheHeapHistory() {
+        for (int i = 0; i < 100; i++) {
+            store.append(new UUID(0, i + 1), first.getId(), second.getId(), MoneyModel.ofMinorUnits(i, CurrencyType.RON),
+                    Instant.ofEpochSecond(1_000 + i));
+            first.getTransactions().add(new TransactionModel(new UUID(0, i + 1), first.getId(), second.getId(),
+                    MoneyModel.ofMinorUnits(i, CurrencyType.RON), Instant.ofEpochSecond(1_000 + i)));
+        }
+        StoredHistory history = store.historyOf(first.getId());
+        Instant from = Instant.ofEpochSecond(1_020);
+        Instant to = Instant.ofEpochSecond(1_050);
+
+        assertIds(first.getTransactionHistory().between(from, to), history.between(from, to));
+        TransactionPage expected = first.getTransactionHistory().page(TransactionPage.FIRST_PAGE, 30);
+        TransactionPage actual = history.page(TransactionPage.FIRST_PAGE, 30);
+        assertIds(expected.getTransactions(), actual.getTransactions());
+        assertEquals(expected.getContinuationToken(), actual.getContinuationToken());
+        assertIds(first.getTransactionHistory().page(expected.getContinuationToken(), 30).getTransactions(),
+                history.page(actual.getContinuationToken(), 30).getTransactions());
+    }
+
+    @Test
+    public void creationTimesNeverGoBackwardsWithinAnAccount() {
+        store.append(null, "A", "B", MoneyModel.ofMinorUnits(1, CurrencyType.RON), Instant.ofEpochSecond(2_000));
+        store.append(null, "B", "C", MoneyModel.ofMinorUnits(1, CurrencyType.RON), Instant.ofEpochSecond(1_000)); // clock stepped back
+
+        assertEquals(Instant.ofEpochSecond(2_000), store.historyOf("C").get(0).getCreatedAt());
+        assertEquals(2, store.historyOf("B").between(Instant.ofEpochSecond(1_500), Instant.MAX).size());
+    }
+
+    @Test
+    public void concurrentTransfersAreAllStored() throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            CheckingAccountModel account = new CheckingAccountModel("STORE_" + i, new MoneyModel(1_000_000, CurrencyType.RON), new ArrayList<>(), null);
+            AccountsRepository.INSTANCE.add(account.getId(), account);
+            ids.add(account.getId());
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int thread = 0; thread < 4; thread++) {
+            int offset = thread;
+            executor.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    int from = (i * 7 + offset) % ids.size();
+                    service.transfer(ids.get(from), ids.get((from + 1 + i % 5) % ids.size()), MoneyModel.ofMinorUnits(1, CurrencyType.RON));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(80_000, store.getRecordCount());
+        long entries = ids.stream().mapToLong(id -> store.historyOf(id).size()).sum();
+        assertEquals(160_000, entries);
+    }
+
+    private static void assertIds(List<TransactionModel> expected, List<TransactionModel> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getId(), actual.get(i).getId());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+import domain.CheckingAccountModel;
+import domain.CurrencyType;
+import domain.MoneyModel;
+import domain.OperationResult;
+import domain.RejectionReason;
+import domain.TransactionModel;
+import domain.TransferRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import repository.AccountsRepository;
+import services.LockingMode;
+import services.TransactionManagerService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TransferBatchTest {
+    private final CheckingAccountModel first = new CheckingAccountModel("BATCH1", new MoneyModel(100, CurrencyType.RON), new ArrayList<>(), null);
+    private final CheckingAccountModel second = new CheckingAccountModel("BATCH2", new MoneyModel(0, CurrencyType.RON), new ArrayList<>(), null);
+
+    @Before
+    public void setUp() {
+        AccountsRepository.INSTANCE.add(first.getId(), first);
+        AccountsRepository.INSTANCE.add(second.getId(), second);
+    }
+
+    @After
+    public void tearDown() {
+        AccountsRepository.INSTANCE.remove(first.getId());
+        AccountsRepository.INSTANCE.remove(second.getId());
+    }
+
+    @Test
+    public void batchReportsEveryItemAndKeepsGoingAfterRejections() {
+        TransactionManagerService service = new TransactionManagerService(LockingMode.PER_ACCOUNT);
+
+        List<OperationResult<TransactionModel>> results = service.transferBatch(List.of(
+                new TransferRequest(first.getId(), second.getId(), new MoneyModel(60, CurrencyType.RON)),
+                new TransferRequest(first.getId(), second.getId(), new MoneyModel(60, CurrencyType.RON)),
+                new TransferRequest(first.getId(), "MISSING", new MoneyModel(1, CurrencyType.RON)),
+                new TransferRequest(second.getId(), first.getId(), new MoneyModel(10, CurrencyType.RON))
+        ));
+
+        assertEquals(4, results.size());
+        assertTrue(results.get(0).isApplied());
+        assertEquals(RejectionReason.INSUFFICIENT_FUNDS, results.get(1).getRejectionReason());
+        assertEquals(RejectionReason.UNKNOWN_ACCOUNT, results.get(2).getRejectionReason());
+        assertTrue(results.get(3).isApplied());
+
+        assertEquals(50.0, first.getBalance().getAmount(), 0.0);
+        assertEquals(50.0, second.getBalance().getAmount(), 0.0);
+        assertEquals(2, first.getTransactions().size());
+    }
+
+    @Test
+    public void resultVariantsReportTypedReasons() {
+        TransactionManagerService service = new TransactionManagerService();
+
+        assertEquals(RejectionReason.NEGATIVE_AMOUNT,
+                service.tryTransfer(first.getId(), second.getId(), new MoneyModel(-1, CurrencyType.RON)).getRejectionReason());
+        assertEquals(RejectionReason.LIMIT_EXCEEDED,
+                service.tryTransfer(first.getId(), second.getId(), new MoneyModel(60000, CurrencyType.RON)).getRejectionReason());
+        assertEquals(RejectionReason.SAME_ACCOUNT,
+                service.tryTransfer(first.getId(), first.getId(), new MoneyModel(1, CurrencyType.RON)).getRejectionReason());
+        assertEquals(RejectionReason.INSUFFICIENT_FUNDS,
+                service.tryWithdraw(second.getId(), new MoneyModel(1, CurrencyType.RON)).getRejectionReason());
+        assertEquals(RejectionReason.UNKNOWN_ACCOUNT, service.tryCheckFunds("MISSING").getRejectionReason());
+        assertTrue(service.tryCheckFunds(first.getId()).isApplied());
+    }
+
+    @Test
+    public void nullAccountIdIsAnUnknownAccount() {
+        TransactionManagerService service = new TransactionManagerService(LockingMode.PER_ACCOUNT);
+
+        assertEquals(RejectionReason.UNKNOWN_ACCOUNT,
+                service.tryTransfer(null, second.getId(), new MoneyModel(1, CurrencyType.RON)).getRejectionReason());
+        assertEquals(RejectionReason.UNKNOWN_ACCOUNT,
+                service.tryTransfer(first.getId(), null, new MoneyModel(1, CurrencyType.RON)).getRejectionReason());
+        assertEquals(RejectionReason.UNKNOWN_ACCOUNT, service.tryWithdraw(null, new MoneyModel(1, CurrencyType.RON)).getRejectionReason());
+        assertEquals(RejectionReason.UNKNOWN_ACCOUNT, service.tryCheckFunds(null).getRejectionReason());
+
+        List<OperationResult<TransactionModel>> results = service.transferBatch(List.of(
+                new TransferRequest(null, second.getId(), new MoneyModel(1, CurrencyType.RON)),
+                new TransferRequest(first.getId(), second.getId(), new MoneyModel(1, CurrencyType.RON))
+        ));
+        assertEquals(RejectionReason.UNKNOWN_ACCOUNT, results.get(0).getRejectionReason());
+        assertTrue(results.get(1).isApplied());
+    }
+}
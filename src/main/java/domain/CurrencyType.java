@@ -1,6 +0,0 @@
-package domain;
-
-public enum CurrencyType {
-    RON,
-    EUR
-}
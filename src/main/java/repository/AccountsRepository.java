@@ -1,7 +0,0 @@
-package repository;
-
-import domain.AccountModel;
-
-public class AccountsRepository {
-    public static final InMemoryDatabase<AccountModel> INSTANCE = new InMemoryDatabase<>();
-}